@@ -0,0 +1,26 @@
+package com.api.backend.cache;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import javax.cache.spi.CachingProvider;
+import java.util.Map;
+
+// Регионы Hibernate на Caffeine со своим CachingProvider у каждой SessionFactory.
+// Общий реестр javax.cache.Caching отдает один CacheManager на URI всем SessionFactory в JVM:
+// контексты тестов и бенчмарков с разными базами видели бы записи друг друга
+public class CaffeineRegionFactory extends JCacheRegionFactory {
+	
+	private final CachingProvider cachingProvider = new CaffeineCachingProvider();
+	
+	@Override
+	protected CachingProvider getCachingProvider(Map<String, Object> properties) {
+		return cachingProvider;
+	}
+	
+	@Override
+	protected void releaseFromUse() {
+		super.releaseFromUse();
+		cachingProvider.close();
+	}
+}
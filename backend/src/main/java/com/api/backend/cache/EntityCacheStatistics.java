@@ -0,0 +1,46 @@
+package com.api.backend.cache;
+
+import com.api.backend.dto.response.EntityCacheRegionStats;
+import com.api.backend.dto.response.EntityCacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Счетчики кэша второго уровня и кэша запросов Hibernate (hibernate.generate_statistics)
+@Component
+public class EntityCacheStatistics {
+	
+	private final Statistics statistics;
+	
+	public EntityCacheStatistics(EntityManagerFactory entityManagerFactory) {
+		this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+	
+	public EntityCacheStats getStats() {
+		EntityCacheStats stats = new EntityCacheStats();
+		stats.setHits(statistics.getSecondLevelCacheHitCount());
+		stats.setMisses(statistics.getSecondLevelCacheMissCount());
+		stats.setPuts(statistics.getSecondLevelCachePutCount());
+		stats.setQueryHits(statistics.getQueryCacheHitCount());
+		stats.setQueryMisses(statistics.getQueryCacheMissCount());
+		stats.setQueryPuts(statistics.getQueryCachePutCount());
+		stats.setQueryExecutions(statistics.getQueryExecutionCount());
+		stats.setEntityLoads(statistics.getEntityLoadCount());
+		
+		Map<String, EntityCacheRegionStats> regions = new TreeMap<>();
+		for (String region : statistics.getSecondLevelCacheRegionNames()) {
+			CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+			if (regionStatistics != null) {
+				regions.put(region, new EntityCacheRegionStats(regionStatistics.getHitCount(),
+						regionStatistics.getMissCount(), regionStatistics.getPutCount()));
+			}
+		}
+		stats.setRegions(regions);
+		return stats;
+	}
+}
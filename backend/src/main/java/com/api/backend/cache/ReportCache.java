@@ -0,0 +1,191 @@
+package com.api.backend.cache;
+
+import com.api.backend.config.ReportConfig;
+import com.api.backend.dto.response.ReportCacheStats;
+import com.api.backend.service.ReportWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Кэш готовых отчетов в файлах, ограниченный по суммарному размеру
+@Slf4j
+@Component
+public class ReportCache {
+	
+	private final ReportConfig.Cache config;
+	private Path directory;
+	
+	// Порядок доступа: первым вытесняется отчет, который дольше всех не запрашивали
+	private final LinkedHashMap<ReportCacheKey, CachedReport> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long sizeBytes;
+	
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	
+	public ReportCache(ReportConfig reportConfig) {
+		this.config = reportConfig.getCache();
+	}
+	
+	@PostConstruct
+	public void init() throws IOException {
+		if (!config.isEnabled()) {
+			return;
+		}
+		// Отдельный подкаталог на каждый запуск: файлы прошлых запусков не соответствуют текущим версиям данных
+		Path baseDirectory = Files.createDirectories(Paths.get(config.getDirectory()));
+		directory = Files.createTempDirectory(baseDirectory, "cache-");
+		log.info("Кэш отчетов: каталог {}, лимит {} байт", directory, config.getMaxSizeBytes());
+	}
+	
+	@PreDestroy
+	public synchronized void destroy() {
+		entries.clear();
+		sizeBytes = 0;
+		if (directory != null) {
+			deleteFiles();
+			try {
+				Files.deleteIfExists(directory);
+			} catch (IOException e) {
+				log.warn("Не удалось удалить каталог отчетов {}", directory, e);
+			}
+		}
+	}
+	
+	// Пишет отчет в поток: из кэша, если он уже построен для этой версии данных, иначе строит и кэширует
+	public void write(ReportCacheKey key, ReportWriter writer, OutputStream outputStream) throws IOException {
+		if (!config.isEnabled()) {
+			misses.incrementAndGet();
+			writer.writeTo(outputStream);
+			return;
+		}
+		try (InputStream inputStream = openOrRender(key, writer)) {
+			inputStream.transferTo(outputStream);
+		}
+	}
+	
+	public ReportCacheStats getStats() {
+		ReportCacheStats stats = new ReportCacheStats();
+		stats.setHits(hits.get());
+		stats.setMisses(misses.get());
+		stats.setEvictions(evictions.get());
+		stats.setMaxSizeBytes(config.getMaxSizeBytes());
+		synchronized (this) {
+			stats.setEntries(entries.size());
+			stats.setSizeBytes(sizeBytes);
+		}
+		return stats;
+	}
+	
+	private InputStream openOrRender(ReportCacheKey key, ReportWriter writer) throws IOException {
+		synchronized (this) {
+			CachedReport cached = entries.get(key);
+			if (cached != null) {
+				hits.incrementAndGet();
+				// Файл открывается под блокировкой, поэтому параллельное вытеснение ему не мешает
+				return Files.newInputStream(cached.file());
+			}
+		}
+		misses.incrementAndGet();
+		
+		Path tempFile = render(writer);
+		long size = Files.size(tempFile);
+		
+		synchronized (this) {
+			CachedReport cached = entries.get(key);
+			if (cached != null) {
+				// Тот же отчет успели построить параллельно
+				Files.deleteIfExists(tempFile);
+				return Files.newInputStream(cached.file());
+			}
+			if (size > config.getMaxSizeBytes()) {
+				log.warn("Отчет {} ({} байт) больше лимита кэша и не кэшируется", key, size);
+				return Files.newInputStream(tempFile, StandardOpenOption.DELETE_ON_CLOSE);
+			}
+			
+			Path file = directory.resolve(key.toFileName());
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			entries.put(key, new CachedReport(file, size));
+			sizeBytes += size;
+			
+			evictOutdated(key.dataVersion());
+			evictOverflow();
+			return Files.newInputStream(file);
+		}
+	}
+	
+	private Path render(ReportWriter writer) throws IOException {
+		Path tempFile = Files.createTempFile(directory, "render-", ".tmp");
+		try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+			writer.writeTo(outputStream);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(tempFile);
+			throw e;
+		}
+		return tempFile;
+	}
+	
+	// Отчеты по старым версиям данных уже никогда не будут запрошены
+	private void evictOutdated(long currentVersion) {
+		Iterator<Map.Entry<ReportCacheKey, CachedReport>> iterator = entries.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<ReportCacheKey, CachedReport> entry = iterator.next();
+			if (entry.getKey().dataVersion() < currentVersion) {
+				iterator.remove();
+				evict(entry.getValue());
+			}
+		}
+	}
+	
+	private void evictOverflow() {
+		Iterator<CachedReport> iterator = entries.values().iterator();
+		while (sizeBytes > config.getMaxSizeBytes() && iterator.hasNext()) {
+			CachedReport cached = iterator.next();
+			iterator.remove();
+			evict(cached);
+		}
+	}
+	
+	private void evict(CachedReport cached) {
+		sizeBytes -= cached.size();
+		evictions.incrementAndGet();
+		try {
+			Files.deleteIfExists(cached.file());
+		} catch (IOException e) {
+			log.warn("Не удалось удалить файл отчета {}", cached.file(), e);
+		}
+	}
+	
+	private void deleteFiles() {
+		try (Stream<Path> files = Files.list(directory)) {
+			files.forEach(file -> {
+				try {
+					Files.deleteIfExists(file);
+				} catch (IOException e) {
+					log.warn("Не удалось удалить файл отчета {}", file, e);
+				}
+			});
+		} catch (IOException e) {
+			log.warn("Не удалось очистить каталог отчетов {}", directory, e);
+		}
+	}
+	
+	private record CachedReport(Path file, long size) {
+	}
+}
@@ -0,0 +1,14 @@
+package com.api.backend.cache;
+
+import com.api.backend.model.enums.ReportFormat;
+import com.api.backend.model.enums.ReportType;
+import com.api.backend.model.enums.UserRole;
+
+// role == null для полного отчета по всем пользователям
+public record ReportCacheKey(ReportType type, UserRole role, ReportFormat format, long dataVersion) {
+	
+	public String toFileName() {
+		String roleName = role != null ? role.name().toLowerCase() : "all";
+		return type.name().toLowerCase() + "_" + roleName + "_v" + dataVersion + "." + format.getExtension();
+	}
+}
@@ -0,0 +1,77 @@
+package com.api.backend.cache;
+
+import com.api.backend.config.ReportConfig;
+import com.api.backend.service.ReportService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Перестраивает все отчеты заранее, когда данные изменились и затем какое-то время не менялись
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportPrerenderScheduler {
+	
+	private final ReportService reportService;
+	private final UserDataVersion userDataVersion;
+	private final ReportConfig reportConfig;
+	
+	// Свой поток: построение всех отчетов долгое и не должно задерживать задачи @Scheduled
+	private ScheduledExecutorService executor;
+	
+	// Вызывается только из потока executor
+	private long prerenderedVersion = -1;
+	
+	@PostConstruct
+	public void init() {
+		ReportConfig.Prerender config = reportConfig.getPrerender();
+		if (!config.isEnabled()) {
+			return;
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("report-prerender-"));
+		executor.scheduleWithFixedDelay(this::prerenderSafely, config.getCheckIntervalMillis(),
+				config.getCheckIntervalMillis(), TimeUnit.MILLISECONDS);
+	}
+	
+	@PreDestroy
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+	
+	private void prerenderAfterQuietPeriod() {
+		ReportConfig.Prerender config = reportConfig.getPrerender();
+		if (!config.isEnabled()) {
+			return;
+		}
+		long version = userDataVersion.current();
+		if (version == prerenderedVersion
+				|| userDataVersion.millisSinceLastChange() < TimeUnit.SECONDS.toMillis(config.getQuietPeriodSeconds())) {
+			return;
+		}
+		
+		log.info("Заранее строим отчеты по версии данных {}", version);
+		long start = System.nanoTime();
+		reportService.prerenderReports();
+		prerenderedVersion = version;
+		log.info("Отчеты по версии данных {} построены за {} мс", version,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+	
+	// Исключение отменило бы все следующие запуски scheduleWithFixedDelay
+	private void prerenderSafely() {
+		try {
+			prerenderAfterQuietPeriod();
+		} catch (RuntimeException e) {
+			log.error("Ошибка предварительного построения отчетов", e);
+		}
+	}
+}
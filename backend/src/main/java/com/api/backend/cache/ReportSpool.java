@@ -0,0 +1,177 @@
+package com.api.backend.cache;
+
+import com.api.backend.config.ReportConfig;
+import com.api.backend.model.enums.ReportFormat;
+import com.api.backend.model.enums.ReportType;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.service.ReportWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Заранее построенные отчеты, по одному файлу на вариант (тип, роль, формат).
+// Новый файл подменяет старый только после полной записи, а уже начатые выдачи
+// дочитывают старый файл: на Linux удаленный файл доступен, пока открыт
+@Slf4j
+@Component
+public class ReportSpool {
+	
+	private final ReportConfig.Prerender config;
+	private Path directory;
+	
+	private final Map<Variant, SpooledReport> reports = new ConcurrentHashMap<>();
+	// Варианты, которые сейчас перестраиваются: только для них допустимо отдавать старый файл
+	private final Set<Variant> rendering = ConcurrentHashMap.newKeySet();
+	
+	public ReportSpool(ReportConfig reportConfig) {
+		this.config = reportConfig.getPrerender();
+	}
+	
+	@PostConstruct
+	public void init() throws IOException {
+		if (!config.isEnabled()) {
+			return;
+		}
+		// Версии данных живут только в памяти, поэтому файлы прошлых запусков не используются
+		Path baseDirectory = Files.createDirectories(Paths.get(config.getDirectory()));
+		directory = Files.createTempDirectory(baseDirectory, "spool-");
+		log.info("Каталог заранее построенных отчетов: {}", directory);
+	}
+	
+	@PreDestroy
+	public void destroy() {
+		reports.values().forEach(report -> deleteFile(report.file()));
+		reports.clear();
+		if (directory != null) {
+			deleteFile(directory);
+		}
+	}
+	
+	public boolean isEnabled() {
+		return config.isEnabled();
+	}
+	
+	public List<ReportFormat> getFormats() {
+		return config.getFormats();
+	}
+	
+	// Есть ли уже файл, построенный по этой версии данных
+	public boolean isCurrent(ReportCacheKey key) {
+		SpooledReport report = reports.get(Variant.of(key));
+		return report != null && report.dataVersion() == key.dataVersion();
+	}
+	
+	// snapshotTime - момент перед чтением данных, от него считается устаревание файла
+	public void publish(ReportCacheKey key, Instant snapshotTime, ReportWriter writer) throws IOException {
+		Variant variant = Variant.of(key);
+		rendering.add(variant);
+		try {
+			Path tempFile = Files.createTempFile(directory, "render-", ".tmp");
+			try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+				writer.writeTo(outputStream);
+			} catch (IOException | RuntimeException e) {
+				Files.deleteIfExists(tempFile);
+				throw e;
+			}
+			
+			Path file = directory.resolve(key.toFileName());
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			SpooledReport previous = reports.put(variant, new SpooledReport(file, key.dataVersion(), snapshotTime));
+			if (previous != null && !previous.file().equals(file)) {
+				deleteFile(previous.file());
+			}
+		} finally {
+			rendering.remove(variant);
+		}
+	}
+	
+	// Убирает вариант, который больше не удается построить, чтобы не отдавать его бесконечно
+	public void discard(ReportType type, UserRole role, ReportFormat format) {
+		SpooledReport previous = reports.remove(new Variant(type, role, format));
+		if (previous != null) {
+			deleteFile(previous.file());
+		}
+	}
+	
+	// Отдает файл, не загружая его в память целиком. Файл по старой версии данных отдается,
+	// только пока новый строится, и не дольше max-stale-seconds с момента чтения данных
+	public boolean transferTo(ReportType type, UserRole role, ReportFormat format, long currentVersion,
+							  OutputStream outputStream) throws IOException {
+		if (!config.isEnabled()) {
+			return false;
+		}
+		Variant variant = new Variant(type, role, format);
+		// Вторая попытка нужна, если файл подменили между выбором и открытием
+		for (int attempt = 0; attempt < 2; attempt++) {
+			SpooledReport report = reports.get(variant);
+			if (report == null || !isServable(variant, report, currentVersion)) {
+				return false;
+			}
+			try (FileChannel channel = FileChannel.open(report.file(), StandardOpenOption.READ)) {
+				transfer(channel, outputStream);
+				return true;
+			} catch (NoSuchFileException e) {
+				log.debug("Файл отчета {} подменен во время открытия", report.file());
+			}
+		}
+		return false;
+	}
+	
+	private boolean isServable(Variant variant, SpooledReport report, long currentVersion) {
+		if (report.dataVersion() == currentVersion) {
+			return true;
+		}
+		return rendering.contains(variant)
+				&& Duration.between(report.snapshotTime(), Instant.now()).getSeconds() < config.getMaxStaleSeconds();
+	}
+	
+	// Выходной поток ответа не файловый канал, поэтому transferTo копирует через небольшой
+	// буфер в куче: это не zero-copy, но память не зависит от размера файла
+	private static void transfer(FileChannel channel, OutputStream outputStream) throws IOException {
+		WritableByteChannel target = Channels.newChannel(outputStream);
+		long size = channel.size();
+		long position = 0;
+		while (position < size) {
+			position += channel.transferTo(position, size - position, target);
+		}
+		outputStream.flush();
+	}
+	
+	private void deleteFile(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			log.warn("Не удалось удалить файл {}", file, e);
+		}
+	}
+	
+	private record Variant(ReportType type, UserRole role, ReportFormat format) {
+		
+		static Variant of(ReportCacheKey key) {
+			return new Variant(key.type(), key.role(), key.format());
+		}
+	}
+	
+	private record SpooledReport(Path file, long dataVersion, Instant snapshotTime) {
+	}
+}
@@ -0,0 +1,44 @@
+package com.api.backend.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Версия данных пользователей, увеличивается после каждой записи
+@Component
+public class UserDataVersion {
+	
+	private final AtomicLong version = new AtomicLong();
+	private volatile long lastChangeMillis = System.currentTimeMillis();
+	
+	public long current() {
+		return version.get();
+	}
+	
+	// Время с последнего изменения (или со старта приложения)
+	public long millisSinceLastChange() {
+		return System.currentTimeMillis() - lastChangeMillis;
+	}
+	
+	// Версия увеличивается только после коммита, чтобы отчет по старой версии
+	// не мог закэшироваться с еще не зафиксированными изменениями
+	public void bump() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					increment();
+				}
+			});
+		} else {
+			increment();
+		}
+	}
+	
+	private void increment() {
+		lastChangeMillis = System.currentTimeMillis();
+		version.incrementAndGet();
+	}
+}
@@ -0,0 +1,76 @@
+package com.api.backend.config;
+
+import com.api.backend.model.enums.ReportFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.reports")
+public class ReportConfig {
+	
+	private Cache cache = new Cache();
+	private Jobs jobs = new Jobs();
+	private Admission admission = new Admission();
+	private Prerender prerender = new Prerender();
+	private Bundle bundle = new Bundle();
+	
+	@Data
+	public static class Cache {
+		private boolean enabled = true;
+		// Каталог для готовых файлов отчетов
+		private String directory = System.getProperty("java.io.tmpdir") + "/role-registration-reports";
+		// Суммарный размер файлов в кэше, при превышении вытесняются самые давние
+		private long maxSizeBytes = 64L * 1024 * 1024;
+	}
+	
+	@Data
+	public static class Jobs {
+		// Каталог для файлов, построенных фоновыми задачами
+		private String directory = System.getProperty("java.io.tmpdir") + "/role-registration-reports";
+		private int poolSize = 2;
+		// Задачи сверх очереди отклоняются
+		private int queueCapacity = 10;
+		// Сколько хранится готовый файл после завершения задачи
+		private long artifactTtlSeconds = 900;
+	}
+	
+	@Data
+	public static class Admission {
+		// Сколько отчетов строится одновременно
+		private int maxConcurrent = 2;
+		// Сколько запросов может ждать свободного места, остальные сразу получают 503
+		private int maxQueued = 10;
+		private long queueTimeoutSeconds = 30;
+		// Доля -Xmx, которую могут занимать одновременно строящиеся отчеты
+		private double heapBudgetRatio = 0.5;
+		// Оценка памяти на одну ячейку таблицы docx (XWPF держит весь документ в куче)
+		private long docxBytesPerCell = 2048;
+		// Оценка для xlsx и csv: строки пишутся потоком, память почти не зависит от объема
+		private long streamingFormatBytes = 16L * 1024 * 1024;
+		private long retryAfterSeconds = 30;
+	}
+	
+	@Data
+	public static class Prerender {
+		private boolean enabled = true;
+		// Каталог для заранее построенных отчетов
+		private String directory = System.getProperty("java.io.tmpdir") + "/role-registration-reports";
+		// Отчеты перестраиваются, когда после последнего изменения данных прошло столько времени
+		private long quietPeriodSeconds = 30;
+		// Как часто проверяется, не пора ли перестроить отчеты
+		private long checkIntervalMillis = 10000;
+		// Старый отчет отдается, только пока строится новый, и не дольше этого срока
+		private long maxStaleSeconds = 300;
+		private List<ReportFormat> formats = List.of(ReportFormat.values());
+	}
+	
+	@Data
+	public static class Bundle {
+		// Каталог для отчетов, которые строятся перед упаковкой в архив
+		private String directory = System.getProperty("java.io.tmpdir") + "/role-registration-reports";
+	}
+}
@@ -0,0 +1,49 @@
+package com.api.backend.config;
+
+import com.api.backend.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Раньше id пользователей выдавал IDENTITY, а ddl-auto=update создает users_seq, начиная с 1:
+// в такой базе последовательность выдала бы уже занятые id. При старте она сдвигается за max(id)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserIdSequenceInitializer {
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManagerFactory entityManagerFactory;
+	
+	@PostConstruct
+	public void init() {
+		Long maxId = jdbcTemplate.queryForObject("select max(id) from users", Long.class);
+		if (maxId == null) {
+			return;
+		}
+		// Hibernate берет пул id, который заканчивается значением последовательности
+		long required = maxId + User.ID_ALLOCATION_SIZE;
+		
+		SequenceSupport sequenceSupport = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+				.getJdbcServices().getDialect().getSequenceSupport();
+		if (sequenceSupport.supportsSequences()) {
+			Long next = jdbcTemplate.queryForObject(sequenceSupport.getSequenceNextValString(User.ID_SEQUENCE), Long.class);
+			if (next != null && next < required) {
+				jdbcTemplate.execute("alter sequence " + User.ID_SEQUENCE + " restart with " + required);
+				log.info("Последовательность {} сдвинута с {} на {}", User.ID_SEQUENCE, next, required);
+			}
+		} else {
+			// Без последовательностей Hibernate хранит следующее значение в таблице с тем же именем
+			int updated = jdbcTemplate.update("update " + User.ID_SEQUENCE + " set next_val = ? where next_val < ?",
+					required, required);
+			if (updated > 0) {
+				log.info("Таблица последовательности {} сдвинута на {}", User.ID_SEQUENCE, required);
+			}
+		}
+	}
+}
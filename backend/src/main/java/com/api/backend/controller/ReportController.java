@@ -1,66 +1,165 @@
 package com.api.backend.controller;
 
-import com.api.backend.dto.response.ReportResponse;
+import com.api.backend.dto.request.ReportJobRequest;
+import com.api.backend.dto.response.ReportAdmissionStats;
+import com.api.backend.dto.response.ReportCacheStats;
+import com.api.backend.dto.response.ReportJobResponse;
+import com.api.backend.dto.response.StreamingReportResponse;
+import com.api.backend.exception.ReportOverloadedException;
+import com.api.backend.model.enums.ReportFormat;
 import com.api.backend.model.enums.UserRole;
+import com.api.backend.service.ReportJobService;
 import com.api.backend.service.ReportService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/reports")
 @RequiredArgsConstructor
 public class ReportController {
 	
+	private static final Set<String> ATTACHMENT_HEADERS = Set.of(
+			"content-disposition", "content-type", "content-length");
+	
 	private final ReportService reportService;
+	private final ReportJobService reportJobService;
 	
 	@GetMapping("/all")
-	public ResponseEntity<byte[]> generateAllUsersReport() {
-		ReportResponse report = reportService.generateAllUsersReport();
+	public ResponseEntity<StreamingResponseBody> generateAllUsersReport(
+			@RequestParam(defaultValue = "docx") String format) {
+		StreamingReportResponse report = reportService.streamAllUsersReport(parseFormat(format));
 		return buildResponseEntity(report);
 	}
 	
 	@GetMapping("/role/{role}")
-	public ResponseEntity<byte[]> generateRoleReport(@PathVariable String role) {
+	public ResponseEntity<StreamingResponseBody> generateRoleReport(
+			@PathVariable String role,
+			@RequestParam(defaultValue = "docx") String format) {
+		UserRole userRole;
 		try {
-			UserRole userRole = UserRole.valueOf(role.toUpperCase());
-			ReportResponse report = reportService.generateRoleReport(userRole);
-			return buildResponseEntity(report);
+			userRole = UserRole.valueOf(role.toUpperCase());
 		} catch (IllegalArgumentException e) {
 			throw new RuntimeException("Неверная роль: " + role);
 		}
+		StreamingReportResponse report = reportService.streamRoleReport(userRole, parseFormat(format));
+		return buildResponseEntity(report);
 	}
 	
 	@GetMapping("/guests")
-	public ResponseEntity<byte[]> generateGuestsReport() {
-		ReportResponse report = reportService.generateGuestsReport();
+	public ResponseEntity<StreamingResponseBody> generateGuestsReport(
+			@RequestParam(defaultValue = "docx") String format) {
+		StreamingReportResponse report = reportService.streamRoleReport(UserRole.GUEST, parseFormat(format));
 		return buildResponseEntity(report);
 	}
 	
 	@GetMapping("/novices")
-	public ResponseEntity<byte[]> generateNovicesReport() {
-		ReportResponse report = reportService.generateNovicesReport();
+	public ResponseEntity<StreamingResponseBody> generateNovicesReport(
+			@RequestParam(defaultValue = "docx") String format) {
+		StreamingReportResponse report = reportService.streamRoleReport(UserRole.NOVICE, parseFormat(format));
 		return buildResponseEntity(report);
 	}
 	
 	@GetMapping("/fighters")
-	public ResponseEntity<byte[]> generateFightersReport() {
-		ReportResponse report = reportService.generateFightersReport();
+	public ResponseEntity<StreamingResponseBody> generateFightersReport(
+			@RequestParam(defaultValue = "docx") String format) {
+		StreamingReportResponse report = reportService.streamRoleReport(UserRole.FIGHTER, parseFormat(format));
 		return buildResponseEntity(report);
 	}
 	
 	@GetMapping("/veterans")
-	public ResponseEntity<byte[]> generateVeteransReport() {
-		ReportResponse report = reportService.generateVeteransReport();
+	public ResponseEntity<StreamingResponseBody> generateVeteransReport(
+			@RequestParam(defaultValue = "docx") String format) {
+		StreamingReportResponse report = reportService.streamRoleReport(UserRole.VETERAN, parseFormat(format));
+		return buildResponseEntity(report);
+	}
+	
+	// Все отчеты одним архивом, построенные параллельно
+	@GetMapping("/bundle")
+	public ResponseEntity<StreamingResponseBody> generateReportsBundle(
+			@RequestParam(defaultValue = "docx") String format) {
+		StreamingReportResponse report = reportService.streamReportsBundle(parseFormat(format));
+		return buildResponseEntity(report);
+	}
+	
+	// Фоновое построение отчета: сразу возвращает идентификатор задачи
+	@PostMapping("/jobs")
+	public ResponseEntity<ReportJobResponse> submitReportJob(@Valid @RequestBody ReportJobRequest request) {
+		return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submitJob(request));
+	}
+	
+	@GetMapping("/jobs/{id}")
+	public ResponseEntity<ReportJobResponse> getReportJob(@PathVariable String id) {
+		return ResponseEntity.ok(reportJobService.getJob(id));
+	}
+	
+	@GetMapping("/jobs/{id}/download")
+	public ResponseEntity<StreamingResponseBody> downloadReportJobResult(@PathVariable String id) {
+		StreamingReportResponse report = reportJobService.downloadJobResult(id);
 		return buildResponseEntity(report);
 	}
 	
-	private ResponseEntity<byte[]> buildResponseEntity(ReportResponse report) {
+	@GetMapping("/cache/stats")
+	public ResponseEntity<ReportCacheStats> getCacheStats() {
+		return ResponseEntity.ok(reportService.getCacheStats());
+	}
+	
+	@GetMapping("/admission/stats")
+	public ResponseEntity<ReportAdmissionStats> getAdmissionStats() {
+		return ResponseEntity.ok(reportService.getAdmissionStats());
+	}
+	
+	// Перегрузка отдается как 503 с Retry-After, в том числе из потоковой выдачи, пока ответ не начат.
+	// Заголовки файла к этому моменту уже выставлены, поэтому они убираются
+	@ExceptionHandler(ReportOverloadedException.class)
+	public ResponseEntity<String> handleReportOverloaded(ReportOverloadedException e, HttpServletResponse response) {
+		removeAttachmentHeaders(response);
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+				.contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+				.body(e.getMessage());
+	}
+	
+	// Удалить отдельный заголовок сервлет не позволяет: ответ сбрасывается целиком,
+	// а остальные заголовки (CORS, безопасность) выставляются заново
+	private void removeAttachmentHeaders(HttpServletResponse response) {
+		if (response.isCommitted()) {
+			return;
+		}
+		HttpHeaders preserved = new HttpHeaders();
+		for (String name : new LinkedHashSet<>(response.getHeaderNames())) {
+			if (!ATTACHMENT_HEADERS.contains(name.toLowerCase())) {
+				preserved.addAll(name, List.copyOf(response.getHeaders(name)));
+			}
+		}
+		response.reset();
+		preserved.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+	}
+	
+	private ReportFormat parseFormat(String format) {
+		try {
+			return ReportFormat.valueOf(format.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new RuntimeException("Неверный формат отчета: " + format);
+		}
+	}
+	
+	// Документ пишется прямо в выходной поток ответа, без копии в byte[]
+	private ResponseEntity<StreamingResponseBody> buildResponseEntity(StreamingReportResponse report) {
 		return ResponseEntity.ok()
-				.contentType(MediaType.APPLICATION_OCTET_STREAM)
+				.contentType(MediaType.parseMediaType(report.getContentType()))
 				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + report.getFilename() + "\"")
-				.body(report.getContent());
+				.body(outputStream -> report.getWriter().writeTo(outputStream));
 	}
-}
\ No newline at end of file
+}
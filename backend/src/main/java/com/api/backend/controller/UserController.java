@@ -1,13 +1,35 @@
 package com.api.backend.controller;
 
+import com.api.backend.cache.EntityCacheStatistics;
 import com.api.backend.dto.request.UserRequest;
+import com.api.backend.dto.response.BulkDeleteResponse;
+import com.api.backend.dto.response.EntityCacheStats;
+import com.api.backend.dto.response.UserBatchResponse;
+import com.api.backend.dto.response.UserFacetResponse;
+import com.api.backend.dto.response.UserImportResponse;
+import com.api.backend.dto.response.UserPageResponse;
 import com.api.backend.dto.response.UserResponse;
+import com.api.backend.dto.response.UserStatsResponse;
+import com.api.backend.dto.response.UserSuggestion;
+import com.api.backend.dto.response.UserValidationErrorResponse;
+import com.api.backend.dto.response.UserValidationResponse;
+import com.api.backend.exception.UserValidationException;
+import com.api.backend.form.UserFormSchema;
+import com.api.backend.service.UserImportService;
 import com.api.backend.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/users")
@@ -15,22 +37,80 @@ import java.util.List;
 public class UserController {
 	
 	private final UserService userService;
+	private final UserImportService userImportService;
+	private final UserFormSchema userFormSchema;
+	private final EntityCacheStatistics entityCacheStatistics;
 	
 	@GetMapping
-	public ResponseEntity<List<UserResponse>> getAllUsers() {
+	public ResponseEntity<Collection<UserResponse>> getAllUsers() {
 		return ResponseEntity.ok(userService.getAllUsers());
 	}
 	
+	// Постраничная выдача включается параметром limit, без него ответ остается массивом.
+	// sort=id|surname, cursor - значение nextCursor из предыдущей страницы.
+	// fields=name,role,... - читать из БД и отдавать только перечисленные поля UserResponse
+	@GetMapping(params = {"fields", "!limit"})
+	public ResponseEntity<List<Map<String, Object>>> getAllUserFields(@RequestParam String fields) {
+		return ResponseEntity.ok(userService.getAllUserFields(fields));
+	}
+	
+	@GetMapping(params = "limit")
+	public ResponseEntity<UserPageResponse<?>> getUsersPage(
+			@RequestParam Integer limit,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) String sort,
+			@RequestParam(required = false) String fields) {
+		return ResponseEntity.ok(userService.getUsersPage(limit, cursor, sort, fields));
+	}
+	
+	// Какие поля анкеты показывать и какие обязательны - для всех сочетаний роли, места события и переключателей.
+	// Документ неизменен до новой версии приложения. По ETag Spring сам отвечает 304 на запрос с If-None-Match
+	@GetMapping("/form-schema")
+	public ResponseEntity<byte[]> getFormSchema() {
+		return ResponseEntity.ok()
+				.eTag(userFormSchema.getEtag())
+				.cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS))
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(userFormSchema.getJson());
+	}
+	
 	@GetMapping("/{id}")
 	public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
 		return ResponseEntity.ok(userService.getUserById(id));
 	}
 	
+	@GetMapping(value = "/{id}", params = "fields")
+	public ResponseEntity<Map<String, Object>> getUserFieldsById(@PathVariable Long id, @RequestParam String fields) {
+		return ResponseEntity.ok(userService.getUserFieldsById(id, fields));
+	}
+	
 	@PostMapping
 	public ResponseEntity<UserResponse> createUser(@Valid @RequestBody UserRequest userRequest) {
 		return ResponseEntity.ok(userService.createUser(userRequest));
 	}
 	
+	// Все строки проверяются до сохранения; при ошибках ответ 400 с ошибками по номерам строк и без сохранения
+	@PostMapping("/batch")
+	public ResponseEntity<UserBatchResponse> createUsers(@RequestBody List<UserRequest> userRequests) {
+		UserBatchResponse response = userService.createUsers(userRequests);
+		if (!response.getErrors().isEmpty()) {
+			return ResponseEntity.badRequest().body(response);
+		}
+		return ResponseEntity.ok(response);
+	}
+	
+	// Проверка анкеты без сохранения: все нарушения сразу, БД не используется
+	@PostMapping("/validate")
+	public ResponseEntity<UserValidationResponse> validateUser(@RequestBody UserRequest userRequest) {
+		return ResponseEntity.ok(userService.validateUserRequest(userRequest));
+	}
+	
+	// Импорт из csv или xlsx: строки с ошибками пропускаются и перечисляются в ответе, остальные сохраняются
+	@PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public ResponseEntity<UserImportResponse> importUsers(@RequestParam("file") MultipartFile file) {
+		return ResponseEntity.ok(userImportService.importUsers(file));
+	}
+	
 	@PutMapping("/{id}")
 	public ResponseEntity<UserResponse> updateUser(
 			@PathVariable Long id,
@@ -45,25 +125,123 @@ public class UserController {
 	}
 	
 	@GetMapping("/role/{role}")
-	public ResponseEntity<List<UserResponse>> getUsersByRole(@PathVariable String role) {
+	public ResponseEntity<Collection<UserResponse>> getUsersByRole(@PathVariable String role) {
 		return ResponseEntity.ok(userService.getUsersByRole(role));
 	}
 	
+	@GetMapping(value = "/role/{role}", params = {"fields", "!limit"})
+	public ResponseEntity<List<Map<String, Object>>> getUserFieldsByRole(
+			@PathVariable String role,
+			@RequestParam String fields) {
+		return ResponseEntity.ok(userService.getUserFieldsByRole(role, fields));
+	}
+	
+	@GetMapping(value = "/role/{role}", params = "limit")
+	public ResponseEntity<UserPageResponse<?>> getUsersByRolePage(
+			@PathVariable String role,
+			@RequestParam Integer limit,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) String sort,
+			@RequestParam(required = false) String fields) {
+		return ResponseEntity.ok(userService.getUsersByRolePage(role, limit, cursor, sort, fields));
+	}
+	
 	@GetMapping("/location/{eventLocation}")
-	public ResponseEntity<List<UserResponse>> getUsersByEventLocation(@PathVariable String eventLocation) {
+	public ResponseEntity<Collection<UserResponse>> getUsersByEventLocation(@PathVariable String eventLocation) {
 		return ResponseEntity.ok(userService.getUsersByEventLocation(eventLocation));
 	}
 	
+	@GetMapping(value = "/location/{eventLocation}", params = {"fields", "!limit"})
+	public ResponseEntity<List<Map<String, Object>>> getUserFieldsByEventLocation(
+			@PathVariable String eventLocation,
+			@RequestParam String fields) {
+		return ResponseEntity.ok(userService.getUserFieldsByEventLocation(eventLocation, fields));
+	}
+	
+	@GetMapping(value = "/location/{eventLocation}", params = "limit")
+	public ResponseEntity<UserPageResponse<?>> getUsersByEventLocationPage(
+			@PathVariable String eventLocation,
+			@RequestParam Integer limit,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) String sort,
+			@RequestParam(required = false) String fields) {
+		return ResponseEntity.ok(userService.getUsersByEventLocationPage(eventLocation, limit, cursor, sort, fields));
+	}
+	
+	// Подсказки для поля поиска: id, фамилия и имя первых limit пользователей по началу слова
+	@GetMapping("/autocomplete")
+	public ResponseEntity<List<UserSuggestion>> autocompleteUsers(
+			@RequestParam String prefix,
+			@RequestParam(required = false) Integer limit) {
+		return ResponseEntity.ok(userService.autocompleteUsers(prefix, limit));
+	}
+	
+	// Фасетный фильтр: значения одного параметра через запятую объединяются по ИЛИ, разные параметры по И,
+	// например ?role=FIGHTER,VETERAN&eventLocation=BANQUET,BOTH&hasCar=true&wantBowling=true.
+	// Параметры: role, squad, eventLocation, hasAllergies, wantBowling, hasCar, needSpeech, willPerform
+	@GetMapping("/filter")
+	public ResponseEntity<UserFacetResponse> filterUsers(
+			@RequestParam(required = false) Integer limit,
+			@RequestParam MultiValueMap<String, String> params) {
+		params.remove("limit");
+		return ResponseEntity.ok(userService.filterUsers(params, limit));
+	}
+	
+	// Сводные счетчики по ролям, отрядам, местам события и отметкам анкеты; считаются без запросов к БД
+	@GetMapping("/stats")
+	public ResponseEntity<UserStatsResponse> getUserStats() {
+		return ResponseEntity.ok(userService.getUserStats());
+	}
+	
+	// Попадания и промахи кэша второго уровня и кэша запросов по регионам
+	@GetMapping("/cache/stats")
+	public ResponseEntity<EntityCacheStats> getCacheStats() {
+		return ResponseEntity.ok(entityCacheStatistics.getStats());
+	}
+	
+	// fuzzy - допустимое число опечаток в каждом слове, результаты по возрастанию расстояния
 	@GetMapping("/search")
 	public ResponseEntity<List<UserResponse>> searchUsersByName(
-			@RequestParam String name) {
+			@RequestParam String name,
+			@RequestParam(required = false) Integer fuzzy) {
+		if (fuzzy != null) {
+			return ResponseEntity.ok(userService.fuzzySearchUsersByName(name, fuzzy));
+		}
 		return ResponseEntity.ok(userService.searchUsersByName(name));
 	}
 	
-	// Новый метод для массового удаления
+	@GetMapping(value = "/search", params = {"fields", "!limit"})
+	public ResponseEntity<List<Map<String, Object>>> searchUserFieldsByName(
+			@RequestParam String name,
+			@RequestParam String fields) {
+		return ResponseEntity.ok(userService.searchUserFieldsByName(name, fields));
+	}
+	
+	@GetMapping(value = "/search", params = "limit")
+	public ResponseEntity<UserPageResponse<?>> searchUsersByNamePage(
+			@RequestParam String name,
+			@RequestParam Integer limit,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) String sort,
+			@RequestParam(required = false) String fields) {
+		return ResponseEntity.ok(userService.searchUsersByNamePage(name, limit, cursor, sort, fields));
+	}
+	
+	// Новый метод для массового удаления. Отсутствующие id не считаются ошибкой и возвращаются в ответе;
+	// большие списки удаляются в фоне, тогда ответ 202
 	@DeleteMapping("/batch")
-	public ResponseEntity<Void> deleteUsers(@RequestBody List<Long> ids) {
-		userService.deleteUsers(ids);
-		return ResponseEntity.ok().build();
+	public ResponseEntity<BulkDeleteResponse> deleteUsers(@RequestBody List<Long> ids) {
+		BulkDeleteResponse response = userService.deleteUsers(ids);
+		if (response.getScheduled() > 0) {
+			return ResponseEntity.accepted().body(response);
+		}
+		return ResponseEntity.ok(response);
+	}
+	
+	// Нарушения правил роли отдаются списком с кодами по полям, а не одной строкой
+	@ExceptionHandler(UserValidationException.class)
+	public ResponseEntity<UserValidationErrorResponse> handleUserValidation(UserValidationException e) {
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body(new UserValidationErrorResponse(e.getMessage(), e.getViolations()));
 	}
-}
\ No newline at end of file
+}
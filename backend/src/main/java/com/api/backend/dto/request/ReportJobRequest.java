@@ -0,0 +1,19 @@
+package com.api.backend.dto.request;
+
+import com.api.backend.model.enums.ReportFormat;
+import com.api.backend.model.enums.ReportType;
+import com.api.backend.model.enums.UserRole;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ReportJobRequest {
+	
+	@NotNull(message = "Тип отчета обязателен")
+	private ReportType type;
+	
+	// Обязательна только для отчета по роли
+	private UserRole role;
+	
+	private ReportFormat format = ReportFormat.DOCX;
+}
@@ -0,0 +1,19 @@
+package com.api.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResponse {
+	// Удалено в рамках запроса
+	private int deleted;
+	// Поставлено в фоновое удаление (для больших списков)
+	private int scheduled;
+	// Id, которых нет в базе
+	private List<Long> missingIds;
+}
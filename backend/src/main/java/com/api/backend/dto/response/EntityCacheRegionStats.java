@@ -0,0 +1,14 @@
+package com.api.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityCacheRegionStats {
+	private long hits;
+	private long misses;
+	private long puts;
+}
@@ -0,0 +1,21 @@
+package com.api.backend.dto.response;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class EntityCacheStats {
+	// Кэш второго уровня (сущности) по всем регионам
+	private long hits;
+	private long misses;
+	private long puts;
+	// Кэш запросов
+	private long queryHits;
+	private long queryMisses;
+	private long queryPuts;
+	// Сколько раз все же пришлось идти в БД
+	private long queryExecutions;
+	private long entityLoads;
+	private Map<String, EntityCacheRegionStats> regions;
+}
@@ -0,0 +1,18 @@
+package com.api.backend.dto.response;
+
+import lombok.Data;
+
+@Data
+public class ReportAdmissionStats {
+	private int maxConcurrent;
+	private int activeRenders;
+	private int queueDepth;
+	private int maxQueueDepth;
+	private long reservedBytes;
+	private long heapBudgetBytes;
+	private long admitted;
+	private long rejected;
+	private long timedOut;
+	private long averageWaitMillis;
+	private long maxWaitMillis;
+}
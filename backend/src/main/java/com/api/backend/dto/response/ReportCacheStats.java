@@ -0,0 +1,14 @@
+package com.api.backend.dto.response;
+
+import lombok.Data;
+
+@Data
+public class ReportCacheStats {
+	private long hits;
+	private long misses;
+	private long evictions;
+	private int entries;
+	private long sizeBytes;
+	private long maxSizeBytes;
+	private long dataVersion;
+}
@@ -0,0 +1,22 @@
+package com.api.backend.dto.response;
+
+import com.api.backend.model.enums.ReportJobStatus;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class ReportJobResponse {
+	private String id;
+	private String reportName;
+	private ReportJobStatus status;
+	// Прогресс построения по строкам. totalRows пуст, пока построение не началось,
+	// и остается пустым, если отчет был взят из уже готовых
+	private Long totalRows;
+	private long rowsRendered;
+	private Instant createdAt;
+	private Instant startedAt;
+	private Instant finishedAt;
+	private Instant expiresAt;
+	private String error;
+}
@@ -0,0 +1,25 @@
+package com.api.backend.dto.response;
+
+import com.api.backend.service.ReportWriter;
+import lombok.Data;
+
+@Data
+public class StreamingReportResponse {
+	private String reportName;
+	private ReportWriter writer;
+	private String contentType = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+	private String filename;
+	
+	public StreamingReportResponse(String reportName, ReportWriter writer) {
+		this.reportName = reportName;
+		this.writer = writer;
+		this.filename = reportName + ".docx";
+	}
+	
+	public StreamingReportResponse(String reportName, String filename, String contentType, ReportWriter writer) {
+		this.reportName = reportName;
+		this.writer = writer;
+		this.contentType = contentType;
+		this.filename = filename;
+	}
+}
@@ -0,0 +1,17 @@
+package com.api.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchResponse {
+	private int created;
+	private List<UserResponse> users;
+	// Если есть хоть одна ошибка, не сохраняется ни одна строка
+	private List<UserRowError> errors;
+}
@@ -0,0 +1,19 @@
+package com.api.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFacetResponse {
+	// Число всех подходящих пользователей, items - только первые из них
+	private int total;
+	private List<UserResponse> items;
+	// Атрибут -> значение -> число пользователей
+	private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,16 @@
+package com.api.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFormSchemaResponse {
+	// Имена полей в JSON в порядке битов масок
+	private List<String> fields;
+	private List<UserFormState> states;
+}
@@ -0,0 +1,22 @@
+package com.api.backend.dto.response;
+
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Состояние анкеты: роль, место события (null - еще не выбрано) и переключатели.
+// visible и required - битовые маски, бит i соответствует полю fields[i] схемы
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFormState {
+	private UserRole role;
+	private EventLocation eventLocation;
+	private boolean hasAllergies;
+	private boolean needSpeech;
+	private boolean willPerform;
+	private long visible;
+	private long required;
+}
@@ -0,0 +1,19 @@
+package com.api.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResponse {
+	// Строки с данными, без заголовка и пустых
+	private int totalRows;
+	private int imported;
+	private int failed;
+	// Номера строк как в файле; если строк с ошибками много, только первые из них
+	private List<UserRowError> errors;
+}
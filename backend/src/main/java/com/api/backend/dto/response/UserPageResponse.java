@@ -0,0 +1,18 @@
+package com.api.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+// Элементы - UserResponse или, при параметре fields=, только запрошенные поля
+public class UserPageResponse<T> {
+	private List<T> items;
+	// Курсор следующей страницы, null на последней странице
+	private String nextCursor;
+	private boolean hasMore;
+}
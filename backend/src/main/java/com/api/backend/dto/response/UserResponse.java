@@ -1,13 +1,18 @@
 package com.api.backend.dto.response;
 
+import com.api.backend.model.User;
+import com.api.backend.model.UserFieldRules;
 import com.api.backend.model.enums.EventLocation;
 import com.api.backend.model.enums.Squad;
 import com.api.backend.model.enums.UserRole;
-import lombok.Data;
+import lombok.Builder;
+import lombok.Value;
 
 import java.time.LocalDate;
 
-@Data
+// Неизменяемый: готовые ответы из модели чтения общие для всех запросов
+@Value
+@Builder
 public class UserResponse {
 	private Long id;
 	private String name;
@@ -34,4 +39,34 @@ public class UserResponse {
 	private String performanceCompanions;
 	private Boolean valid;
 	private Boolean showAlcoholWarning;
+	
+	public static UserResponse of(User user) {
+		return UserResponse.builder()
+				.id(user.getId())
+				.name(user.getName())
+				.surname(user.getSurname())
+				.patronymic(user.getPatronymic())
+				.role(user.getRole())
+				.squad(user.getSquad())
+				.squadRussianName(user.getSquadRussianName())
+				.needSpeech(user.getNeedSpeech())
+				.birthDate(user.getBirthDate())
+				.alcoholAllowed(user.isAlcoholAllowed())
+				.eventLocation(user.getEventLocation())
+				.attendingBanquet(user.isAttendingBanquet())
+				.attendingOfficialPart(user.isAttendingOfficialPart())
+				.hasAllergies(user.getHasAllergies())
+				.allergies(user.getAllergies())
+				.foodPreferences(user.getFoodPreferences())
+				.wantBowling(user.getWantBowling())
+				.alcoholPreferences(user.getAlcoholPreferences())
+				.hasCar(user.getHasCar())
+				.tableCompanions(user.getTableCompanions())
+				.speechCompanions(user.getSpeechCompanions())
+				.willPerform(user.getWillPerform())
+				.performanceCompanions(user.getPerformanceCompanions())
+				.valid(UserFieldRules.hasRequiredFields(user))
+				.showAlcoholWarning(user.shouldShowAlcoholWarning())
+				.build();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.api.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRowError {
+	// Номер строки: в JSON-списке с нуля, в файле импорта - как в редакторе таблиц
+	private int row;
+	private List<String> messages;
+}
@@ -0,0 +1,29 @@
+package com.api.backend.dto.response;
+
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsResponse {
+	private long total;
+	private Map<UserRole, Long> byRole;
+	private Map<Squad, Long> bySquad;
+	private Map<EventLocation, Long> byEventLocation;
+	private long attendingBanquet;
+	private long attendingOfficialPart;
+	private long withAllergies;
+	private long wantBowling;
+	private long withCar;
+	private long speakers;
+	private long performers;
+	// Несовершеннолетние Новички на банкете (предупреждение об алкоголе)
+	private long minorsAtBanquet;
+}
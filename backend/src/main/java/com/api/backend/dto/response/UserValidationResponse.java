@@ -0,0 +1,16 @@
+package com.api.backend.dto.response;
+
+import com.api.backend.model.UserFieldViolation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserValidationResponse {
+	private boolean valid;
+	private List<UserFieldViolation> violations;
+}
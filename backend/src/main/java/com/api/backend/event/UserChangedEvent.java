@@ -0,0 +1,28 @@
+package com.api.backend.event;
+
+import com.api.backend.model.User;
+import org.springframework.beans.BeanUtils;
+
+// Изменение пользователя: before == null при создании, after == null при удалении.
+// В событии лежат копии, а не сущности, чтобы слушатели после коммита видели
+// состояние на момент записи и не трогали закрытую сессию
+public record UserChangedEvent(User before, User after) {
+	
+	public static UserChangedEvent created(User user) {
+		return new UserChangedEvent(null, copyOf(user));
+	}
+	
+	public static UserChangedEvent updated(User before, User after) {
+		return new UserChangedEvent(before, copyOf(after));
+	}
+	
+	public static UserChangedEvent deleted(User user) {
+		return new UserChangedEvent(copyOf(user), null);
+	}
+	
+	public static User copyOf(User user) {
+		User copy = new User();
+		BeanUtils.copyProperties(user, copy);
+		return copy;
+	}
+}
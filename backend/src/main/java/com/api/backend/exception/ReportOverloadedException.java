@@ -0,0 +1,15 @@
+package com.api.backend.exception;
+
+import lombok.Getter;
+
+// Отчет не может быть построен сейчас: нет свободного места или не хватает памяти
+@Getter
+public class ReportOverloadedException extends RuntimeException {
+	
+	private final long retryAfterSeconds;
+	
+	public ReportOverloadedException(String message, long retryAfterSeconds) {
+		super(message, null, false, false);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+}
@@ -0,0 +1,21 @@
+package com.api.backend.exception;
+
+import com.api.backend.model.UserFieldViolation;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Анкета не проходит правила роли. Содержит все нарушения сразу, стек не собирается
+@Getter
+public class UserValidationException extends RuntimeException {
+	
+	private final List<UserFieldViolation> violations;
+	
+	public UserValidationException(List<UserFieldViolation> violations) {
+		super("Ошибка валидации: " + violations.stream()
+				.map(UserFieldViolation::message)
+				.collect(Collectors.joining("; ")), null, false, false);
+		this.violations = violations;
+	}
+}
@@ -0,0 +1,97 @@
+package com.api.backend.form;
+
+import com.api.backend.dto.response.UserFormSchemaResponse;
+import com.api.backend.dto.response.UserFormState;
+import com.api.backend.model.User;
+import com.api.backend.model.UserFieldRules;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.UserField;
+import com.api.backend.model.enums.UserRole;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Схема анкеты для фронтенда: видимые и обязательные поля для каждого сочетания роли, места события
+// и переключателей hasAllergies, needSpeech, willPerform. Считается один раз при старте через
+// User.shouldShow* и UserFieldRules, отдается готовыми байтами с ETag - меняется только с новой версией
+@Slf4j
+@Component
+public class UserFormSchema {
+	
+	private static final UserField[] FIELDS = UserField.values();
+	
+	@Getter
+	private final UserFormSchemaResponse schema;
+	@Getter
+	private final byte[] json;
+	@Getter
+	private final String etag;
+	
+	public UserFormSchema(ObjectMapper objectMapper) throws JsonProcessingException {
+		this.schema = build();
+		this.json = objectMapper.writeValueAsBytes(schema);
+		this.etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+		log.info("Схема анкеты: {} состояний, {} байт", schema.getStates().size(), json.length);
+	}
+	
+	static UserFormSchemaResponse build() {
+		List<EventLocation> locations = new ArrayList<>();
+		locations.add(null);
+		locations.addAll(Arrays.asList(EventLocation.values()));
+		
+		List<UserFormState> states = new ArrayList<>();
+		for (UserRole role : UserRole.values()) {
+			long required = UserFieldRules.requiredFields(role);
+			for (EventLocation location : locations) {
+				for (int toggles = 0; toggles < 8; toggles++) {
+					User user = new User();
+					user.setRole(role);
+					user.setEventLocation(location);
+					user.setHasAllergies((toggles & 1) != 0);
+					user.setNeedSpeech((toggles & 2) != 0);
+					user.setWillPerform((toggles & 4) != 0);
+					states.add(new UserFormState(role, location, user.getHasAllergies(), user.getNeedSpeech(),
+							user.getWillPerform(), visibleFields(user), required));
+				}
+			}
+		}
+		return new UserFormSchemaResponse(Arrays.stream(FIELDS).map(UserField::getJsonName).toList(),
+				List.copyOf(states));
+	}
+	
+	private static long visibleFields(User user) {
+		long mask = 0;
+		for (UserField field : FIELDS) {
+			if (isVisible(user, field)) {
+				mask |= field.mask();
+			}
+		}
+		return mask;
+	}
+	
+	// switch без default: новое поле UserField не соберется, пока для него не указано правило показа
+	private static boolean isVisible(User user, UserField field) {
+		return switch (field) {
+			case SQUAD -> user.shouldShowSquadField();
+			case NEED_SPEECH -> user.shouldShowNeedSpeechForGuest() || user.shouldShowNeedSpeechForVeteran();
+			case BIRTH_DATE -> user.shouldShowBirthDateField();
+			case EVENT_LOCATION -> user.shouldShowEventLocationField();
+			case HAS_ALLERGIES, FOOD_PREFERENCES -> user.shouldShowAllergyAndFoodFields();
+			case ALLERGIES -> user.shouldShowAllergiesDetailsField();
+			case WANT_BOWLING -> user.shouldShowBowlingField();
+			case ALCOHOL_PREFERENCES -> user.shouldShowAlcoholPreferencesField();
+			case HAS_CAR -> user.shouldShowHasCarField();
+			case TABLE_COMPANIONS -> user.shouldShowTableCompanionsField();
+			case SPEECH_COMPANIONS -> user.shouldShowSpeechCompanionsField();
+			case WILL_PERFORM -> user.shouldShowPerformanceFields();
+			case PERFORMANCE_COMPANIONS -> user.shouldShowPerformanceCompanionsField();
+		};
+	}
+}
@@ -0,0 +1,114 @@
+package com.api.backend.importing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Построчное чтение CSV (RFC 4180) без загрузки файла в память. Понимает BOM, кавычки,
+// переводы строк внутри значений и разделитель ";" (так сохраняет Excel с русской локалью)
+public final class CsvTableReader {
+	
+	private static final char BYTE_ORDER_MARK = '\uFEFF';
+	// Сколько символов смотреть в начале файла, чтобы выбрать разделитель
+	private static final int SEPARATOR_PROBE_LENGTH = 8192;
+	
+	private CsvTableReader() {
+	}
+	
+	public static void read(InputStream inputStream, TableRowHandler handler) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+		reader.mark(1);
+		if (reader.read() != BYTE_ORDER_MARK) {
+			reader.reset();
+		}
+		char separator = detectSeparator(reader);
+		
+		List<String> cells = new ArrayList<>();
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+		boolean rowStarted = false;
+		int rowNumber = 1;
+		int ch;
+		while ((ch = reader.read()) != -1) {
+			if (quoted) {
+				if (ch == '"') {
+					reader.mark(1);
+					if (reader.read() == '"') {
+						value.append('"');
+					} else {
+						reader.reset();
+						quoted = false;
+					}
+				} else {
+					value.append((char) ch);
+				}
+				continue;
+			}
+			if (ch == '"') {
+				quoted = true;
+				rowStarted = true;
+			} else if (ch == separator) {
+				cells.add(unescape(value));
+				value.setLength(0);
+				rowStarted = true;
+			} else if (ch == '\r' || ch == '\n') {
+				if (ch == '\r') {
+					reader.mark(1);
+					if (reader.read() != '\n') {
+						reader.reset();
+					}
+				}
+				if (rowStarted || value.length() > 0) {
+					cells.add(unescape(value));
+					handler.handle(rowNumber, cells);
+					cells = new ArrayList<>(cells.size());
+				}
+				value.setLength(0);
+				rowStarted = false;
+				rowNumber++;
+			} else {
+				value.append((char) ch);
+				rowStarted = true;
+			}
+		}
+		if (rowStarted || value.length() > 0) {
+			cells.add(unescape(value));
+			handler.handle(rowNumber, cells);
+		}
+	}
+	
+	// Разделитель, которого больше в первой строке вне кавычек
+	private static char detectSeparator(BufferedReader reader) throws IOException {
+		reader.mark(SEPARATOR_PROBE_LENGTH);
+		int commas = 0;
+		int semicolons = 0;
+		boolean quoted = false;
+		for (int i = 0; i < SEPARATOR_PROBE_LENGTH; i++) {
+			int ch = reader.read();
+			if (ch == -1 || (!quoted && (ch == '\r' || ch == '\n'))) {
+				break;
+			}
+			if (ch == '"') {
+				quoted = !quoted;
+			} else if (!quoted && ch == ',') {
+				commas++;
+			} else if (!quoted && ch == ';') {
+				semicolons++;
+			}
+		}
+		reader.reset();
+		return semicolons > commas ? ';' : ',';
+	}
+	
+	// Снимает апостроф, которым CsvTableWriter экранирует значения, похожие на формулу
+	private static String unescape(StringBuilder value) {
+		if (value.length() > 1 && value.charAt(0) == '\'' && "=+-@".indexOf(value.charAt(1)) >= 0) {
+			return value.substring(1);
+		}
+		return value.toString();
+	}
+}
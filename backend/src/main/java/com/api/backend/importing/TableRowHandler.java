@@ -0,0 +1,11 @@
+package com.api.backend.importing;
+
+import java.util.List;
+
+// Получает строки таблицы по одной, по мере чтения файла
+@FunctionalInterface
+public interface TableRowHandler {
+	
+	// rowNumber - номер строки как в редакторе таблиц (заголовок - строка 1)
+	void handle(int rowNumber, List<String> cells);
+}
@@ -0,0 +1,166 @@
+package com.api.backend.importing;
+
+import com.api.backend.dto.request.UserRequest;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.report.UserReportColumns;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Колонки файла импорта. Заголовок колонки - как в отчетах или имя поля UserRequest,
+// регистр не важен. Незнакомые колонки (например "№" или "Валидность") пропускаются
+public enum UserImportColumn {
+	SURNAME(List.of("фамилия", "surname"), UserRequest::setSurname, Function.identity()),
+	NAME(List.of("имя", "name"), UserRequest::setName, Function.identity()),
+	PATRONYMIC(List.of("отчество", "patronymic"), UserRequest::setPatronymic, Function.identity()),
+	ROLE(List.of("роль", "role"), UserRequest::setRole, UserImportColumn::parseRole),
+	SQUAD(List.of("отряд", "squad"), UserRequest::setSquad, UserImportColumn::parseSquad),
+	BIRTH_DATE(List.of("дата рождения", "дата рожд.", "birthdate"), UserRequest::setBirthDate,
+			UserImportColumn::parseDate),
+	EVENT_LOCATION(List.of("место события", "eventlocation"), UserRequest::setEventLocation,
+			UserImportColumn::parseEventLocation),
+	HAS_ALLERGIES(List.of("аллергии", "hasallergies"), UserRequest::setHasAllergies, UserImportColumn::parseBoolean),
+	ALLERGIES(List.of("аллергии дет.", "allergies"), UserRequest::setAllergies, Function.identity()),
+	FOOD_PREFERENCES(List.of("предпочтения в еде", "предпочт. еда", "foodpreferences"),
+			UserRequest::setFoodPreferences, Function.identity()),
+	WANT_BOWLING(List.of("боулинг", "wantbowling"), UserRequest::setWantBowling, UserImportColumn::parseBoolean),
+	ALCOHOL_PREFERENCES(List.of("алкоголь", "alcoholpreferences"), UserRequest::setAlcoholPreferences,
+			Function.identity()),
+	HAS_CAR(List.of("машина", "hascar"), UserRequest::setHasCar, UserImportColumn::parseBoolean),
+	NEED_SPEECH(List.of("слово на сцене", "needspeech"), UserRequest::setNeedSpeech, UserImportColumn::parseBoolean),
+	SPEECH_COMPANIONS(List.of("с кем слово", "speechcompanions"), UserRequest::setSpeechCompanions,
+			Function.identity()),
+	TABLE_COMPANIONS(List.of("с кем сидеть", "tablecompanions"), UserRequest::setTableCompanions,
+			Function.identity()),
+	WILL_PERFORM(List.of("выступление", "willperform"), UserRequest::setWillPerform, UserImportColumn::parseBoolean),
+	PERFORMANCE_COMPANIONS(List.of("с кем номер", "performancecompanions"), UserRequest::setPerformanceCompanions,
+			Function.identity());
+	
+	private static final Map<String, UserImportColumn> BY_HEADER = new HashMap<>();
+	private static final Map<String, Object> VALUES = new HashMap<>();
+	private static final DateTimeFormatter RUSSIAN_DATE = DateTimeFormatter.ofPattern("d.M.uuuu");
+	
+	static {
+		for (UserImportColumn column : values()) {
+			column.headers.forEach(header -> BY_HEADER.put(header, column));
+		}
+		for (UserRole role : UserRole.values()) {
+			VALUES.put(normalize(role.name()), role);
+			VALUES.put(normalize(UserReportColumns.getRoleNameInRussian(role)), role);
+		}
+		for (Squad squad : Squad.values()) {
+			VALUES.put(normalize(squad.name()), squad);
+			VALUES.put(normalize(squad.getRussianName()), squad);
+			// Название без приставки: Ваганты вместо СПО "Ваганты"
+			String russianName = squad.getRussianName();
+			VALUES.put(normalize(russianName.substring(russianName.indexOf('"') + 1, russianName.lastIndexOf('"'))),
+					squad);
+		}
+		for (EventLocation location : EventLocation.values()) {
+			VALUES.put(normalize(location.name()), location);
+			VALUES.put(normalize(UserReportColumns.getEventLocationInRussian(location)), location);
+		}
+	}
+	
+	private final List<String> headers;
+	private final BiConsumer<UserRequest, Object> setter;
+	private final Function<String, ?> parser;
+	
+	@SuppressWarnings("unchecked")
+	<T> UserImportColumn(List<String> headers, BiConsumer<UserRequest, T> setter, Function<String, T> parser) {
+		this.headers = headers;
+		this.setter = (BiConsumer<UserRequest, Object>) setter;
+		this.parser = parser;
+	}
+	
+	// null для колонки, которую не нужно импортировать
+	public static UserImportColumn fromHeader(String header) {
+		return header != null ? BY_HEADER.get(normalize(header)) : null;
+	}
+	
+	// Заполняет запрос значениями строки; ошибки разбора значений складываются в errors
+	public static UserRequest toRequest(List<UserImportColumn> columns, List<String> cells, List<String> errors) {
+		UserRequest request = new UserRequest();
+		for (int i = 0; i < columns.size() && i < cells.size(); i++) {
+			UserImportColumn column = columns.get(i);
+			String value = cells.get(i).trim();
+			if (column == null || value.isEmpty() || "-".equals(value)) {
+				continue;
+			}
+			try {
+				column.setter.accept(request, column.parser.apply(value));
+			} catch (IllegalArgumentException e) {
+				errors.add(column.title() + ": " + e.getMessage());
+			}
+		}
+		return request;
+	}
+	
+	// Колонки по порядку заголовков (null - пропускаемая), без обязательных - ошибка
+	public static List<UserImportColumn> fromHeaders(List<String> headers) {
+		List<UserImportColumn> columns = new ArrayList<>(headers.size());
+		headers.forEach(header -> columns.add(fromHeader(header)));
+		for (UserImportColumn required : List.of(SURNAME, NAME, ROLE)) {
+			if (!columns.contains(required)) {
+				throw new IllegalArgumentException("В файле нет колонки \"" + required.title() + "\"");
+			}
+		}
+		return columns;
+	}
+	
+	private String title() {
+		String header = headers.get(0);
+		return Character.toUpperCase(header.charAt(0)) + header.substring(1);
+	}
+	
+	private static UserRole parseRole(String value) {
+		return parseValue(value, UserRole.class, "неизвестная роль");
+	}
+	
+	private static Squad parseSquad(String value) {
+		return parseValue(value, Squad.class, "неизвестный отряд");
+	}
+	
+	private static EventLocation parseEventLocation(String value) {
+		return parseValue(value, EventLocation.class, "неизвестное место события");
+	}
+	
+	private static <T> T parseValue(String value, Class<T> type, String error) {
+		Object parsed = VALUES.get(normalize(value));
+		if (!type.isInstance(parsed)) {
+			throw new IllegalArgumentException(error + " " + value);
+		}
+		return type.cast(parsed);
+	}
+	
+	// ISO (так же их отдает XlsxTableReader) или дд.мм.гггг
+	private static LocalDate parseDate(String value) {
+		try {
+			return value.indexOf('.') > 0 ? LocalDate.parse(value, RUSSIAN_DATE) : LocalDate.parse(value);
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("неверная дата " + value);
+		}
+	}
+	
+	private static Boolean parseBoolean(String value) {
+		return switch (normalize(value)) {
+			case "да", "yes", "true", "1", "+" -> true;
+			case "нет", "no", "false", "0" -> false;
+			default -> throw new IllegalArgumentException("ожидается Да или Нет, а не " + value);
+		};
+	}
+	
+	private static String normalize(String value) {
+		return value.trim().toLowerCase(Locale.ROOT).replace('ё', 'е');
+	}
+}
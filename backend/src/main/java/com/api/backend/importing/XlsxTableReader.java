@@ -0,0 +1,96 @@
+package com.api.backend.importing;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Потоковое (SAX) чтение первого листа xlsx: строки не собираются в модель книги,
+// в памяти только таблица общих строк и текущая строка. Даты отдаются в ISO (yyyy-MM-dd)
+public final class XlsxTableReader {
+	
+	private XlsxTableReader() {
+	}
+	
+	// Из файла, а не из потока: OPCPackage при открытии потока читает весь архив в память
+	public static void read(File file, TableRowHandler handler) throws IOException {
+		try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+			XSSFReader reader = new XSSFReader(pkg);
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			if (!sheets.hasNext()) {
+				return;
+			}
+			try (InputStream sheet = sheets.next()) {
+				XMLReader parser = XMLHelper.newXMLReader();
+				parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(),
+						new ReadOnlySharedStringsTable(pkg), new RowCollector(handler), new IsoDateFormatter(), false));
+				parser.parse(new InputSource(sheet));
+			}
+		} catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+			throw new IOException("Не удалось прочитать xlsx: " + e.getMessage(), e);
+		}
+	}
+	
+	private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+		
+		private final TableRowHandler handler;
+		private List<String> cells = new ArrayList<>();
+		
+		RowCollector(TableRowHandler handler) {
+			this.handler = handler;
+		}
+		
+		@Override
+		public void startRow(int rowNum) {
+			cells = new ArrayList<>(cells.size());
+		}
+		
+		@Override
+		public void endRow(int rowNum) {
+			if (!cells.isEmpty()) {
+				handler.handle(rowNum + 1, cells);
+			}
+		}
+		
+		// Пустые ячейки в xlsx не записываются, поэтому позиция берется из адреса ячейки
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+			if (column > cells.size()) {
+				cells.addAll(Collections.nCopies(column - cells.size(), ""));
+			}
+			cells.add(formattedValue != null ? formattedValue : "");
+		}
+	}
+	
+	// Даты в любом формате ячейки приводятся к ISO, остальное форматируется как обычно
+	private static final class IsoDateFormatter extends DataFormatter {
+		
+		@Override
+		public String formatRawCellContents(double value, int formatIndex, String formatString,
+											boolean use1904Windowing) {
+			if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+				return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+			}
+			return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+		}
+	}
+}
@@ -2,6 +2,7 @@ package com.api.backend.model;
 
 import com.api.backend.model.enums.EventLocation;
 import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserField;
 import com.api.backend.model.enums.UserRole;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -10,18 +11,36 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.time.Period;
 
 @Entity
-@Table(name = "users")
+// Индексы под постраничную выдачу: фильтр + ключ сортировки, id в конце делает ключ уникальным
+@Table(name = "users", indexes = {
+		@Index(name = "idx_users_surname_id", columnList = "surname, id"),
+		@Index(name = "idx_users_role_id", columnList = "role, id"),
+		@Index(name = "idx_users_role_surname_id", columnList = "role, surname, id"),
+		@Index(name = "idx_users_event_location_id", columnList = "event_location, id"),
+		@Index(name = "idx_users_event_location_surname_id", columnList = "event_location, surname, id")
+})
+// Кэш второго уровня: запись обновляется при коммите изменений через Hibernate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 	
+	public static final String ID_SEQUENCE = "users_seq";
+	public static final int ID_ALLOCATION_SIZE = 50;
+	
+	// Последовательность вместо IDENTITY: id известен до вставки, поэтому Hibernate может
+	// отправлять вставки JDBC-пакетами. Пул из allocationSize id на одно обращение к последовательности
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+	@SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 	
 	// Основные поля для всех ролей
@@ -134,25 +153,15 @@ public class User {
 	
 	// Метод для получения названия отряда на русском
 	public String getSquadRussianName() {
-		if (squad == null) return null;
-		return switch (squad) {
-			case VAGANTS -> "СПО \"Ваганты\"";
-			case VEGA -> "СО \"Вега\"";
-			case GNOM -> "СПО \"ГНОМ\"";
-			case KAPITEL -> "СПО \"КапиТель\"";
-			case PLAMYA -> "СПО \"Пламя\"";
-			case TRUVERY -> "СПО \"Труверы\"";
-			case FENIKS -> "СО \"ФениксЪ\"";
-			case FLIBUSTERY -> "СО \"Флибустьеры\"";
-			case ALTAVISTA -> "СО \"ALTAVISTA\"";
-		};
+		return squad != null ? squad.getRussianName() : null;
 	}
 	
 	// === МЕТОДЫ ДЛЯ ПРОВЕРКИ ДОСТУПНОСТИ ПОЛЕЙ ===
+	// Какие поля есть у роли, решает таблица UserFieldRules, здесь добавляются условия по ответам
 	
 	// Для Гостя: отряд обязателен
 	public boolean shouldShowSquadField() {
-		return isGuest();
+		return isAllowed(UserField.SQUAD);
 	}
 	
 	// Для Гостя: слово на сцене всегда доступно
@@ -167,58 +176,57 @@ public class User {
 	
 	// Для Новичка: дата рождения обязательна
 	public boolean shouldShowBirthDateField() {
-		return isNovice();
+		return isAllowed(UserField.BIRTH_DATE);
 	}
 	
 	// Поля места события для Новичка, Бойца, Старика
 	public boolean shouldShowEventLocationField() {
-		return isNovice() || isFighter() || isVeteran();
+		return isAllowed(UserField.EVENT_LOCATION);
 	}
 	
 	// Поля аллергии и еды (только если на банкете)
 	public boolean shouldShowAllergyAndFoodFields() {
-		return isAttendingBanquet() && (isNovice() || isFighter() || isVeteran());
+		return isAttendingBanquet() && isAllowed(UserField.HAS_ALLERGIES);
 	}
 	
 	// Поле для указания аллергии (только если отметили hasAllergies = true)
 	public boolean shouldShowAllergiesDetailsField() {
-		return Boolean.TRUE.equals(hasAllergies) && isAttendingBanquet() &&
-				(isNovice() || isFighter() || isVeteran());
+		return Boolean.TRUE.equals(hasAllergies) && isAttendingBanquet() && isAllowed(UserField.ALLERGIES);
 	}
 	
 	// Поле боулинга (только если на банкете)
 	public boolean shouldShowBowlingField() {
-		return isAttendingBanquet() && (isNovice() || isFighter() || isVeteran());
+		return isAttendingBanquet() && isAllowed(UserField.WANT_BOWLING);
 	}
 	
 	// Поле алкоголя для Бойца и Старика (только если на банкете)
 	public boolean shouldShowAlcoholPreferencesField() {
-		return isAttendingBanquet() && (isFighter() || isVeteran());
+		return isAttendingBanquet() && isAllowed(UserField.ALCOHOL_PREFERENCES);
 	}
 	
 	// Поле машины для Бойца и Старика
 	public boolean shouldShowHasCarField() {
-		return isFighter() || isVeteran();
+		return isAllowed(UserField.HAS_CAR);
 	}
 	
 	// Поле "с кем сидеть" для Старика (только если на банкете)
 	public boolean shouldShowTableCompanionsField() {
-		return isVeteran() && isAttendingBanquet();
+		return isAllowed(UserField.TABLE_COMPANIONS) && isAttendingBanquet();
 	}
 	
 	// Поле "с кем слово" для Старика (только если need_speech = true)
 	public boolean shouldShowSpeechCompanionsField() {
-		return Boolean.TRUE.equals(needSpeech) && isVeteran();
+		return Boolean.TRUE.equals(needSpeech) && isAllowed(UserField.SPEECH_COMPANIONS);
 	}
 	
 	// Поля выступления для Старика (только если на официальной части)
 	public boolean shouldShowPerformanceFields() {
-		return isVeteran() && isAttendingOfficialPart();
+		return isAllowed(UserField.WILL_PERFORM) && isAttendingOfficialPart();
 	}
 	
 	// Поле "с кем номер" для Старика (только если will_perform = true)
 	public boolean shouldShowPerformanceCompanionsField() {
-		return Boolean.TRUE.equals(willPerform) && isVeteran() && isAttendingOfficialPart();
+		return Boolean.TRUE.equals(willPerform) && isAllowed(UserField.PERFORMANCE_COMPANIONS) && isAttendingOfficialPart();
 	}
 	
 	// Предупреждение об алкоголе для Новичка
@@ -226,21 +234,26 @@ public class User {
 		return isNovice() && isAttendingBanquet() && !isAlcoholAllowed();
 	}
 	
+	private boolean isAllowed(UserField field) {
+		return UserFieldRules.isAllowed(role, field);
+	}
+	
 	// === МЕТОДЫ ДЛЯ ВАЛИДАЦИИ ===
+	// Обязательные поля роли тоже берутся из UserFieldRules
 	
 	public boolean isGuestValid() {
-		return isGuest() && squad != null;
+		return isGuest() && UserFieldRules.hasRequiredFields(this);
 	}
 	
 	public boolean isNoviceValid() {
-		return isNovice() && birthDate != null && eventLocation != null;
+		return isNovice() && UserFieldRules.hasRequiredFields(this);
 	}
 	
 	public boolean isFighterValid() {
-		return isFighter() && eventLocation != null;
+		return isFighter() && UserFieldRules.hasRequiredFields(this);
 	}
 	
 	public boolean isVeteranValid() {
-		return isVeteran() && eventLocation != null;
+		return isVeteran() && UserFieldRules.hasRequiredFields(this);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.api.backend.model;
+
+import com.api.backend.model.enums.UserField;
+import com.api.backend.model.enums.UserRole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.api.backend.model.enums.UserField.*;
+
+// Какие поля анкеты можно и нужно заполнять для каждой роли. Таблица собирается в две битовые
+// маски на роль (разрешенные и обязательные поля), поэтому проверка пользователя - это маска
+// заполненных полей и две битовые операции. Нарушения и их тексты подготовлены заранее
+public final class UserFieldRules {
+	
+	// Значения в таблице правил
+	private static final int DENIED = 0;
+	private static final int ALLOWED = 1;
+	private static final int REQUIRED = 2;
+	
+	private static final UserField[] FIELDS = UserField.values();
+	private static final long[] ALLOWED_MASKS = new long[UserRole.values().length];
+	private static final long[] REQUIRED_MASKS = new long[UserRole.values().length];
+	private static final UserFieldViolation[][] NOT_ALLOWED_VIOLATIONS =
+			new UserFieldViolation[UserRole.values().length][FIELDS.length];
+	private static final UserFieldViolation[][] REQUIRED_VIOLATIONS =
+			new UserFieldViolation[UserRole.values().length][FIELDS.length];
+	
+	static {
+		//     Поле                    Гость     Новичок   Боец      Старик
+		rule(SQUAD,                  REQUIRED, DENIED,   DENIED,   DENIED);
+		rule(NEED_SPEECH,            ALLOWED,  ALLOWED,  ALLOWED,  ALLOWED);
+		rule(BIRTH_DATE,             DENIED,   REQUIRED, DENIED,   DENIED);
+		rule(EVENT_LOCATION,         DENIED,   REQUIRED, REQUIRED, REQUIRED);
+		rule(HAS_ALLERGIES,          DENIED,   ALLOWED,  ALLOWED,  ALLOWED);
+		rule(ALLERGIES,              DENIED,   ALLOWED,  ALLOWED,  ALLOWED);
+		rule(FOOD_PREFERENCES,       DENIED,   ALLOWED,  ALLOWED,  ALLOWED);
+		rule(WANT_BOWLING,           DENIED,   ALLOWED,  ALLOWED,  ALLOWED);
+		rule(ALCOHOL_PREFERENCES,    DENIED,   DENIED,   ALLOWED,  ALLOWED);
+		rule(HAS_CAR,                DENIED,   DENIED,   ALLOWED,  ALLOWED);
+		rule(TABLE_COMPANIONS,       DENIED,   DENIED,   DENIED,   ALLOWED);
+		rule(SPEECH_COMPANIONS,      DENIED,   DENIED,   DENIED,   ALLOWED);
+		rule(WILL_PERFORM,           DENIED,   DENIED,   DENIED,   ALLOWED);
+		rule(PERFORMANCE_COMPANIONS, DENIED,   DENIED,   DENIED,   ALLOWED);
+		
+		for (UserRole role : UserRole.values()) {
+			String roleName = role.getRussianName();
+			for (UserField field : FIELDS) {
+				NOT_ALLOWED_VIOLATIONS[role.ordinal()][field.ordinal()] = new UserFieldViolation(field.getJsonName(),
+						UserFieldViolation.Code.NOT_ALLOWED, roleName + " не может " + field.getNotAllowedText());
+				REQUIRED_VIOLATIONS[role.ordinal()][field.ordinal()] = new UserFieldViolation(field.getJsonName(),
+						UserFieldViolation.Code.REQUIRED, roleName + " должен " + field.getRequiredText());
+			}
+		}
+	}
+	
+	private UserFieldRules() {
+	}
+	
+	public static boolean isAllowed(UserRole role, UserField field) {
+		return role != null && (ALLOWED_MASKS[role.ordinal()] & field.mask()) != 0;
+	}
+	
+	public static long requiredFields(UserRole role) {
+		return REQUIRED_MASKS[role.ordinal()];
+	}
+	
+	// Прямые обращения к полям, а не цикл по геттерам: так проверка валидной анкеты не дороже прежнего switch.
+	// Новое поле UserField нужно добавить и сюда, и в UserReportRow.filledFields
+	public static long filledFields(User user) {
+		long mask = 0;
+		if (user.getSquad() != null) mask |= SQUAD.mask();
+		if (user.getNeedSpeech() != null) mask |= NEED_SPEECH.mask();
+		if (user.getBirthDate() != null) mask |= BIRTH_DATE.mask();
+		if (user.getEventLocation() != null) mask |= EVENT_LOCATION.mask();
+		if (user.getHasAllergies() != null) mask |= HAS_ALLERGIES.mask();
+		if (user.getAllergies() != null) mask |= ALLERGIES.mask();
+		if (user.getFoodPreferences() != null) mask |= FOOD_PREFERENCES.mask();
+		if (user.getWantBowling() != null) mask |= WANT_BOWLING.mask();
+		if (user.getAlcoholPreferences() != null) mask |= ALCOHOL_PREFERENCES.mask();
+		if (user.getHasCar() != null) mask |= HAS_CAR.mask();
+		if (user.getTableCompanions() != null) mask |= TABLE_COMPANIONS.mask();
+		if (user.getSpeechCompanions() != null) mask |= SPEECH_COMPANIONS.mask();
+		if (user.getWillPerform() != null) mask |= WILL_PERFORM.mask();
+		if (user.getPerformanceCompanions() != null) mask |= PERFORMANCE_COMPANIONS.mask();
+		return mask;
+	}
+	
+	public static boolean hasRequiredFields(User user) {
+		UserRole role = user.getRole();
+		return role != null && (REQUIRED_MASKS[role.ordinal()] & ~filledFields(user)) == 0;
+	}
+	
+	// Все нарушения сразу: сначала лишние поля, затем незаполненные обязательные.
+	// Без нарушений возвращает пустой неизменяемый список без выделения памяти
+	public static List<UserFieldViolation> check(User user) {
+		UserRole role = user.getRole();
+		if (role == null) {
+			return List.of();
+		}
+		int roleIndex = role.ordinal();
+		long filled = filledFields(user);
+		long notAllowed = filled & ~ALLOWED_MASKS[roleIndex];
+		long missing = REQUIRED_MASKS[roleIndex] & ~filled;
+		if ((notAllowed | missing) == 0) {
+			return List.of();
+		}
+		
+		List<UserFieldViolation> violations = new ArrayList<>(Long.bitCount(notAllowed) + Long.bitCount(missing));
+		for (long bits = notAllowed; bits != 0; bits &= bits - 1) {
+			violations.add(NOT_ALLOWED_VIOLATIONS[roleIndex][Long.numberOfTrailingZeros(bits)]);
+		}
+		for (long bits = missing; bits != 0; bits &= bits - 1) {
+			violations.add(REQUIRED_VIOLATIONS[roleIndex][Long.numberOfTrailingZeros(bits)]);
+		}
+		return violations;
+	}
+	
+	// Значения перечислены в порядке UserRole
+	private static void rule(UserField field, int... perRole) {
+		for (UserRole role : UserRole.values()) {
+			int value = perRole[role.ordinal()];
+			if (value != DENIED) {
+				ALLOWED_MASKS[role.ordinal()] |= field.mask();
+			}
+			if (value == REQUIRED) {
+				REQUIRED_MASKS[role.ordinal()] |= field.mask();
+			}
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package com.api.backend.model;
+
+// Нарушение правил полей для роли: поле (имя в JSON), вид нарушения и готовый текст
+public record UserFieldViolation(String field, Code code, String message) {
+	
+	public enum Code {
+		// Поле заполнено, но для роли не предусмотрено
+		NOT_ALLOWED,
+		// Поле обязательно для роли, но не заполнено
+		REQUIRED,
+		// Значение не проходит ограничения самого поля (пустое имя и т.п.)
+		INVALID
+	}
+}
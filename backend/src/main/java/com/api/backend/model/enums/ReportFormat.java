@@ -0,0 +1,23 @@
+package com.api.backend.model.enums;
+
+public enum ReportFormat {
+	DOCX("docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document"),
+	XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+	CSV("csv", "text/csv; charset=UTF-8");
+	
+	private final String extension;
+	private final String contentType;
+	
+	ReportFormat(String extension, String contentType) {
+		this.extension = extension;
+		this.contentType = contentType;
+	}
+	
+	public String getExtension() {
+		return extension;
+	}
+	
+	public String getContentType() {
+		return contentType;
+	}
+}
@@ -0,0 +1,8 @@
+package com.api.backend.model.enums;
+
+public enum ReportJobStatus {
+	QUEUED,
+	RUNNING,
+	COMPLETED,
+	FAILED
+}
@@ -0,0 +1,6 @@
+package com.api.backend.model.enums;
+
+public enum ReportType {
+	ALL_USERS,
+	ROLE
+}
@@ -1,13 +1,23 @@
 package com.api.backend.model.enums;
 
 public enum Squad {
-	VAGANTS,
-	VEGA,
-	GNOM,
-	KAPITEL,
-	PLAMYA,
-	TRUVERY,
-	FENIKS,
-	FLIBUSTERY,
-	ALTAVISTA
+	VAGANTS("СПО \"Ваганты\""),
+	VEGA("СО \"Вега\""),
+	GNOM("СПО \"ГНОМ\""),
+	KAPITEL("СПО \"КапиТель\""),
+	PLAMYA("СПО \"Пламя\""),
+	TRUVERY("СПО \"Труверы\""),
+	FENIKS("СО \"ФениксЪ\""),
+	FLIBUSTERY("СО \"Флибустьеры\""),
+	ALTAVISTA("СО \"ALTAVISTA\"");
+	
+	private final String russianName;
+	
+	Squad(String russianName) {
+		this.russianName = russianName;
+	}
+	
+	public String getRussianName() {
+		return russianName;
+	}
 }
@@ -0,0 +1,46 @@
+package com.api.backend.model.enums;
+
+// Поля анкеты, которые зависят от роли. Каждому полю соответствует один бит маски,
+// тексты - продолжение фраз "<Роль> не может ..." и "<Роль> должен ..."
+public enum UserField {
+	SQUAD("squad", "иметь отряд", "указать отряд"),
+	NEED_SPEECH("needSpeech", "указывать слово на сцене", "указать слово на сцене"),
+	BIRTH_DATE("birthDate", "иметь дату рождения", "указать дату рождения"),
+	EVENT_LOCATION("eventLocation", "указывать место события", "указать место события"),
+	HAS_ALLERGIES("hasAllergies", "указывать информацию об аллергии", "указать информацию об аллергии"),
+	ALLERGIES("allergies", "указывать аллергии", "указать аллергии"),
+	FOOD_PREFERENCES("foodPreferences", "указывать предпочтения в еде", "указать предпочтения в еде"),
+	WANT_BOWLING("wantBowling", "указывать предпочтения по боулингу", "указать предпочтения по боулингу"),
+	ALCOHOL_PREFERENCES("alcoholPreferences", "указывать предпочтения по алкоголю", "указать предпочтения по алкоголю"),
+	HAS_CAR("hasCar", "указывать наличие машины", "указать наличие машины"),
+	TABLE_COMPANIONS("tableCompanions", "указывать с кем сидеть", "указать с кем сидеть"),
+	SPEECH_COMPANIONS("speechCompanions", "указывать с кем слово на сцене", "указать с кем слово на сцене"),
+	WILL_PERFORM("willPerform", "указывать будет ли выступать", "указать будет ли выступать"),
+	PERFORMANCE_COMPANIONS("performanceCompanions", "указывать с кем номер", "указать с кем номер");
+	
+	private final String jsonName;
+	private final String notAllowedText;
+	private final String requiredText;
+	
+	UserField(String jsonName, String notAllowedText, String requiredText) {
+		this.jsonName = jsonName;
+		this.notAllowedText = notAllowedText;
+		this.requiredText = requiredText;
+	}
+	
+	public long mask() {
+		return 1L << ordinal();
+	}
+	
+	public String getJsonName() {
+		return jsonName;
+	}
+	
+	public String getNotAllowedText() {
+		return notAllowedText;
+	}
+	
+	public String getRequiredText() {
+		return requiredText;
+	}
+}
@@ -1,8 +1,18 @@
 package com.api.backend.model.enums;
 
 public enum UserRole {
-	GUEST,
-	NOVICE,
-	FIGHTER,
-	VETERAN
-}
\ No newline at end of file
+	GUEST("Гость"),
+	NOVICE("Новичок"),
+	FIGHTER("Боец"),
+	VETERAN("Старик");
+	
+	private final String russianName;
+	
+	UserRole(String russianName) {
+		this.russianName = russianName;
+	}
+	
+	public String getRussianName() {
+		return russianName;
+	}
+}
@@ -0,0 +1,26 @@
+package com.api.backend.model.enums;
+
+// Порядок выдачи пользователей по страницам, у каждого варианта есть индекс с id в конце
+public enum UserSortOrder {
+	ID("id"),
+	SURNAME("surname");
+	
+	private final String parameter;
+	
+	UserSortOrder(String parameter) {
+		this.parameter = parameter;
+	}
+	
+	public String getParameter() {
+		return parameter;
+	}
+	
+	public static UserSortOrder fromParameter(String parameter) {
+		for (UserSortOrder order : values()) {
+			if (order.parameter.equalsIgnoreCase(parameter)) {
+				return order;
+			}
+		}
+		throw new IllegalArgumentException("Неизвестная сортировка: " + parameter);
+	}
+}
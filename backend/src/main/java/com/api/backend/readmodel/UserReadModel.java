@@ -0,0 +1,152 @@
+package com.api.backend.readmodel;
+
+import com.api.backend.dto.response.UserResponse;
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.model.User;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+// Модель чтения для списков пользователей: готовые UserResponse в памяти, все и по разделам
+// (роль, место события). Строится из БД при старте и раз в сутки - alcoholAllowed и предупреждение
+// об алкоголе зависят от текущей даты. Между перестроениями обновляется после коммита по UserChangedEvent.
+// Чтение без блокировок и без транзакции. UserResponse неизменяемы, поэтому одни и те же объекты
+// безопасно отдаются всем запросам
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserReadModel {
+	
+	private final UserRepository userRepository;
+	
+	// При перестроении подменяется целиком
+	private volatile Partitions partitions = new Partitions();
+	// События, пришедшие во время перестроения: применяются к новой модели перед подменой,
+	// иначе изменения между чтением из БД и подменой потерялись бы до следующего перестроения
+	private List<UserChangedEvent> pendingEvents;
+	private final Object rebuildLock = new Object();
+	
+	@PostConstruct
+	@Scheduled(cron = "${app.users.read-model.rebuild-cron:0 5 0 * * *}")
+	public void rebuild() {
+		synchronized (rebuildLock) {
+			long start = System.nanoTime();
+			synchronized (this) {
+				pendingEvents = new ArrayList<>();
+			}
+			try {
+				Partitions rebuilt = new Partitions();
+				for (User user : userRepository.findAll()) {
+					rebuilt.put(UserResponse.of(user));
+				}
+				synchronized (this) {
+					pendingEvents.forEach(rebuilt::apply);
+					partitions = rebuilt;
+				}
+				log.info("Модель чтения пользователей построена: {} пользователей за {} мс",
+						rebuilt.all.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			} finally {
+				synchronized (this) {
+					pendingEvents = null;
+				}
+			}
+		}
+	}
+	
+	// Без транзакции (fallbackExecution) событие применяется сразу
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onUserChanged(UserChangedEvent event) {
+		partitions.apply(event);
+		if (pendingEvents != null) {
+			pendingEvents.add(event);
+		}
+	}
+	
+	// Неизменяемые представления разделов по возрастанию id, без копирования. Перебор видит
+	// изменения, сделанные во время него, как и при чтении словаря раздела напрямую
+	public Collection<UserResponse> getAll() {
+		return Collections.unmodifiableCollection(partitions.all.values());
+	}
+	
+	public Collection<UserResponse> getByRole(UserRole role) {
+		return Collections.unmodifiableCollection(partitions.byRole.get(role).values());
+	}
+	
+	public Collection<UserResponse> getByEventLocation(EventLocation eventLocation) {
+		return Collections.unmodifiableCollection(partitions.byEventLocation.get(eventLocation).values());
+	}
+	
+	// EnumMap заполняются в конструкторе и дальше не меняются, меняются только словари разделов.
+	// Записи сериализованы через onUserChanged, читатели видят каждый словарь согласованным по отдельности
+	private static final class Partitions {
+		
+		private final ConcurrentSkipListMap<Long, UserResponse> all = new ConcurrentSkipListMap<>();
+		private final Map<UserRole, ConcurrentSkipListMap<Long, UserResponse>> byRole = new EnumMap<>(UserRole.class);
+		private final Map<EventLocation, ConcurrentSkipListMap<Long, UserResponse>> byEventLocation =
+				new EnumMap<>(EventLocation.class);
+		
+		private Partitions() {
+			for (UserRole role : UserRole.values()) {
+				byRole.put(role, new ConcurrentSkipListMap<>());
+			}
+			for (EventLocation location : EventLocation.values()) {
+				byEventLocation.put(location, new ConcurrentSkipListMap<>());
+			}
+		}
+		
+		// При удалении из события нужен только id: разделы берутся из сохраненного ответа
+		private void apply(UserChangedEvent event) {
+			if (event.after() != null) {
+				put(UserResponse.of(event.after()));
+			} else if (event.before() != null) {
+				remove(event.before().getId());
+			}
+		}
+		
+		// Запись заменяется на месте, из раздела она уходит, только если сменились роль или место события
+		private void put(UserResponse user) {
+			UserResponse previous = all.put(user.getId(), user);
+			if (previous != null) {
+				removeFromPartitions(previous, user);
+			}
+			if (user.getRole() != null) {
+				byRole.get(user.getRole()).put(user.getId(), user);
+			}
+			if (user.getEventLocation() != null) {
+				byEventLocation.get(user.getEventLocation()).put(user.getId(), user);
+			}
+		}
+		
+		private void remove(Long id) {
+			UserResponse previous = all.remove(id);
+			if (previous != null) {
+				removeFromPartitions(previous, null);
+			}
+		}
+		
+		private void removeFromPartitions(UserResponse previous, UserResponse current) {
+			if (previous.getRole() != null && (current == null || previous.getRole() != current.getRole())) {
+				byRole.get(previous.getRole()).remove(previous.getId());
+			}
+			if (previous.getEventLocation() != null
+					&& (current == null || previous.getEventLocation() != current.getEventLocation())) {
+				byEventLocation.get(previous.getEventLocation()).remove(previous.getId());
+			}
+		}
+	}
+}
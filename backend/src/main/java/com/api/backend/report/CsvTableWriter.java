@@ -0,0 +1,75 @@
+package com.api.backend.report;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+// Выгрузка таблицы в CSV (RFC 4180) построчно, без накопления в памяти
+public final class CsvTableWriter {
+	
+	// BOM нужен, чтобы Excel открыл кириллицу в UTF-8
+	private static final char BYTE_ORDER_MARK = '\uFEFF';
+	private static final char SEPARATOR = ',';
+	private static final String LINE_SEPARATOR = "\r\n";
+	
+	private CsvTableWriter() {
+	}
+	
+	public static <T> void write(OutputStream outputStream, List<ReportColumn<T>> columns,
+								 Iterator<T> items) throws IOException {
+		// Поток ответа не закрываем, только сбрасываем буфер
+		Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		writer.write(BYTE_ORDER_MARK);
+		
+		for (int i = 0; i < columns.size(); i++) {
+			if (i > 0) {
+				writer.write(SEPARATOR);
+			}
+			writeValue(writer, columns.get(i).header());
+		}
+		writer.write(LINE_SEPARATOR);
+		
+		int rowNumber = 1;
+		while (items.hasNext()) {
+			T item = items.next();
+			for (int i = 0; i < columns.size(); i++) {
+				if (i > 0) {
+					writer.write(SEPARATOR);
+				}
+				String text = columns.get(i).value().get(item, rowNumber);
+				writeValue(writer, text != null ? text : "-");
+			}
+			writer.write(LINE_SEPARATOR);
+			rowNumber++;
+		}
+		writer.flush();
+	}
+	
+	private static void writeValue(Writer writer, String value) throws IOException {
+		// Значения, которые табличный редактор примет за формулу, экранируем апострофом
+		if (isFormulaLike(value)) {
+			value = "'" + value;
+		}
+		if (value.indexOf(SEPARATOR) < 0 && value.indexOf('"') < 0
+				&& value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+	
+	private static boolean isFormulaLike(String value) {
+		if (value.isEmpty()) {
+			return false;
+		}
+		char first = value.charAt(0);
+		return first == '=' || first == '+' || first == '@' || (first == '-' && value.length() > 1);
+	}
+}
@@ -0,0 +1,125 @@
+package com.api.backend.report;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.apache.xmlbeans.impl.xb.xmlschema.SpaceAttribute;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRow;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblWidth;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTc;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTText;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STTblWidth;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.List;
+
+// Заполняет таблицу docx по описанию колонок.
+// Оформление строки данных (ширины, шрифты, выравнивание) строится через API POI один раз,
+// а каждая следующая строка получается копированием готового XML этой строки,
+// так что стили не создаются заново для каждой ячейки
+public final class DocxTableRenderer {
+	
+	private DocxTableRenderer() {
+	}
+	
+	public static <T> void render(XWPFTable table, List<ReportColumn<T>> columns, List<T> items,
+								  int headerRowHeight, int rowHeight) {
+		render(table, columns, items.iterator(), headerRowHeight, rowHeight);
+	}
+	
+	// Строки добавляются по мере чтения из итератора, список всех элементов не нужен.
+	// Высота строки <= 0 означает, что высота не задается
+	public static <T> void render(XWPFTable table, List<ReportColumn<T>> columns, Iterator<T> items,
+								  int headerRowHeight, int rowHeight) {
+		XWPFTableRow headerRow = table.getRow(0);
+		if (headerRowHeight > 0) {
+			headerRow.setHeight(headerRowHeight);
+		}
+		for (int i = 0; i < columns.size(); i++) {
+			setHeaderCellStyle(headerRow.getCell(i), columns.get(i).header(), columns.get(i).headerWidth());
+		}
+		
+		if (!items.hasNext()) {
+			return;
+		}
+		
+		// Первая строка данных оформляется обычным способом и служит шаблоном
+		XWPFTableRow firstRow = table.createRow();
+		if (rowHeight > 0) {
+			firstRow.setHeight(rowHeight);
+		}
+		for (int i = 0; i < columns.size(); i++) {
+			setDataCellStyle(firstRow.getCell(i), columns.get(i).width());
+		}
+		CTRow templateRow = (CTRow) firstRow.getCtRow().copy();
+		fillRow(firstRow.getCtRow(), columns, items.next(), 1);
+		
+		CTTbl ctTbl = table.getCTTbl();
+		for (int rowNumber = 2; items.hasNext(); rowNumber++) {
+			CTRow row = ctTbl.addNewTr();
+			row.set(templateRow);
+			fillRow(row, columns, items.next(), rowNumber);
+		}
+	}
+	
+	private static <T> void fillRow(CTRow row, List<ReportColumn<T>> columns, T item, int rowNumber) {
+		CTTc[] cells = row.getTcArray();
+		for (int i = 0; i < columns.size(); i++) {
+			String text = columns.get(i).value().get(item, rowNumber);
+			setText(cells[i].getPArray(0).getRArray(0).getTArray(0), text != null ? text : "-");
+		}
+	}
+	
+	// Как и XWPFRun.setText, сохраняем пробелы по краям текста
+	private static void setText(CTText ctText, String text) {
+		ctText.setStringValue(text);
+		if (!text.isEmpty() && (Character.isWhitespace(text.charAt(0))
+				|| Character.isWhitespace(text.charAt(text.length() - 1)))) {
+			ctText.setSpace(SpaceAttribute.Space.PRESERVE);
+		}
+	}
+	
+	private static void setHeaderCellStyle(XWPFTableCell cell, String text, int width) {
+		cell.setText(text);
+		cell.setColor("D3D3D3"); // Серый фон
+		
+		// Центрируем текст
+		XWPFParagraph paragraph = cell.getParagraphs().get(0);
+		paragraph.setAlignment(ParagraphAlignment.CENTER);
+		
+		// Жирный шрифт
+		XWPFRun run = paragraph.getRuns().get(0);
+		run.setBold(true);
+		run.setFontSize(9);
+		run.setFontFamily("Times New Roman");
+		
+		setCellWidth(cell, width);
+	}
+	
+	private static void setDataCellStyle(XWPFTableCell cell, int width) {
+		cell.setText("");
+		
+		XWPFParagraph paragraph = cell.getParagraphs().get(0);
+		paragraph.setAlignment(ParagraphAlignment.CENTER);
+		paragraph.setSpacingAfter(0);
+		paragraph.setSpacingBefore(0);
+		
+		XWPFRun run = paragraph.getRuns().get(0);
+		run.setFontSize(8);
+		run.setFontFamily("Times New Roman");
+		
+		setCellWidth(cell, width);
+	}
+	
+	// Устанавливаем ширину колонки
+	private static void setCellWidth(XWPFTableCell cell, int width) {
+		CTTblWidth cellWidth = cell.getCTTc().addNewTcPr().addNewTcW();
+		cellWidth.setW(BigInteger.valueOf(width));
+		cellWidth.setType(STTblWidth.DXA);
+	}
+}
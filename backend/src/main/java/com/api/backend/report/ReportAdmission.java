@@ -0,0 +1,171 @@
+package com.api.backend.report;
+
+import com.api.backend.config.ReportConfig;
+import com.api.backend.dto.response.ReportAdmissionStats;
+import com.api.backend.exception.ReportOverloadedException;
+import com.api.backend.model.enums.ReportFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Допуск к построению отчетов: ограничивает число одновременных построений и их суммарную
+// оценку памяти. Отчет, который не помещается в бюджет даже один, отклоняется сразу,
+// остальные ждут в очереди ограниченной длины не дольше заданного времени
+@Slf4j
+@Component
+public class ReportAdmission {
+	
+	private final ReportConfig.Admission config;
+	private final long heapBudgetBytes;
+	
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+	private int activeRenders;
+	private long reservedBytes;
+	private int queueDepth;
+	private int maxQueueDepth;
+	
+	private final AtomicLong admitted = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong timedOut = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+	
+	@Autowired
+	public ReportAdmission(ReportConfig reportConfig) {
+		this(reportConfig, Runtime.getRuntime().maxMemory());
+	}
+	
+	ReportAdmission(ReportConfig reportConfig, long maxHeapBytes) {
+		this.config = reportConfig.getAdmission();
+		this.heapBudgetBytes = (long) (maxHeapBytes * config.getHeapBudgetRatio());
+	}
+	
+	// Грубая оценка пиковой памяти на построение отчета
+	public long estimateBytes(ReportFormat format, long rows, int columns) {
+		return switch (format) {
+			case DOCX -> (rows + 1) * columns * config.getDocxBytesPerCell();
+			case XLSX, CSV -> config.getStreamingFormatBytes();
+		};
+	}
+	
+	public Permit acquire(long estimatedBytes) throws InterruptedIOException {
+		if (estimatedBytes > heapBudgetBytes) {
+			rejected.incrementAndGet();
+			log.warn("Отчет отклонен: оценка {} байт больше бюджета {} байт", estimatedBytes, heapBudgetBytes);
+			throw new ReportOverloadedException(
+					"Отчет слишком большой для доступной памяти, выберите формат xlsx или csv",
+					config.getRetryAfterSeconds());
+		}
+		
+		long start = System.nanoTime();
+		lock.lock();
+		try {
+			if (!canStart(estimatedBytes)) {
+				awaitTurn(estimatedBytes, start + TimeUnit.SECONDS.toNanos(config.getQueueTimeoutSeconds()));
+			}
+			activeRenders++;
+			reservedBytes += estimatedBytes;
+		} finally {
+			lock.unlock();
+		}
+		
+		long waitNanos = System.nanoTime() - start;
+		totalWaitNanos.addAndGet(waitNanos);
+		maxWaitNanos.accumulate(waitNanos);
+		admitted.incrementAndGet();
+		return new Permit(estimatedBytes);
+	}
+	
+	public ReportAdmissionStats getStats() {
+		ReportAdmissionStats stats = new ReportAdmissionStats();
+		lock.lock();
+		try {
+			stats.setActiveRenders(activeRenders);
+			stats.setReservedBytes(reservedBytes);
+			stats.setQueueDepth(queueDepth);
+			stats.setMaxQueueDepth(maxQueueDepth);
+		} finally {
+			lock.unlock();
+		}
+		long admittedCount = admitted.get();
+		stats.setMaxConcurrent(config.getMaxConcurrent());
+		stats.setHeapBudgetBytes(heapBudgetBytes);
+		stats.setAdmitted(admittedCount);
+		stats.setRejected(rejected.get());
+		stats.setTimedOut(timedOut.get());
+		stats.setAverageWaitMillis(admittedCount > 0
+				? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / admittedCount) : 0);
+		stats.setMaxWaitMillis(TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+		return stats;
+	}
+	
+	// Вызывается под блокировкой
+	private void awaitTurn(long estimatedBytes, long deadline) throws InterruptedIOException {
+		if (queueDepth >= config.getMaxQueued()) {
+			rejected.incrementAndGet();
+			throw new ReportOverloadedException("Очередь построения отчетов переполнена, повторите позже",
+					config.getRetryAfterSeconds());
+		}
+		queueDepth++;
+		maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+		try {
+			long remaining = deadline - System.nanoTime();
+			while (!canStart(estimatedBytes)) {
+				if (remaining <= 0) {
+					timedOut.incrementAndGet();
+					rejected.incrementAndGet();
+					throw new ReportOverloadedException("Превышено время ожидания построения отчета, повторите позже",
+							config.getRetryAfterSeconds());
+				}
+				remaining = released.awaitNanos(remaining);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Ожидание построения отчета прервано");
+		} finally {
+			queueDepth--;
+		}
+	}
+	
+	private boolean canStart(long estimatedBytes) {
+		return activeRenders < config.getMaxConcurrent() && reservedBytes + estimatedBytes <= heapBudgetBytes;
+	}
+	
+	private void release(long estimatedBytes) {
+		lock.lock();
+		try {
+			activeRenders--;
+			reservedBytes -= estimatedBytes;
+			released.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	// Разрешение на построение, освобождается в close()
+	public final class Permit implements AutoCloseable {
+		
+		private final long estimatedBytes;
+		private boolean closed;
+		
+		private Permit(long estimatedBytes) {
+			this.estimatedBytes = estimatedBytes;
+		}
+		
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				release(estimatedBytes);
+			}
+		}
+	}
+}
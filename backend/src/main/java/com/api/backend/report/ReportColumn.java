@@ -0,0 +1,10 @@
+package com.api.backend.report;
+
+// Колонка таблицы отчета: заголовок, ширины (в twip) и способ получить значение ячейки
+public record ReportColumn<T>(String header, int headerWidth, int width, ReportCellValue<T> value) {
+	
+	@FunctionalInterface
+	public interface ReportCellValue<T> {
+		String get(T item, int rowNumber);
+	}
+}
@@ -0,0 +1,154 @@
+package com.api.backend.report;
+
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.UserRole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+// Описание колонок всех отчетов по пользователям
+public final class UserReportColumns {
+	
+	public static final List<ReportColumn<UserReportRow>> COMPLETE = List.of(
+			rowNumber(400, 400),
+			column("Фамилия", 1200, 1200, UserReportRow::getSurname),
+			column("Имя", 1200, 1200, UserReportRow::getName),
+			column("Отчество", 1200, 1200, user -> getSafeValue(user.getPatronymic())),
+			column("Роль", 800, 800, user -> getRoleNameInRussian(user.getRole())),
+			column("Отряд", 800, 800, user -> getSafeValue(user.getSquadRussianName())),
+			column("Дата рожд.", 900, 900, user -> getSafeDate(user.getBirthDate())),
+			column("Место события", 1500, 1500, user -> getEventLocationInRussian(user.getEventLocation())),
+			column("Аллергии", 600, 600, user -> getBooleanValue(user.getHasAllergies())),
+			column("Аллергии дет.", 1200, 1200, UserReportColumns::getAllergiesDetails),
+			column("Предпочт. еда", 1200, 1200, user -> getSafeValue(user.getFoodPreferences())),
+			column("Боулинг", 600, 600, user -> getBooleanValue(user.getWantBowling())),
+			column("Алкоголь", 1200, 1200, user -> getSafeValue(user.getAlcoholPreferences())),
+			column("Машина", 600, 600, user -> getBooleanValue(user.getHasCar())),
+			column("Слово на сцене", 800, 800, user -> getBooleanValue(user.getNeedSpeech())),
+			column("С кем слово", 1200, 1200, user -> getSafeValue(user.getSpeechCompanions())),
+			column("С кем сидеть", 1200, 1200, user -> getSafeValue(user.getTableCompanions())),
+			column("Выступление", 800, 800, user -> getBooleanValue(user.getWillPerform())),
+			column("С кем номер", 1200, 1200, user -> getSafeValue(user.getPerformanceCompanions())),
+			column("Возрастное огр.", 600, 800, UserReportColumns::getAlcoholWarning),
+			column("Валидность", 600, 600, user -> getBooleanValue(user.isValid()))
+	);
+	
+	public static final List<ReportColumn<UserReportRow>> GUESTS = List.of(
+			rowNumber(500, 500),
+			column("Фамилия", 1200, 1500, UserReportRow::getSurname),
+			column("Имя", 1200, 1500, UserReportRow::getName),
+			column("Отчество", 1200, 1500, user -> getSafeValue(user.getPatronymic())),
+			column("Отряд", 1200, 1000, user -> getSafeValue(user.getSquadRussianName())),
+			column("Слово на сцене", 1200, 1200, user -> getBooleanValue(user.getNeedSpeech()))
+	);
+	
+	public static final List<ReportColumn<UserReportRow>> NOVICES = List.of(
+			rowNumber(500, 500),
+			column("Фамилия", 1200, 1200, UserReportRow::getSurname),
+			column("Имя", 1200, 1200, UserReportRow::getName),
+			column("Отчество", 1200, 1200, user -> getSafeValue(user.getPatronymic())),
+			column("Дата рождения", 1200, 1200, user -> getSafeDate(user.getBirthDate())),
+			column("Место события", 1200, 1500, user -> getEventLocationInRussian(user.getEventLocation())),
+			column("Аллергии", 1200, 800, user -> getBooleanValue(user.getHasAllergies())),
+			column("Аллергии дет.", 1200, 1500, UserReportColumns::getAllergiesDetails),
+			column("Предпочтения в еде", 1200, 1500, user -> getSafeValue(user.getFoodPreferences())),
+			column("Боулинг", 1200, 800, user -> getBooleanValue(user.getWantBowling())),
+			column("Возрастное огр.", 1200, 1000, UserReportColumns::getAlcoholWarning),
+			column("Валидность", 1200, 800, user -> getBooleanValue(user.isValid()))
+	);
+	
+	public static final List<ReportColumn<UserReportRow>> FIGHTERS = List.of(
+			rowNumber(500, 500),
+			column("Фамилия", 1200, 1200, UserReportRow::getSurname),
+			column("Имя", 1200, 1200, UserReportRow::getName),
+			column("Отчество", 1200, 1200, user -> getSafeValue(user.getPatronymic())),
+			column("Место события", 1200, 1500, user -> getEventLocationInRussian(user.getEventLocation())),
+			column("Аллергии", 1200, 800, user -> getBooleanValue(user.getHasAllergies())),
+			column("Аллергии дет.", 1200, 1500, UserReportColumns::getAllergiesDetails),
+			column("Предпочтения в еде", 1200, 1500, user -> getSafeValue(user.getFoodPreferences())),
+			column("Боулинг", 1200, 800, user -> getBooleanValue(user.getWantBowling())),
+			column("Алкоголь", 1200, 1500, user -> getSafeValue(user.getAlcoholPreferences())),
+			column("Машина", 1200, 800, user -> getBooleanValue(user.getHasCar())),
+			column("Валидность", 1200, 800, user -> getBooleanValue(user.isValid()))
+	);
+	
+	public static final List<ReportColumn<UserReportRow>> VETERANS = List.of(
+			rowNumber(500, 500),
+			column("Фамилия", 1200, 1200, UserReportRow::getSurname),
+			column("Имя", 1200, 1200, UserReportRow::getName),
+			column("Отчество", 1200, 1200, user -> getSafeValue(user.getPatronymic())),
+			column("Место события", 1200, 1500, user -> getEventLocationInRussian(user.getEventLocation())),
+			column("Аллергии", 1200, 800, user -> getBooleanValue(user.getHasAllergies())),
+			column("Аллергии дет.", 1200, 1500, UserReportColumns::getAllergiesDetails),
+			column("Предпочтения в еде", 1200, 1500, user -> getSafeValue(user.getFoodPreferences())),
+			column("Боулинг", 1200, 800, user -> getBooleanValue(user.getWantBowling())),
+			column("Алкоголь", 1200, 1500, user -> getSafeValue(user.getAlcoholPreferences())),
+			column("Машина", 1200, 800, user -> getBooleanValue(user.getHasCar())),
+			column("Слово на сцене", 1200, 1000, user -> getBooleanValue(user.getNeedSpeech())),
+			column("С кем слово", 1200, 1500, user -> getSafeValue(user.getSpeechCompanions())),
+			column("С кем сидеть", 1200, 1500, user -> getSafeValue(user.getTableCompanions())),
+			column("Выступление", 1200, 1000, user -> getBooleanValue(user.getWillPerform())),
+			column("С кем номер", 1200, 1500, user -> getSafeValue(user.getPerformanceCompanions())),
+			column("Валидность", 1200, 800, user -> getBooleanValue(user.isValid()))
+	);
+	
+	private UserReportColumns() {
+	}
+	
+	public static List<ReportColumn<UserReportRow>> forRole(UserRole role) {
+		return switch (role) {
+			case GUEST -> GUESTS;
+			case NOVICE -> NOVICES;
+			case FIGHTER -> FIGHTERS;
+			case VETERAN -> VETERANS;
+		};
+	}
+	
+	public static String getRoleNameInRussian(UserRole role) {
+		return role.getRussianName();
+	}
+	
+	private static ReportColumn<UserReportRow> rowNumber(int headerWidth, int width) {
+		return new ReportColumn<>("№", headerWidth, width, (user, rowNumber) -> String.valueOf(rowNumber));
+	}
+	
+	private static ReportColumn<UserReportRow> column(String header, int headerWidth, int width,
+													  Function<UserReportRow, String> value) {
+		return new ReportColumn<>(header, headerWidth, width, (user, rowNumber) -> value.apply(user));
+	}
+	
+	// Вспомогательные методы для безопасного получения значений
+	private static String getSafeValue(String value) {
+		return value != null ? value : "-";
+	}
+	
+	private static String getSafeDate(LocalDate date) {
+		return date != null ? date.toString() : "-";
+	}
+	
+	private static String getAllergiesDetails(UserReportRow user) {
+		if (Boolean.TRUE.equals(user.getHasAllergies())) {
+			return user.getAllergies() != null ? user.getAllergies() : "Есть аллергии";
+		}
+		return "Нет";
+	}
+	
+	private static String getAlcoholWarning(UserReportRow user) {
+		return user.isShowAlcoholWarning() ? "ДА" : "нет";
+	}
+	
+	public static String getEventLocationInRussian(EventLocation location) {
+		if (location == null) return "Не указано";
+		return switch (location) {
+			case OFFICIAL_PART -> "Официальная часть";
+			case BANQUET -> "Банкет";
+			case BOTH -> "Официальная часть и банкет";
+		};
+	}
+	
+	private static String getBooleanValue(Boolean value) {
+		if (value == null) return "Нет";
+		return value ? "Да" : "Нет";
+	}
+}
@@ -0,0 +1,91 @@
+package com.api.backend.report;
+
+import com.api.backend.model.UserFieldRules;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+import static com.api.backend.model.enums.UserField.*;
+
+// Строка отчета: выбирается напрямую из БД конструкторной проекцией,
+// без загрузки сущностей User и конвертации в UserResponse
+@Getter
+public class UserReportRow {
+	
+	private final String surname;
+	private final String name;
+	private final String patronymic;
+	private final UserRole role;
+	private final Squad squad;
+	private final LocalDate birthDate;
+	private final EventLocation eventLocation;
+	private final Boolean hasAllergies;
+	private final String allergies;
+	private final String foodPreferences;
+	private final Boolean wantBowling;
+	private final String alcoholPreferences;
+	private final Boolean hasCar;
+	private final Boolean needSpeech;
+	private final String speechCompanions;
+	private final String tableCompanions;
+	private final Boolean willPerform;
+	private final String performanceCompanions;
+	// Вычисляется в запросе
+	private final boolean showAlcoholWarning;
+	// По тем же правилам ролей, что проверка анкеты в API
+	private final boolean valid;
+	
+	public UserReportRow(String surname, String name, String patronymic, UserRole role, Squad squad,
+						 LocalDate birthDate, EventLocation eventLocation, Boolean hasAllergies, String allergies,
+						 String foodPreferences, Boolean wantBowling, String alcoholPreferences, Boolean hasCar,
+						 Boolean needSpeech, String speechCompanions, String tableCompanions, Boolean willPerform,
+						 String performanceCompanions, boolean showAlcoholWarning) {
+		this.surname = surname;
+		this.name = name;
+		this.patronymic = patronymic;
+		this.role = role;
+		this.squad = squad;
+		this.birthDate = birthDate;
+		this.eventLocation = eventLocation;
+		this.hasAllergies = hasAllergies;
+		this.allergies = allergies;
+		this.foodPreferences = foodPreferences;
+		this.wantBowling = wantBowling;
+		this.alcoholPreferences = alcoholPreferences;
+		this.hasCar = hasCar;
+		this.needSpeech = needSpeech;
+		this.speechCompanions = speechCompanions;
+		this.tableCompanions = tableCompanions;
+		this.willPerform = willPerform;
+		this.performanceCompanions = performanceCompanions;
+		this.showAlcoholWarning = showAlcoholWarning;
+		this.valid = role != null && (UserFieldRules.requiredFields(role) & ~filledFields()) == 0;
+	}
+	
+	public String getSquadRussianName() {
+		return squad != null ? squad.getRussianName() : null;
+	}
+	
+	// То же, что UserFieldRules.filledFields для User: новое поле UserField нужно добавить и сюда
+	private long filledFields() {
+		long mask = 0;
+		if (squad != null) mask |= SQUAD.mask();
+		if (needSpeech != null) mask |= NEED_SPEECH.mask();
+		if (birthDate != null) mask |= BIRTH_DATE.mask();
+		if (eventLocation != null) mask |= EVENT_LOCATION.mask();
+		if (hasAllergies != null) mask |= HAS_ALLERGIES.mask();
+		if (allergies != null) mask |= ALLERGIES.mask();
+		if (foodPreferences != null) mask |= FOOD_PREFERENCES.mask();
+		if (wantBowling != null) mask |= WANT_BOWLING.mask();
+		if (alcoholPreferences != null) mask |= ALCOHOL_PREFERENCES.mask();
+		if (hasCar != null) mask |= HAS_CAR.mask();
+		if (tableCompanions != null) mask |= TABLE_COMPANIONS.mask();
+		if (speechCompanions != null) mask |= SPEECH_COMPANIONS.mask();
+		if (willPerform != null) mask |= WILL_PERFORM.mask();
+		if (performanceCompanions != null) mask |= PERFORMANCE_COMPANIONS.mask();
+		return mask;
+	}
+}
@@ -0,0 +1,61 @@
+package com.api.backend.report;
+
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Чтение строк отчета из БД. Потоковые методы отдают строки по мере прихода из курсора:
+// транзакция и курсор открыты, пока работает обработчик, и закрываются сразу после него
+@Component
+@RequiredArgsConstructor
+public class UserReportRowReader {
+	
+	private static final int ADULT_AGE = 18;
+	
+	private final UserRepository userRepository;
+	
+	@Transactional(readOnly = true)
+	public void streamAll(RowsHandler handler) throws IOException {
+		try (Stream<UserReportRow> rows = userRepository.streamAllReportRows(adultBirthDateLimit())) {
+			handler.handle(rows.iterator());
+		}
+	}
+	
+	@Transactional(readOnly = true)
+	public void streamByRole(UserRole role, RowsHandler handler) throws IOException {
+		try (Stream<UserReportRow> rows = userRepository.streamReportRowsByRole(role, adultBirthDateLimit())) {
+			handler.handle(rows.iterator());
+		}
+	}
+	
+	public long countAll() {
+		return userRepository.count();
+	}
+	
+	public long countByRole(UserRole role) {
+		return userRepository.countByRole(role);
+	}
+	
+	// Для случаев, когда строки нужны несколько раз (архив отчетов)
+	public List<UserReportRow> findAll() {
+		return userRepository.findAllReportRows(adultBirthDateLimit());
+	}
+	
+	// Дата считается один раз на запрос: родившиеся позже еще не достигли 18 лет
+	private static LocalDate adultBirthDateLimit() {
+		return LocalDate.now().minusYears(ADULT_AGE);
+	}
+	
+	@FunctionalInterface
+	public interface RowsHandler {
+		void handle(Iterator<UserReportRow> rows) throws IOException;
+	}
+}
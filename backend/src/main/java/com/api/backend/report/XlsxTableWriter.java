@@ -0,0 +1,82 @@
+package com.api.backend.report;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+
+// Потоковая выгрузка таблицы в xlsx: в памяти держится только окно из последних строк,
+// остальные сразу сбрасываются во временный файл POI
+public final class XlsxTableWriter {
+	
+	private static final int ROW_WINDOW_SIZE = 100;
+	// Примерная ширина одного символа в twip, ширина колонки Excel задается в 1/256 символа
+	private static final int TWIPS_PER_CHARACTER = 105;
+	private static final int MAX_COLUMN_WIDTH = 255 * 256;
+	
+	private XlsxTableWriter() {
+	}
+	
+	public static <T> void write(OutputStream outputStream, String sheetName,
+								 List<ReportColumn<T>> columns, Iterator<T> items) throws IOException {
+		SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW_SIZE);
+		workbook.setCompressTempFiles(true);
+		try {
+			SXSSFSheet sheet = workbook.createSheet(sheetName);
+			
+			CellStyle headerStyle = createHeaderStyle(workbook);
+			SXSSFRow headerRow = sheet.createRow(0);
+			for (int i = 0; i < columns.size(); i++) {
+				ReportColumn<T> column = columns.get(i);
+				headerRow.createCell(i).setCellValue(column.header());
+				headerRow.getCell(i).setCellStyle(headerStyle);
+				sheet.setColumnWidth(i, getColumnWidth(column));
+			}
+			sheet.createFreezePane(0, 1);
+			
+			int rowNumber = 1;
+			while (items.hasNext()) {
+				T item = items.next();
+				SXSSFRow row = sheet.createRow(rowNumber);
+				for (int i = 0; i < columns.size(); i++) {
+					String text = columns.get(i).value().get(item, rowNumber);
+					row.createCell(i).setCellValue(text != null ? text : "-");
+				}
+				rowNumber++;
+			}
+			
+			workbook.write(outputStream);
+		} finally {
+			// Удаляем временные файлы SXSSF
+			workbook.dispose();
+			workbook.close();
+		}
+	}
+	
+	private static CellStyle createHeaderStyle(SXSSFWorkbook workbook) {
+		Font font = workbook.createFont();
+		font.setBold(true);
+		
+		CellStyle style = workbook.createCellStyle();
+		style.setFont(font);
+		style.setAlignment(HorizontalAlignment.CENTER);
+		style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+		style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+		return style;
+	}
+	
+	// В docx колонки сужены под страницу, в таблице ширина не меньше заголовка
+	private static int getColumnWidth(ReportColumn<?> column) {
+		int characters = Math.max(column.width() / TWIPS_PER_CHARACTER, column.header().length() + 2);
+		return Math.min(characters * 256, MAX_COLUMN_WIDTH);
+	}
+}
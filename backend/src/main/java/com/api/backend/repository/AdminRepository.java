@@ -1,12 +1,20 @@
 package com.api.backend.repository;
 
 import com.api.backend.model.Admin;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
 public interface AdminRepository extends JpaRepository<Admin, Long> {
+	// Поиск при каждом входе; администраторы почти не меняются, поэтому результат кэшируется
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "admin-queries")
+	})
 	Optional<Admin> findByUsername(String username);
 	boolean existsByUsername(String username);
 }
\ No newline at end of file
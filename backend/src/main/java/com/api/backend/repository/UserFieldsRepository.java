@@ -0,0 +1,16 @@
+package com.api.backend.repository;
+
+import com.api.backend.model.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+// Чтение только части колонок пользователей, для ответов с параметром fields=
+public interface UserFieldsRepository {
+	
+	// Возвращает новые, не управляемые JPA объекты User, в которых заполнены только attributes.
+	// specification и limit могут быть null
+	List<User> findFields(Specification<User> specification, Collection<String> attributes, Sort sort, Integer limit);
+}
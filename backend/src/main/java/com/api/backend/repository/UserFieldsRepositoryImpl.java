@@ -0,0 +1,63 @@
+package com.api.backend.repository;
+
+import com.api.backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+class UserFieldsRepositoryImpl implements UserFieldsRepository {
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	@Override
+	public List<User> findFields(Specification<User> specification, Collection<String> attributes, Sort sort,
+								 Integer limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<User> root = query.from(User.class);
+		
+		List<Selection<?>> selections = new ArrayList<>(attributes.size());
+		for (String attribute : attributes) {
+			selections.add(root.get(attribute).alias(attribute));
+		}
+		query.multiselect(selections);
+		if (specification != null) {
+			query.where(specification.toPredicate(root, query, cb));
+		}
+		if (sort != null && sort.isSorted()) {
+			query.orderBy(QueryUtils.toOrders(sort, root, cb));
+		}
+		
+		TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+		if (limit != null) {
+			typedQuery.setMaxResults(limit);
+		}
+		
+		List<Tuple> tuples = typedQuery.getResultList();
+		List<User> users = new ArrayList<>(tuples.size());
+		for (Tuple tuple : tuples) {
+			User user = new User();
+			PropertyAccessor accessor = PropertyAccessorFactory.forDirectFieldAccess(user);
+			for (String attribute : attributes) {
+				accessor.setPropertyValue(attribute, tuple.get(attribute));
+			}
+			users.add(user);
+		}
+		return users;
+	}
+}
@@ -2,20 +2,90 @@ package com.api.backend.repository;
 
 import com.api.backend.model.User;
 import com.api.backend.model.enums.UserRole;
+import com.api.backend.report.UserReportRow;
+import com.api.backend.search.UserFacetRow;
+import com.api.backend.search.UserNameRow;
+import com.api.backend.stats.UserStatsRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-	List<User> findByRole(UserRole role);
-	List<User> findByEventLocation(com.api.backend.model.enums.EventLocation eventLocation);
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+		UserFieldsRepository {
+	
+	// То же правило, что в User.shouldShowAlcoholWarning: несовершеннолетний Новичок на банкете
+	String ALCOHOL_WARNING_CASE = "CASE WHEN u.role = com.api.backend.model.enums.UserRole.NOVICE " +
+			"AND u.eventLocation IN (com.api.backend.model.enums.EventLocation.BANQUET, " +
+			"com.api.backend.model.enums.EventLocation.BOTH) " +
+			"AND u.birthDate > :adultBirthDateLimit THEN true ELSE false END";
+	
+	// Проекция для отчетов: только нужные колонки. Предупреждение об алкоголе считается в запросе,
+	// валидность - в UserReportRow по общей таблице UserFieldRules
+	String REPORT_ROW_SELECT = "SELECT new com.api.backend.report.UserReportRow(" +
+			"u.surname, u.name, u.patronymic, u.role, u.squad, u.birthDate, u.eventLocation, " +
+			"u.hasAllergies, u.allergies, u.foodPreferences, u.wantBowling, u.alcoholPreferences, u.hasCar, " +
+			"u.needSpeech, u.speechCompanions, u.tableCompanions, u.willPerform, u.performanceCompanions, " +
+			ALCOHOL_WARNING_CASE + ") FROM User u ";
+	
+	// Размер порции строк, которую драйвер забирает из курсора за раз.
+	// Для MySQL подсказка работает только с useCursorFetch=true в URL подключения
+	String REPORT_FETCH_SIZE = "500";
+	
+	long countByRole(UserRole role);
 	
 	@Query("SELECT u FROM User u WHERE " +
 			"LOWER(u.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
 			"LOWER(u.surname) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
 			"LOWER(u.patronymic) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
 	List<User> searchByName(@Param("searchTerm") String searchTerm);
+	
+	@Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+	
+	// Массовое удаление одним запросом, без загрузки сущностей
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM User u WHERE u.id IN :ids")
+	int deleteByIds(@Param("ids") Collection<Long> ids);
+	
+	@Query("SELECT new com.api.backend.search.UserNameRow(u.id, u.name, u.surname, u.patronymic) FROM User u")
+	List<UserNameRow> findAllNameRows();
+	
+	@Query("SELECT new com.api.backend.search.UserFacetRow(u.id, u.role, u.squad, u.eventLocation, " +
+			"u.hasAllergies, u.wantBowling, u.hasCar, u.needSpeech, u.willPerform) FROM User u")
+	List<UserFacetRow> findAllFacetRows();
+	
+	// Одна строка на каждое встречающееся сочетание полей счетчиков с числом таких пользователей
+	@Query("SELECT new com.api.backend.stats.UserStatsRow(u.role, u.squad, u.eventLocation, " +
+			"u.hasAllergies, u.wantBowling, u.hasCar, u.needSpeech, u.willPerform, " + ALCOHOL_WARNING_CASE +
+			", COUNT(u)) FROM User u GROUP BY u.role, u.squad, u.eventLocation, " +
+			"u.hasAllergies, u.wantBowling, u.hasCar, u.needSpeech, u.willPerform, " + ALCOHOL_WARNING_CASE)
+	List<UserStatsRow> countStatsRows(@Param("adultBirthDateLimit") LocalDate adultBirthDateLimit);
+	
+	@Query(REPORT_ROW_SELECT + "ORDER BY u.id")
+	List<UserReportRow> findAllReportRows(@Param("adultBirthDateLimit") LocalDate adultBirthDateLimit);
+	
+	@Query(REPORT_ROW_SELECT + "WHERE u.role = :role ORDER BY u.id")
+	List<UserReportRow> findReportRowsByRole(@Param("role") UserRole role,
+											 @Param("adultBirthDateLimit") LocalDate adultBirthDateLimit);
+	
+	// Потоковое чтение: вызывать только внутри транзакции и закрывать Stream после использования
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = REPORT_FETCH_SIZE))
+	@Query(REPORT_ROW_SELECT + "ORDER BY u.id")
+	Stream<UserReportRow> streamAllReportRows(@Param("adultBirthDateLimit") LocalDate adultBirthDateLimit);
+	
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = REPORT_FETCH_SIZE))
+	@Query(REPORT_ROW_SELECT + "WHERE u.role = :role ORDER BY u.id")
+	Stream<UserReportRow> streamReportRowsByRole(@Param("role") UserRole role,
+												 @Param("adultBirthDateLimit") LocalDate adultBirthDateLimit);
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.api.backend.repository;
+
+import com.api.backend.model.User;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.UserRole;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+// Условия для постраничной выдачи и выборки части полей пользователей
+public final class UserSpecifications {
+	
+	private UserSpecifications() {
+	}
+	
+	public static Specification<User> hasId(Long id) {
+		return (root, query, cb) -> cb.equal(root.get("id"), id);
+	}
+	
+	public static Specification<User> hasIdIn(Collection<Long> ids) {
+		return (root, query, cb) -> root.get("id").in(ids);
+	}
+	
+	public static Specification<User> hasRole(UserRole role) {
+		return (root, query, cb) -> cb.equal(root.get("role"), role);
+	}
+	
+	public static Specification<User> hasEventLocation(EventLocation eventLocation) {
+		return (root, query, cb) -> cb.equal(root.get("eventLocation"), eventLocation);
+	}
+	
+	// Ключ страницы: строки строго после последней строки предыдущей страницы
+	public static Specification<User> idAfter(long id) {
+		return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+	}
+	
+	public static Specification<User> surnameAndIdAfter(String surname, long id) {
+		return (root, query, cb) -> cb.or(
+				cb.greaterThan(root.get("surname"), surname),
+				cb.and(cb.equal(root.get("surname"), surname), cb.greaterThan(root.get("id"), id)));
+	}
+}
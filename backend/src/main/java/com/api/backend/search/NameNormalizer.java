@@ -0,0 +1,30 @@
+package com.api.backend.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Приведение имен к виду для поиска: нижний регистр (в том числе кириллица) и ё -> е
+public final class NameNormalizer {
+	
+	private NameNormalizer() {
+	}
+	
+	public static String normalize(String value) {
+		if (value == null) {
+			return "";
+		}
+		return value.trim().toLowerCase(Locale.ROOT).replace('ё', 'е');
+	}
+	
+	// Слова поискового запроса после нормализации
+	public static List<String> tokens(String query) {
+		List<String> tokens = new ArrayList<>();
+		for (String token : normalize(query).split("\\s+")) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+}
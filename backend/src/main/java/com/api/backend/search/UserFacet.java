@@ -0,0 +1,79 @@
+package com.api.backend.search;
+
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Атрибуты пользователя для фасетного фильтра: имя параметра, возможные значения и значение строки.
+// Пустой перечислимый атрибут не попадает ни в одно значение, пустой флаг считается false
+public enum UserFacet {
+	ROLE("role", names(UserRole.values()), row -> name(row.role())),
+	SQUAD("squad", names(Squad.values()), row -> name(row.squad())),
+	EVENT_LOCATION("eventLocation", names(EventLocation.values()), row -> name(row.eventLocation())),
+	HAS_ALLERGIES("hasAllergies", List.of("true", "false"), row -> flag(row.hasAllergies())),
+	WANT_BOWLING("wantBowling", List.of("true", "false"), row -> flag(row.wantBowling())),
+	HAS_CAR("hasCar", List.of("true", "false"), row -> flag(row.hasCar())),
+	NEED_SPEECH("needSpeech", List.of("true", "false"), row -> flag(row.needSpeech())),
+	WILL_PERFORM("willPerform", List.of("true", "false"), row -> flag(row.willPerform()));
+	
+	private final String parameter;
+	private final List<String> values;
+	private final Function<UserFacetRow, String> value;
+	
+	UserFacet(String parameter, List<String> values, Function<UserFacetRow, String> value) {
+		this.parameter = parameter;
+		this.values = values;
+		this.value = value;
+	}
+	
+	public String getParameter() {
+		return parameter;
+	}
+	
+	public List<String> getValues() {
+		return values;
+	}
+	
+	// null, если у строки нет значения этого атрибута
+	public String valueOf(UserFacetRow row) {
+		return value.apply(row);
+	}
+	
+	public static UserFacet fromParameter(String parameter) {
+		for (UserFacet facet : values()) {
+			if (facet.parameter.equals(parameter)) {
+				return facet;
+			}
+		}
+		throw new IllegalArgumentException("Неизвестный фильтр: " + parameter);
+	}
+	
+	// Значение параметра запроса в виде, как оно хранится в индексе
+	public String normalizeValue(String raw) {
+		String candidate = this.values.get(0).equals("true") ? raw.trim().toLowerCase() : raw.trim().toUpperCase();
+		if (!this.values.contains(candidate)) {
+			throw new IllegalArgumentException("Неверное значение фильтра " + parameter + ": " + raw);
+		}
+		return candidate;
+	}
+	
+	private static List<String> names(Enum<?>[] constants) {
+		List<String> names = new ArrayList<>(constants.length);
+		for (Enum<?> constant : constants) {
+			names.add(constant.name());
+		}
+		return List.copyOf(names);
+	}
+	
+	private static String name(Enum<?> constant) {
+		return constant != null ? constant.name() : null;
+	}
+	
+	private static String flag(Boolean value) {
+		return Boolean.toString(Boolean.TRUE.equals(value));
+	}
+}
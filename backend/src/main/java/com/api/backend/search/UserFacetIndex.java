@@ -0,0 +1,177 @@
+package com.api.backend.search;
+
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Фасетный фильтр по перечислимым и логическим полям пользователя без запросов к БД.
+// Каждый пользователь занимает плотный номер (слот), для каждого значения каждого атрибута
+// хранится BitSet слотов. Фильтр - это ИЛИ битовых карт внутри атрибута и И между атрибутами
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserFacetIndex {
+	
+	private final UserRepository userRepository;
+	
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Long, Integer> slots = new HashMap<>();
+	private final Map<UserFacet, Map<String, BitSet>> bitmaps = new EnumMap<>(UserFacet.class);
+	private final BitSet alive = new BitSet();
+	private long[] ids = new long[1024];
+	// Все слоты ниже этого номера заняты
+	private int freeSlotHint;
+	
+	@PostConstruct
+	public void rebuild() {
+		rebuild(userRepository.findAllFacetRows());
+	}
+	
+	public void rebuild(List<UserFacetRow> rows) {
+		long start = System.nanoTime();
+		lock.writeLock().lock();
+		try {
+			slots.clear();
+			alive.clear();
+			freeSlotHint = 0;
+			ids = new long[Math.max(1024, rows.size())];
+			bitmaps.clear();
+			for (UserFacet facet : UserFacet.values()) {
+				Map<String, BitSet> values = new HashMap<>();
+				for (String value : facet.getValues()) {
+					values.put(value, new BitSet());
+				}
+				bitmaps.put(facet, values);
+			}
+			for (UserFacetRow row : rows) {
+				add(row);
+			}
+			log.info("Фасетный индекс построен: {} пользователей за {} мс",
+					slots.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	// Без транзакции (fallbackExecution) событие применяется сразу
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		lock.writeLock().lock();
+		try {
+			if (event.after() != null) {
+				remove(event.after().getId());
+				add(UserFacetRow.of(event.after()));
+			} else if (event.before() != null) {
+				remove(event.before().getId());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	// filters: атрибут -> допустимые значения. Возвращает число совпадений, первые limit id
+	// по возрастанию и счетчики по всем значениям. Счетчики атрибута считаются без его
+	// собственного условия, чтобы было видно, сколько добавит выбор еще одного значения
+	public FacetResult filter(Map<UserFacet, Set<String>> filters, int limit) {
+		lock.readLock().lock();
+		try {
+			Map<UserFacet, BitSet> selections = new EnumMap<>(UserFacet.class);
+			filters.forEach((facet, values) -> selections.put(facet, union(facet, values)));
+			BitSet matches = intersect(selections, null);
+			
+			Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+			for (UserFacet facet : UserFacet.values()) {
+				BitSet base = selections.containsKey(facet) ? intersect(selections, facet) : matches;
+				Map<String, Integer> counts = new LinkedHashMap<>();
+				for (String value : facet.getValues()) {
+					BitSet counted = (BitSet) base.clone();
+					counted.and(bitmaps.get(facet).get(value));
+					counts.put(value, counted.cardinality());
+				}
+				facets.put(facet.getParameter(), counts);
+			}
+			
+			// Слоты переиспользуются, поэтому их порядок не совпадает с порядком id
+			long[] matchedIds = new long[matches.cardinality()];
+			int count = 0;
+			for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+				matchedIds[count++] = ids[slot];
+			}
+			Arrays.sort(matchedIds);
+			List<Long> firstIds = Arrays.stream(matchedIds, 0, Math.min(limit, matchedIds.length)).boxed().toList();
+			return new FacetResult(matchedIds.length, firstIds, facets);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	private BitSet union(UserFacet facet, Set<String> values) {
+		BitSet result = new BitSet();
+		for (String value : values) {
+			result.or(bitmaps.get(facet).get(value));
+		}
+		return result;
+	}
+	
+	private BitSet intersect(Map<UserFacet, BitSet> selections, UserFacet except) {
+		BitSet result = (BitSet) alive.clone();
+		selections.forEach((facet, selection) -> {
+			if (facet != except) {
+				result.and(selection);
+			}
+		});
+		return result;
+	}
+	
+	// Вызывается под блокировкой записи. Освободившиеся слоты занимаются заново,
+	// чтобы битовые карты не росли от удалений
+	private void add(UserFacetRow row) {
+		int slot = alive.nextClearBit(freeSlotHint);
+		freeSlotHint = slot + 1;
+		if (slot == ids.length) {
+			ids = Arrays.copyOf(ids, ids.length * 2);
+		}
+		ids[slot] = row.id();
+		slots.put(row.id(), slot);
+		alive.set(slot);
+		for (UserFacet facet : UserFacet.values()) {
+			String value = facet.valueOf(row);
+			if (value != null) {
+				bitmaps.get(facet).get(value).set(slot);
+			}
+		}
+	}
+	
+	// Вызывается под блокировкой записи
+	private void remove(long id) {
+		Integer slot = slots.remove(id);
+		if (slot == null) {
+			return;
+		}
+		alive.clear(slot);
+		freeSlotHint = Math.min(freeSlotHint, slot);
+		for (Map<String, BitSet> values : bitmaps.values()) {
+			for (BitSet bitmap : values.values()) {
+				bitmap.clear(slot);
+			}
+		}
+	}
+	
+	public record FacetResult(int total, List<Long> ids, Map<String, Map<String, Integer>> facets) {
+	}
+}
@@ -0,0 +1,17 @@
+package com.api.backend.search;
+
+import com.api.backend.model.User;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+
+// Только поля, по которым строятся фасеты
+public record UserFacetRow(Long id, UserRole role, Squad squad, EventLocation eventLocation, Boolean hasAllergies,
+						   Boolean wantBowling, Boolean hasCar, Boolean needSpeech, Boolean willPerform) {
+	
+	public static UserFacetRow of(User user) {
+		return new UserFacetRow(user.getId(), user.getRole(), user.getSquad(), user.getEventLocation(),
+				user.getHasAllergies(), user.getWantBowling(), user.getHasCar(), user.getNeedSpeech(),
+				user.getWillPerform());
+	}
+}
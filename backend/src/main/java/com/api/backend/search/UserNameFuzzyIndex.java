@@ -0,0 +1,286 @@
+package com.api.backend.search;
+
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.model.User;
+import com.api.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Нечеткий поиск по словам имени, фамилии и отчества с учетом опечаток.
+// Различные нормализованные слова лежат в BK-дереве по расстоянию Левенштейна, к слову
+// привязаны id пользователей. Слово, у которого не осталось пользователей, остается в дереве
+// как надгробие и пропускается; когда надгробий становится слишком много, дерево перестраивается
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserNameFuzzyIndex {
+	
+	public static final int MAX_DISTANCE = 2;
+	
+	private static final int MIN_TOMBSTONES_FOR_REBUILD = 1000;
+	
+	private final UserRepository userRepository;
+	
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Set<Long>> usersByToken = new HashMap<>();
+	private final Map<Long, Set<String>> tokensByUser = new HashMap<>();
+	private Node root;
+	private int treeSize;
+	
+	@PostConstruct
+	public void rebuild() {
+		rebuild(userRepository.findAllNameRows());
+	}
+	
+	public void rebuild(List<UserNameRow> rows) {
+		long start = System.nanoTime();
+		lock.writeLock().lock();
+		try {
+			usersByToken.clear();
+			tokensByUser.clear();
+			root = null;
+			treeSize = 0;
+			for (UserNameRow row : rows) {
+				add(row.id(), tokens(row.name(), row.surname(), row.patronymic()));
+			}
+			log.info("Нечеткий индекс имен построен: {} слов за {} мс",
+					treeSize, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	// Без транзакции (fallbackExecution) событие применяется сразу
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		lock.writeLock().lock();
+		try {
+			User after = event.after();
+			if (after != null) {
+				remove(after.getId());
+				add(after.getId(), tokens(after.getName(), after.getSurname(), after.getPatronymic()));
+			} else if (event.before() != null) {
+				remove(event.before().getId());
+			}
+			if (treeSize - usersByToken.size() > Math.max(MIN_TOMBSTONES_FOR_REBUILD, usersByToken.size())) {
+				compact();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	// id пользователей, у которых каждое слово запроса находится не дальше maxDistance правок
+	// от какого-то слова имени, по возрастанию суммы расстояний
+	public List<Long> search(String query, int maxDistance) {
+		List<String> queryTokens = NameNormalizer.tokens(query);
+		if (queryTokens.isEmpty()) {
+			return List.of();
+		}
+		
+		Map<Long, Integer> distances = null;
+		lock.readLock().lock();
+		try {
+			for (String queryToken : queryTokens) {
+				Map<Long, Integer> tokenDistances = closestUsers(queryToken, maxDistance);
+				if (distances == null) {
+					distances = tokenDistances;
+				} else {
+					// Пользователь должен подойти под все слова запроса
+					Map<Long, Integer> previous = distances;
+					distances = new HashMap<>();
+					for (Map.Entry<Long, Integer> entry : tokenDistances.entrySet()) {
+						Integer distance = previous.get(entry.getKey());
+						if (distance != null) {
+							distances.put(entry.getKey(), distance + entry.getValue());
+						}
+					}
+				}
+				if (distances.isEmpty()) {
+					return List.of();
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		
+		List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(distances.entrySet());
+		ranked.sort(Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+		List<Long> ids = new ArrayList<>(ranked.size());
+		for (Map.Entry<Long, Integer> entry : ranked) {
+			ids.add(entry.getKey());
+		}
+		return ids;
+	}
+	
+	// Узлов в дереве вместе с надгробиями; для проверки перестройки в тестах
+	int treeSize() {
+		lock.readLock().lock();
+		try {
+			return treeSize;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	// Лучшее расстояние до слова запроса для каждого подходящего пользователя. Вызывается под блокировкой
+	private Map<Long, Integer> closestUsers(String queryToken, int maxDistance) {
+		Map<Long, Integer> result = new HashMap<>();
+		if (root == null) {
+			return result;
+		}
+		char[] query = queryToken.toCharArray();
+		int[] previousRow = new int[query.length + 1];
+		int[] currentRow = new int[query.length + 1];
+		
+		Deque<Node> pending = new ArrayDeque<>();
+		pending.push(root);
+		while (!pending.isEmpty()) {
+			Node node = pending.pop();
+			int distance = levenshtein(query, node.token, previousRow, currentRow);
+			if (distance <= maxDistance) {
+				Set<Long> users = usersByToken.get(node.token);
+				if (users != null) {
+					for (Long id : users) {
+						result.merge(id, distance, Math::min);
+					}
+				}
+			}
+			// По неравенству треугольника подходящие слова лежат только в ветках distance +- maxDistance
+			if (node.children != null) {
+				int from = Math.max(1, distance - maxDistance);
+				int to = Math.min(node.children.length - 1, distance + maxDistance);
+				for (int d = from; d <= to; d++) {
+					if (node.children[d] != null) {
+						pending.push(node.children[d]);
+					}
+				}
+			}
+		}
+		return result;
+	}
+	
+	// Вызывается под блокировкой записи
+	private void add(long id, Set<String> tokens) {
+		tokensByUser.put(id, tokens);
+		for (String token : tokens) {
+			Set<Long> users = usersByToken.get(token);
+			if (users == null) {
+				users = new HashSet<>(2);
+				usersByToken.put(token, users);
+				insert(token);
+			}
+			users.add(id);
+		}
+	}
+	
+	// Вызывается под блокировкой записи
+	private void remove(long id) {
+		Set<String> tokens = tokensByUser.remove(id);
+		if (tokens == null) {
+			return;
+		}
+		for (String token : tokens) {
+			Set<Long> users = usersByToken.get(token);
+			if (users != null && users.remove(id) && users.isEmpty()) {
+				usersByToken.remove(token);
+			}
+		}
+	}
+	
+	// Вставка в дерево; слово-надгробие просто оживает, так как узел уже есть
+	private void insert(String token) {
+		char[] chars = token.toCharArray();
+		if (root == null) {
+			root = new Node(chars);
+			treeSize++;
+			return;
+		}
+		int[] previousRow = new int[chars.length + 1];
+		int[] currentRow = new int[chars.length + 1];
+		Node node = root;
+		while (true) {
+			int distance = levenshtein(chars, node.token, previousRow, currentRow);
+			if (distance == 0) {
+				return;
+			}
+			if (node.children == null || node.children.length <= distance) {
+				node.children = node.children == null
+						? new Node[distance + 1]
+						: Arrays.copyOf(node.children, distance + 1);
+			}
+			if (node.children[distance] == null) {
+				node.children[distance] = new Node(chars);
+				treeSize++;
+				return;
+			}
+			node = node.children[distance];
+		}
+	}
+	
+	// Перестраивает дерево только из живых слов. Вызывается под блокировкой записи
+	private void compact() {
+		int tombstones = treeSize - usersByToken.size();
+		root = null;
+		treeSize = 0;
+		List<String> tokens = new ArrayList<>(usersByToken.keySet());
+		// Случайный порядок вставки держит дерево сбалансированным
+		tokens.sort(Comparator.comparingInt(String::hashCode));
+		tokens.forEach(this::insert);
+		log.info("Нечеткий индекс имен перестроен, убрано {} надгробий", tombstones);
+	}
+	
+	private static Set<String> tokens(String... fields) {
+		Set<String> tokens = new HashSet<>();
+		for (String field : fields) {
+			tokens.addAll(NameNormalizer.tokens(field));
+		}
+		return tokens;
+	}
+	
+	// Расстояние Левенштейна на двух строках таблицы, строки переиспользуются между вызовами
+	private static int levenshtein(char[] query, String token, int[] previousRow, int[] currentRow) {
+		for (int i = 0; i <= query.length; i++) {
+			previousRow[i] = i;
+		}
+		for (int j = 1; j <= token.length(); j++) {
+			char c = token.charAt(j - 1);
+			currentRow[0] = j;
+			for (int i = 1; i <= query.length; i++) {
+				int substitution = previousRow[i - 1] + (query[i - 1] == c ? 0 : 1);
+				currentRow[i] = Math.min(substitution, Math.min(previousRow[i], currentRow[i - 1]) + 1);
+			}
+			int[] row = previousRow;
+			previousRow = currentRow;
+			currentRow = row;
+		}
+		return previousRow[query.length];
+	}
+	
+	private static final class Node {
+		
+		private final String token;
+		// children[d] - поддерево слов на расстоянии d от token
+		private Node[] children;
+		
+		Node(char[] token) {
+			this.token = new String(token);
+		}
+	}
+}
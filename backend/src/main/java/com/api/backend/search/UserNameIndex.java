@@ -0,0 +1,287 @@
+package com.api.backend.search;
+
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.model.User;
+import com.api.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Триграммный индекс по имени, фамилии и отчеству для поиска подстроки без сканирования таблицы.
+// Каждое поле режется на тройки символов отдельно, для тройки хранится отсортированный список id.
+// Слово запроса из 3+ символов пересекает списки своих троек, кандидаты проверяются по строкам.
+// Индекс строится при старте и обновляется после коммита по UserChangedEvent
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserNameIndex {
+	
+	private static final int GRAM_LENGTH = 3;
+	
+	private final UserRepository userRepository;
+	
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Long, IndexedName> names = new HashMap<>();
+	private final Map<Long, Postings> postings = new HashMap<>();
+	
+	@PostConstruct
+	public void rebuild() {
+		long start = System.nanoTime();
+		List<UserNameRow> rows = userRepository.findAllNameRows();
+		lock.writeLock().lock();
+		try {
+			names.clear();
+			postings.clear();
+			for (UserNameRow row : rows) {
+				add(row.id(), new IndexedName(row.name(), row.surname(), row.patronymic()));
+			}
+			log.info("Поисковый индекс имен построен: {} пользователей, {} триграмм за {} мс",
+					names.size(), postings.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	// Без транзакции (fallbackExecution) событие применяется сразу
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		lock.writeLock().lock();
+		try {
+			User after = event.after();
+			if (after != null) {
+				remove(after.getId());
+				add(after.getId(), new IndexedName(after.getName(), after.getSurname(), after.getPatronymic()));
+			} else if (event.before() != null) {
+				remove(event.before().getId());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	// id пользователей, у которых каждое слово запроса входит в имя, фамилию или отчество,
+	// от лучшего совпадения к худшему
+	public List<Long> search(String query) {
+		List<Match> matches = matches(query);
+		matches.sort(Comparator.comparingInt(Match::score).reversed().thenComparingLong(Match::id));
+		List<Long> ids = new ArrayList<>(matches.size());
+		for (Match match : matches) {
+			ids.add(match.id());
+		}
+		return ids;
+	}
+	
+	// Те же совпадения, что у search, по нормализованной фамилии и затем по id: в этом порядке
+	// поиск выдается постранично с сортировкой по фамилии
+	public List<SurnameMatch> searchBySurname(String query) {
+		List<Match> matches = matches(query);
+		List<SurnameMatch> result = new ArrayList<>(matches.size());
+		for (Match match : matches) {
+			result.add(new SurnameMatch(match.id(), match.surname()));
+		}
+		result.sort(SurnameMatch.ORDER);
+		return result;
+	}
+	
+	private List<Match> matches(String query) {
+		List<String> tokens = NameNormalizer.tokens(query);
+		List<Match> matches = new ArrayList<>();
+		if (tokens.isEmpty()) {
+			return matches;
+		}
+		
+		lock.readLock().lock();
+		try {
+			long[] candidates = candidates(tokens);
+			if (candidates == null) {
+				// Слова короче триграммы: индекс не сужает поиск, проверяются все имена в памяти
+				names.forEach((id, name) -> addMatch(matches, id, name, tokens));
+			} else {
+				for (long id : candidates) {
+					addMatch(matches, id, names.get(id), tokens);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return matches;
+	}
+	
+	// Пересечение списков всех триграмм запроса; null, если в запросе нет ни одной триграммы
+	private long[] candidates(List<String> tokens) {
+		Set<Long> grams = new HashSet<>();
+		for (String token : tokens) {
+			collectGrams(token, grams);
+		}
+		if (grams.isEmpty()) {
+			return null;
+		}
+		
+		List<Postings> lists = new ArrayList<>(grams.size());
+		for (Long gram : grams) {
+			Postings list = postings.get(gram);
+			if (list == null) {
+				return new long[0];
+			}
+			lists.add(list);
+		}
+		lists.sort(Comparator.comparingInt(list -> list.size));
+		
+		Postings shortest = lists.get(0);
+		long[] result = new long[shortest.size];
+		int count = 0;
+		for (int i = 0; i < shortest.size; i++) {
+			long id = shortest.ids[i];
+			boolean inAll = true;
+			for (int j = 1; j < lists.size() && inAll; j++) {
+				inAll = lists.get(j).contains(id);
+			}
+			if (inAll) {
+				result[count++] = id;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+	
+	private static void addMatch(List<Match> matches, long id, IndexedName name, List<String> tokens) {
+		int score = score(name, tokens);
+		if (score >= 0) {
+			matches.add(new Match(id, score, name.surname));
+		}
+	}
+	
+	// Сумма лучших совпадений слов; -1, если какое-то слово не нашлось
+	private static int score(IndexedName name, List<String> tokens) {
+		int score = 0;
+		for (String token : tokens) {
+			int best = Math.max(fieldScore(name.surname, token, 2),
+					Math.max(fieldScore(name.name, token, 1), fieldScore(name.patronymic, token, 0)));
+			if (best < 0) {
+				return -1;
+			}
+			score += best;
+		}
+		return score;
+	}
+	
+	// Поле целиком лучше начала поля, начало лучше середины; при равенстве выше фамилия, затем имя
+	private static int fieldScore(String field, String token, int fieldWeight) {
+		if (field.equals(token)) {
+			return 9 + fieldWeight;
+		}
+		if (field.startsWith(token)) {
+			return 6 + fieldWeight;
+		}
+		if (field.contains(token)) {
+			return 3 + fieldWeight;
+		}
+		return -1;
+	}
+	
+	// Вызывается под блокировкой записи
+	private void add(long id, IndexedName name) {
+		names.put(id, name);
+		for (Long gram : name.grams()) {
+			postings.computeIfAbsent(gram, key -> new Postings()).add(id);
+		}
+	}
+	
+	// Вызывается под блокировкой записи
+	private void remove(long id) {
+		IndexedName name = names.remove(id);
+		if (name == null) {
+			return;
+		}
+		for (Long gram : name.grams()) {
+			Postings list = postings.get(gram);
+			if (list != null && list.remove(id) && list.size == 0) {
+				postings.remove(gram);
+			}
+		}
+	}
+	
+	private static void collectGrams(String value, Set<Long> grams) {
+		for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+			grams.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+		}
+	}
+	
+	private record Match(long id, int score, String surname) {
+	}
+	
+	public record SurnameMatch(long id, String surname) {
+		
+		public static final Comparator<SurnameMatch> ORDER =
+				Comparator.comparing(SurnameMatch::surname).thenComparingLong(SurnameMatch::id);
+	}
+	
+	// Нормализованные поля одного пользователя
+	private static final class IndexedName {
+		
+		private final String name;
+		private final String surname;
+		private final String patronymic;
+		
+		IndexedName(String name, String surname, String patronymic) {
+			this.name = NameNormalizer.normalize(name);
+			this.surname = NameNormalizer.normalize(surname);
+			this.patronymic = NameNormalizer.normalize(patronymic);
+		}
+		
+		Set<Long> grams() {
+			Set<Long> grams = new HashSet<>();
+			collectGrams(name, grams);
+			collectGrams(surname, grams);
+			collectGrams(patronymic, grams);
+			return grams;
+		}
+	}
+	
+	// Отсортированный по возрастанию список id для одной триграммы
+	private static final class Postings {
+		
+		private long[] ids = new long[4];
+		private int size;
+		
+		void add(long id) {
+			int position = Arrays.binarySearch(ids, 0, size, id);
+			if (position >= 0) {
+				return;
+			}
+			position = -position - 1;
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			System.arraycopy(ids, position, ids, position + 1, size - position);
+			ids[position] = id;
+			size++;
+		}
+		
+		boolean remove(long id) {
+			int position = Arrays.binarySearch(ids, 0, size, id);
+			if (position < 0) {
+				return false;
+			}
+			System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+			size--;
+			return true;
+		}
+		
+		boolean contains(long id) {
+			return Arrays.binarySearch(ids, 0, size, id) >= 0;
+		}
+	}
+}
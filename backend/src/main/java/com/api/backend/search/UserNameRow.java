@@ -0,0 +1,5 @@
+package com.api.backend.search;
+
+// Только поля имени, для построения поискового индекса
+public record UserNameRow(Long id, String name, String surname, String patronymic) {
+}
@@ -0,0 +1,334 @@
+package com.api.backend.search;
+
+import com.api.backend.dto.response.UserSuggestion;
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.model.User;
+import com.api.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Подсказки по началу фамилии или имени. Нормализованные фамилии и имена лежат в сжатом
+// префиксном дереве (radix tree): цепочки узлов с одним потомком склеены в одну метку ребра,
+// дети узла отсортированы по первой букве. Обход в глубину выдает слова по алфавиту,
+// поэтому первые limit пользователей находятся без сортировки всех совпадений
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserNameTrie {
+	
+	private static final Node[] NO_CHILDREN = new Node[0];
+	private static final long[] NO_IDS = new long[0];
+	
+	private final UserRepository userRepository;
+	
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Long, UserSuggestion> suggestions = new HashMap<>();
+	private Node root = new Node("");
+	
+	@PostConstruct
+	public void rebuild() {
+		rebuild(userRepository.findAllNameRows());
+	}
+	
+	public void rebuild(List<UserNameRow> rows) {
+		long start = System.nanoTime();
+		lock.writeLock().lock();
+		try {
+			suggestions.clear();
+			root = new Node("");
+			for (UserNameRow row : rows) {
+				add(new UserSuggestion(row.id(), row.surname(), row.name()));
+			}
+			log.info("Дерево подсказок построено: {} пользователей за {} мс",
+					suggestions.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	// Без транзакции (fallbackExecution) событие применяется сразу
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		lock.writeLock().lock();
+		try {
+			User after = event.after();
+			if (after != null) {
+				remove(after.getId());
+				add(new UserSuggestion(after.getId(), after.getSurname(), after.getName()));
+			} else if (event.before() != null) {
+				remove(event.before().getId());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	// Первые limit пользователей, у которых фамилия или имя начинается с prefix, по алфавиту
+	public List<UserSuggestion> suggest(String prefix, int limit) {
+		String key = NameNormalizer.normalize(prefix);
+		if (key.isEmpty() || limit <= 0) {
+			return List.of();
+		}
+		
+		lock.readLock().lock();
+		try {
+			Node start = find(key);
+			if (start == null) {
+				return List.of();
+			}
+			long[] ids = new long[limit];
+			int count = collect(start, ids, 0);
+			List<UserSuggestion> result = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				result.add(suggestions.get(ids[i]));
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	// Узлов в дереве; для проверки склейки узлов в тестах
+	int nodeCount() {
+		lock.readLock().lock();
+		try {
+			return count(root);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	private static int count(Node node) {
+		int count = 1;
+		for (Node child : node.children) {
+			count += count(child);
+		}
+		return count;
+	}
+	
+	// Узел, под которым лежат все слова с этим началом. Вызывается под блокировкой
+	private Node find(String key) {
+		Node node = root;
+		int position = 0;
+		while (position < key.length()) {
+			int index = childIndex(node, key.charAt(position));
+			if (index < 0) {
+				return null;
+			}
+			Node child = node.children[index];
+			int common = commonPrefix(child.label, key, position);
+			if (position + common == key.length()) {
+				// Начало закончилось на ребре или в конце метки
+				return child;
+			}
+			if (common < child.label.length()) {
+				return null;
+			}
+			node = child;
+			position += common;
+		}
+		return node;
+	}
+	
+	// Обход в глубину по алфавиту; одного пользователя могут найти и по фамилии, и по имени
+	private static int collect(Node node, long[] ids, int count) {
+		for (long id : node.ids) {
+			if (count == ids.length) {
+				return count;
+			}
+			if (!contains(ids, count, id)) {
+				ids[count++] = id;
+			}
+		}
+		for (Node child : node.children) {
+			if (count == ids.length) {
+				return count;
+			}
+			count = collect(child, ids, count);
+		}
+		return count;
+	}
+	
+	// Вызывается под блокировкой записи
+	private void add(UserSuggestion suggestion) {
+		suggestions.put(suggestion.getId(), suggestion);
+		insert(NameNormalizer.normalize(suggestion.getSurname()), suggestion.getId());
+		insert(NameNormalizer.normalize(suggestion.getName()), suggestion.getId());
+	}
+	
+	// Вызывается под блокировкой записи
+	private void remove(long id) {
+		UserSuggestion suggestion = suggestions.remove(id);
+		if (suggestion != null) {
+			delete(NameNormalizer.normalize(suggestion.getSurname()), id);
+			delete(NameNormalizer.normalize(suggestion.getName()), id);
+		}
+	}
+	
+	private void insert(String word, long id) {
+		if (word.isEmpty()) {
+			return;
+		}
+		Node node = root;
+		int position = 0;
+		while (position < word.length()) {
+			int index = childIndex(node, word.charAt(position));
+			if (index < 0) {
+				Node leaf = new Node(word.substring(position));
+				leaf.ids = new long[]{id};
+				insertChild(node, -index - 1, leaf);
+				return;
+			}
+			Node child = node.children[index];
+			int common = commonPrefix(child.label, word, position);
+			if (common < child.label.length()) {
+				// Слово расходится с меткой посередине: ребро делится на общую часть и остаток
+				Node middle = new Node(child.label.substring(0, common));
+				child.label = child.label.substring(common);
+				middle.children = new Node[]{child};
+				node.children[index] = middle;
+				child = middle;
+			}
+			node = child;
+			position += common;
+		}
+		node.ids = addId(node.ids, id);
+	}
+	
+	private void delete(String word, long id) {
+		if (word.isEmpty()) {
+			return;
+		}
+		Node parent = null;
+		Node node = root;
+		int position = 0;
+		while (position < word.length()) {
+			int index = childIndex(node, word.charAt(position));
+			if (index < 0) {
+				return;
+			}
+			Node child = node.children[index];
+			if (!word.startsWith(child.label, position)) {
+				return;
+			}
+			parent = node;
+			node = child;
+			position += child.label.length();
+		}
+		node.ids = removeId(node.ids, id);
+		
+		// Пустой лист удаляется, а узел с единственным потомком склеивается с ним
+		if (node.ids.length == 0 && node.children.length == 0) {
+			removeChild(parent, node);
+			node = parent;
+		}
+		if (node != root && node.ids.length == 0 && node.children.length == 1) {
+			Node child = node.children[0];
+			node.label = node.label + child.label;
+			node.ids = child.ids;
+			node.children = child.children;
+		}
+	}
+	
+	private static int childIndex(Node node, char first) {
+		int low = 0;
+		int high = node.children.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			char value = node.children[middle].label.charAt(0);
+			if (value < first) {
+				low = middle + 1;
+			} else if (value > first) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -(low + 1);
+	}
+	
+	private static void insertChild(Node node, int index, Node child) {
+		Node[] children = new Node[node.children.length + 1];
+		System.arraycopy(node.children, 0, children, 0, index);
+		children[index] = child;
+		System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+		node.children = children;
+	}
+	
+	private static void removeChild(Node node, Node child) {
+		int index = childIndex(node, child.label.charAt(0));
+		Node[] children = new Node[node.children.length - 1];
+		System.arraycopy(node.children, 0, children, 0, index);
+		System.arraycopy(node.children, index + 1, children, index, children.length - index);
+		node.children = children.length == 0 ? NO_CHILDREN : children;
+	}
+	
+	private static int commonPrefix(String label, String word, int offset) {
+		int length = Math.min(label.length(), word.length() - offset);
+		int i = 0;
+		while (i < length && label.charAt(i) == word.charAt(offset + i)) {
+			i++;
+		}
+		return i;
+	}
+	
+	private static long[] addId(long[] ids, long id) {
+		int index = Arrays.binarySearch(ids, id);
+		if (index >= 0) {
+			return ids;
+		}
+		index = -index - 1;
+		long[] result = new long[ids.length + 1];
+		System.arraycopy(ids, 0, result, 0, index);
+		result[index] = id;
+		System.arraycopy(ids, index, result, index + 1, ids.length - index);
+		return result;
+	}
+	
+	private static long[] removeId(long[] ids, long id) {
+		int index = Arrays.binarySearch(ids, id);
+		if (index < 0) {
+			return ids;
+		}
+		if (ids.length == 1) {
+			return NO_IDS;
+		}
+		long[] result = new long[ids.length - 1];
+		System.arraycopy(ids, 0, result, 0, index);
+		System.arraycopy(ids, index + 1, result, index, result.length - index);
+		return result;
+	}
+	
+	private static boolean contains(long[] ids, int count, long id) {
+		for (int i = 0; i < count; i++) {
+			if (ids[i] == id) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static final class Node {
+		
+		private String label;
+		// Отсортированы по первой букве метки
+		private Node[] children = NO_CHILDREN;
+		// Пользователи, у которых слово заканчивается в этом узле
+		private long[] ids = NO_IDS;
+		
+		Node(String label) {
+			this.label = label;
+		}
+	}
+}
@@ -0,0 +1,11 @@
+package com.api.backend.service;
+
+import com.api.backend.dto.request.ReportJobRequest;
+import com.api.backend.dto.response.ReportJobResponse;
+import com.api.backend.dto.response.StreamingReportResponse;
+
+public interface ReportJobService {
+	ReportJobResponse submitJob(ReportJobRequest request);
+	ReportJobResponse getJob(String id);
+	StreamingReportResponse downloadJobResult(String id);
+}
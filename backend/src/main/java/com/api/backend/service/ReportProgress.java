@@ -0,0 +1,19 @@
+package com.api.backend.service;
+
+// Получает прогресс построения отчета: сколько строк будет в отчете и сколько уже отрисовано
+public interface ReportProgress {
+	
+	ReportProgress NONE = new ReportProgress() {
+		@Override
+		public void start(long totalRows) {
+		}
+		
+		@Override
+		public void rowRendered() {
+		}
+	};
+	
+	void start(long totalRows);
+	
+	void rowRendered();
+}
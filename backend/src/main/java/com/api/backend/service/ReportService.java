@@ -1,8 +1,12 @@
 package com.api.backend.service;
 
+import com.api.backend.dto.response.ReportAdmissionStats;
+import com.api.backend.dto.response.ReportCacheStats;
 import com.api.backend.dto.response.ReportResponse;
-import com.api.backend.dto.response.UserResponse;
+import com.api.backend.dto.response.StreamingReportResponse;
+import com.api.backend.model.enums.ReportFormat;
 import com.api.backend.model.enums.UserRole;
+import com.api.backend.report.UserReportRow;
 import java.util.List;
 
 public interface ReportService {
@@ -12,5 +16,13 @@ public interface ReportService {
 	ReportResponse generateNovicesReport();
 	ReportResponse generateFightersReport();
 	ReportResponse generateVeteransReport();
-	List<UserResponse> getAllUsersForReport();
-}
\ No newline at end of file
+	StreamingReportResponse streamAllUsersReport(ReportFormat format);
+	StreamingReportResponse streamRoleReport(UserRole role, ReportFormat format);
+	StreamingReportResponse streamAllUsersReport(ReportFormat format, ReportProgress progress);
+	StreamingReportResponse streamRoleReport(UserRole role, ReportFormat format, ReportProgress progress);
+	StreamingReportResponse streamReportsBundle(ReportFormat format);
+	List<UserReportRow> getAllUsersForReport();
+	void prerenderReports();
+	ReportCacheStats getCacheStats();
+	ReportAdmissionStats getAdmissionStats();
+}
@@ -0,0 +1,10 @@
+package com.api.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Записывает готовый документ отчета напрямую в выходной поток
+@FunctionalInterface
+public interface ReportWriter {
+	void writeTo(OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,8 @@
+package com.api.backend.service;
+
+import com.api.backend.dto.response.UserImportResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface UserImportService {
+	UserImportResponse importUsers(MultipartFile file);
+}
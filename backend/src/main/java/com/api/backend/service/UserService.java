@@ -1,20 +1,47 @@
 package com.api.backend.service;
 
 import com.api.backend.dto.request.UserRequest;
+import com.api.backend.dto.response.BulkDeleteResponse;
+import com.api.backend.dto.response.UserBatchResponse;
+import com.api.backend.dto.response.UserFacetResponse;
+import com.api.backend.dto.response.UserPageResponse;
 import com.api.backend.dto.response.UserResponse;
+import com.api.backend.dto.response.UserStatsResponse;
+import com.api.backend.dto.response.UserSuggestion;
+import com.api.backend.dto.response.UserValidationResponse;
 import com.api.backend.model.User;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
-	List<UserResponse> getAllUsers();
+	Collection<UserResponse> getAllUsers();
+	UserPageResponse<?> getUsersPage(Integer limit, String cursor, String sort, String fields);
+	List<Map<String, Object>> getAllUserFields(String fields);
 	UserResponse getUserById(Long id);
+	Map<String, Object> getUserFieldsById(Long id, String fields);
 	UserResponse createUser(UserRequest userRequest);
+	UserBatchResponse createUsers(List<UserRequest> userRequests);
+	UserBatchResponse createValidatedUsers(List<UserRequest> userRequests);
 	UserResponse updateUser(Long id, UserRequest userRequest);
 	void deleteUser(Long id);
-	List<UserResponse> getUsersByRole(String role);
-	List<UserResponse> getUsersByEventLocation(String eventLocation);
+	Collection<UserResponse> getUsersByRole(String role);
+	UserPageResponse<?> getUsersByRolePage(String role, Integer limit, String cursor, String sort, String fields);
+	List<Map<String, Object>> getUserFieldsByRole(String role, String fields);
+	Collection<UserResponse> getUsersByEventLocation(String eventLocation);
+	UserPageResponse<?> getUsersByEventLocationPage(String eventLocation, Integer limit, String cursor, String sort,
+														String fields);
+	List<Map<String, Object>> getUserFieldsByEventLocation(String eventLocation, String fields);
 	boolean validateUser(User user);
 	String getUserValidationErrors(User user);
+	List<String> getUserRequestErrors(UserRequest userRequest);
+	UserValidationResponse validateUserRequest(UserRequest userRequest);
 	List<UserResponse> searchUsersByName(String name);
-	void deleteUsers(List<Long> ids);
+	List<UserResponse> fuzzySearchUsersByName(String name, int maxDistance);
+	List<UserSuggestion> autocompleteUsers(String prefix, Integer limit);
+	UserFacetResponse filterUsers(Map<String, List<String>> filters, Integer limit);
+	UserStatsResponse getUserStats();
+	UserPageResponse<?> searchUsersByNamePage(String name, Integer limit, String cursor, String sort, String fields);
+	List<Map<String, Object>> searchUserFieldsByName(String name, String fields);
+	BulkDeleteResponse deleteUsers(List<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,293 @@
+package com.api.backend.service.impl;
+
+import com.api.backend.config.ReportConfig;
+import com.api.backend.dto.request.ReportJobRequest;
+import com.api.backend.dto.response.ReportJobResponse;
+import com.api.backend.dto.response.StreamingReportResponse;
+import com.api.backend.model.enums.ReportFormat;
+import com.api.backend.model.enums.ReportJobStatus;
+import com.api.backend.model.enums.ReportType;
+import com.api.backend.service.ReportJobService;
+import com.api.backend.service.ReportProgress;
+import com.api.backend.service.ReportService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportJobServiceImpl implements ReportJobService {
+	
+	private final ReportService reportService;
+	private final ReportConfig reportConfig;
+	
+	private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+	private ThreadPoolExecutor executor;
+	private Path directory;
+	
+	@PostConstruct
+	public void init() throws IOException {
+		ReportConfig.Jobs config = reportConfig.getJobs();
+		Path baseDirectory = Files.createDirectories(Paths.get(config.getDirectory()));
+		directory = Files.createTempDirectory(baseDirectory, "jobs-");
+		
+		// Отдельный ограниченный пул: построение отчетов не занимает потоки Tomcat,
+		// а при заполненной очереди новые задачи сразу отклоняются
+		executor = new ThreadPoolExecutor(
+				config.getPoolSize(), config.getPoolSize(),
+				0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(config.getQueueCapacity()),
+				new CustomizableThreadFactory("report-job-"),
+				new ThreadPoolExecutor.AbortPolicy()
+		);
+	}
+	
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+		// Прерванные задачи должны закончить работу с файлами до удаления каталога
+		try {
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		jobs.values().forEach(this::deleteArtifact);
+		jobs.clear();
+		try {
+			Files.deleteIfExists(directory);
+		} catch (IOException e) {
+			log.warn("Не удалось удалить каталог задач {}", directory, e);
+		}
+	}
+	
+	@Override
+	public ReportJobResponse submitJob(ReportJobRequest request) {
+		ReportFormat format = request.getFormat() != null ? request.getFormat() : ReportFormat.DOCX;
+		if (request.getType() == ReportType.ROLE && request.getRole() == null) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Для отчета по роли нужно указать роль");
+		}
+		// Задача сама принимает прогресс построения своего отчета
+		ReportJob job = new ReportJob(UUID.randomUUID().toString());
+		StreamingReportResponse report = switch (request.getType()) {
+			case ALL_USERS -> reportService.streamAllUsersReport(format, job);
+			case ROLE -> reportService.streamRoleReport(request.getRole(), format, job);
+		};
+		job.report = report;
+		
+		jobs.put(job.id, job);
+		try {
+			executor.execute(() -> runJob(job));
+		} catch (RejectedExecutionException e) {
+			jobs.remove(job.id);
+			log.warn("Очередь отчетов переполнена, задача {} отклонена", report.getReportName());
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Очередь отчетов переполнена, повторите позже");
+		}
+		log.info("Задача {} на построение отчета {} поставлена в очередь", job.id, report.getReportName());
+		return job.toResponse();
+	}
+	
+	@Override
+	public ReportJobResponse getJob(String id) {
+		return findJob(id).toResponse();
+	}
+	
+	// Файл открывается и задача защищается от удаления до ответа: тело ответа пишется уже
+	// после отправки заголовков, и удаленный к тому времени файл оборвал бы скачивание
+	@Override
+	public StreamingReportResponse downloadJobResult(String id) {
+		ReportJob job = findJob(id);
+		Path artifact = job.acquireDownload();
+		InputStream inputStream;
+		try {
+			inputStream = Files.newInputStream(artifact);
+		} catch (IOException e) {
+			job.releaseDownload();
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Файл отчета не найден: " + id, e);
+		}
+		return new StreamingReportResponse(job.report.getReportName(), job.report.getFilename(),
+				job.report.getContentType(), outputStream -> {
+					try (inputStream) {
+						inputStream.transferTo(outputStream);
+					} finally {
+						job.releaseDownload();
+					}
+				});
+	}
+	
+	// Готовые и упавшие задачи удаляются вместе с файлами по истечении срока хранения,
+	// задачи с незавершенным скачиванием ждут следующего запуска
+	@Scheduled(fixedDelay = 60000)
+	public void removeExpiredJobs() {
+		Instant now = Instant.now();
+		jobs.values().removeIf(job -> {
+			if (!job.expire(now)) {
+				return false;
+			}
+			deleteArtifact(job);
+			log.info("Задача {} удалена по истечении срока хранения", job.id);
+			return true;
+		});
+	}
+	
+	private void runJob(ReportJob job) {
+		job.start();
+		Path artifact = directory.resolve(job.id + ".tmp");
+		Instant expiresAt;
+		try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(artifact))) {
+			job.report.getWriter().writeTo(outputStream);
+		} catch (IOException | RuntimeException e) {
+			log.error("Ошибка при выполнении задачи {}", job.id, e);
+			deleteFile(artifact);
+			expiresAt = Instant.now().plus(artifactTtl());
+			job.fail(e.getMessage(), expiresAt);
+			return;
+		}
+		expiresAt = Instant.now().plus(artifactTtl());
+		job.complete(artifact, expiresAt);
+		log.info("Задача {} завершена, файл хранится до {}", job.id, expiresAt);
+	}
+	
+	private ReportJob findJob(String id) {
+		ReportJob job = jobs.get(id);
+		if (job == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена: " + id);
+		}
+		return job;
+	}
+	
+	private Duration artifactTtl() {
+		return Duration.ofSeconds(reportConfig.getJobs().getArtifactTtlSeconds());
+	}
+	
+	private void deleteArtifact(ReportJob job) {
+		Path artifact = job.getArtifact();
+		if (artifact != null) {
+			deleteFile(artifact);
+		}
+	}
+	
+	private void deleteFile(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			log.warn("Не удалось удалить файл задачи {}", file, e);
+		}
+	}
+	
+	// Прогресс обновляет только поток, строящий отчет, а читают запросы статуса
+	private static class ReportJob implements ReportProgress {
+		private final String id;
+		private StreamingReportResponse report;
+		private final Instant createdAt = Instant.now();
+		private volatile Long totalRows;
+		private volatile long rowsRendered;
+		private ReportJobStatus status = ReportJobStatus.QUEUED;
+		private Instant startedAt;
+		private Instant finishedAt;
+		private Instant expiresAt;
+		private Path artifact;
+		private String error;
+		private int activeDownloads;
+		private boolean expired;
+		
+		ReportJob(String id) {
+			this.id = id;
+		}
+		
+		@Override
+		public void start(long totalRows) {
+			this.totalRows = totalRows;
+		}
+		
+		@Override
+		public void rowRendered() {
+			rowsRendered++;
+		}
+		
+		synchronized void start() {
+			status = ReportJobStatus.RUNNING;
+			startedAt = Instant.now();
+		}
+		
+		synchronized void complete(Path artifact, Instant expiresAt) {
+			this.artifact = artifact;
+			this.expiresAt = expiresAt;
+			status = ReportJobStatus.COMPLETED;
+			finishedAt = Instant.now();
+		}
+		
+		synchronized void fail(String error, Instant expiresAt) {
+			this.error = error;
+			this.expiresAt = expiresAt;
+			status = ReportJobStatus.FAILED;
+			finishedAt = Instant.now();
+		}
+		
+		synchronized Path getArtifact() {
+			return artifact;
+		}
+		
+		synchronized Path acquireDownload() {
+			if (expired) {
+				throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена: " + id);
+			}
+			if (artifact == null) {
+				throw new ResponseStatusException(HttpStatus.CONFLICT, "Отчет еще не готов, статус: " + status);
+			}
+			activeDownloads++;
+			return artifact;
+		}
+		
+		synchronized void releaseDownload() {
+			activeDownloads--;
+		}
+		
+		// После истечения срока новые скачивания уже не начинаются
+		synchronized boolean expire(Instant now) {
+			if (expiresAt == null || !now.isAfter(expiresAt) || activeDownloads > 0) {
+				return false;
+			}
+			expired = true;
+			return true;
+		}
+		
+		synchronized ReportJobResponse toResponse() {
+			ReportJobResponse response = new ReportJobResponse();
+			response.setId(id);
+			response.setReportName(report.getReportName());
+			response.setStatus(status);
+			response.setTotalRows(totalRows);
+			response.setRowsRendered(rowsRendered);
+			response.setCreatedAt(createdAt);
+			response.setStartedAt(startedAt);
+			response.setFinishedAt(finishedAt);
+			response.setExpiresAt(expiresAt);
+			response.setError(error);
+			return response;
+		}
+	}
+}
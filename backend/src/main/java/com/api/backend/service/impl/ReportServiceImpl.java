@@ -1,40 +1,102 @@
 package com.api.backend.service.impl;
 
+import com.api.backend.cache.ReportCache;
+import com.api.backend.cache.ReportCacheKey;
+import com.api.backend.cache.ReportSpool;
+import com.api.backend.cache.UserDataVersion;
+import com.api.backend.config.ReportConfig;
+import com.api.backend.dto.response.ReportAdmissionStats;
+import com.api.backend.dto.response.ReportCacheStats;
 import com.api.backend.dto.response.ReportResponse;
-import com.api.backend.dto.response.UserResponse;
+import com.api.backend.dto.response.StreamingReportResponse;
+import com.api.backend.exception.ReportOverloadedException;
+import com.api.backend.model.enums.ReportFormat;
+import com.api.backend.model.enums.ReportType;
 import com.api.backend.model.enums.UserRole;
+import com.api.backend.report.CsvTableWriter;
+import com.api.backend.report.DocxTableRenderer;
+import com.api.backend.report.ReportAdmission;
+import com.api.backend.report.ReportColumn;
+import com.api.backend.report.UserReportColumns;
+import com.api.backend.report.UserReportRow;
+import com.api.backend.report.UserReportRowReader;
+import com.api.backend.report.XlsxTableWriter;
+import com.api.backend.service.ReportProgress;
 import com.api.backend.service.ReportService;
-import com.api.backend.service.UserService;
+import com.api.backend.service.ReportWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.xwpf.usermodel.*;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.*;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
 	
-	private final UserService userService;
+	private static final String ALL_USERS_REPORT_NAME = "complete_users_report";
+	private static final String BUNDLE_REPORT_NAME = "reports_bundle";
+	
+	private final UserReportRowReader userReportRowReader;
+	private final ReportCache reportCache;
+	private final UserDataVersion userDataVersion;
+	private final ReportAdmission reportAdmission;
+	private final ReportSpool reportSpool;
+	private final ReportConfig reportConfig;
+	
+	// Отчетов в архиве: полный + по одному на роль
+	private static final int BUNDLE_SIZE = UserRole.values().length + 1;
+	
+	// По потоку на каждый отчет архива, чтобы все они строились одновременно. Память
+	// ограничивает не размер пула, а одно разрешение допуска на весь архив
+	private ExecutorService bundleRenderPool;
+	private Path bundleDirectory;
+	
+	@PostConstruct
+	public void init() throws IOException {
+		ReportConfig.Bundle config = reportConfig.getBundle();
+		Path baseDirectory = Files.createDirectories(Paths.get(config.getDirectory()));
+		bundleDirectory = Files.createTempDirectory(baseDirectory, "bundle-");
+		bundleRenderPool = Executors.newFixedThreadPool(BUNDLE_SIZE,
+				new CustomizableThreadFactory("report-bundle-"));
+	}
 	
 	@Override
 	public ReportResponse generateAllUsersReport() {
 		log.info("Генерация отчета для всех пользователей");
-		List<UserResponse> users = getAllUsersForReport();
-		
-		try (XWPFDocument document = new XWPFDocument()) {
-			// Устанавливаем альбомную ориентацию для общего отчета
-			setLandscapeOrientation(document);
-			createTitle(document, "ПОЛНЫЙ ОТЧЕТ ПО ВСЕМ ПОЛЬЗОВАТЕЛЯМ");
-			createCompleteUsersTable(document, users);
-			
-			return createReportResponse(document, "complete_users_report");
+		try {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			reportCache.write(allUsersCacheKey(ReportFormat.DOCX),
+					out -> writeAllUsersReport(ReportFormat.DOCX, out, ReportProgress.NONE), outputStream);
+			return new ReportResponse(ALL_USERS_REPORT_NAME, outputStream.toByteArray());
 		} catch (IOException e) {
 			log.error("Ошибка при генерации отчета для всех пользователей", e);
 			throw new RuntimeException("Ошибка генерации отчета", e);
@@ -44,26 +106,60 @@ public class ReportServiceImpl implements ReportService {
 	@Override
 	public ReportResponse generateRoleReport(UserRole role) {
 		log.info("Генерация отчета для роли: {}", role);
-		List<UserResponse> users = userService.getUsersByRole(role.toString());
-		
-		String roleName = getRoleNameInRussian(role);
-		
-		try (XWPFDocument document = new XWPFDocument()) {
-			// Для отчетов по ролям тоже можно установить альбомную ориентацию, если много колонок
-			if (role == UserRole.VETERAN) {
-				setLandscapeOrientation(document);
-			}
-			
-			createTitle(document, "ОТЧЕТ: " + roleName.toUpperCase());
-			createRoleSpecificTable(document, users, role);
-			
-			return createReportResponse(document, role.name().toLowerCase() + "_report");
+		try {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			reportCache.write(roleCacheKey(role, ReportFormat.DOCX),
+					out -> writeRoleReport(role, ReportFormat.DOCX, out, ReportProgress.NONE), outputStream);
+			return new ReportResponse(getRoleReportName(role), outputStream.toByteArray());
 		} catch (IOException e) {
 			log.error("Ошибка при генерации отчета для роли: {}", role, e);
 			throw new RuntimeException("Ошибка генерации отчета", e);
 		}
 	}
 	
+	@Override
+	public StreamingReportResponse streamAllUsersReport(ReportFormat format) {
+		return streamAllUsersReport(format, ReportProgress.NONE);
+	}
+	
+	@Override
+	public StreamingReportResponse streamRoleReport(UserRole role, ReportFormat format) {
+		return streamRoleReport(role, format, ReportProgress.NONE);
+	}
+	
+	// Прогресс получают только строящиеся отчеты: для готовых из кэша строки не перебираются
+	@Override
+	public StreamingReportResponse streamAllUsersReport(ReportFormat format, ReportProgress progress) {
+		return createStreamingResponse(ALL_USERS_REPORT_NAME, format, outputStream -> {
+			if (reportSpool.transferTo(ReportType.ALL_USERS, null, format, userDataVersion.current(), outputStream)) {
+				log.info("Отчет для всех пользователей в формате {} отдан из заранее построенных", format);
+				return;
+			}
+			log.info("Потоковая генерация отчета для всех пользователей в формате {}", format);
+			reportCache.write(allUsersCacheKey(format), out -> writeAllUsersReport(format, out, progress), outputStream);
+		});
+	}
+	
+	@Override
+	public StreamingReportResponse streamRoleReport(UserRole role, ReportFormat format, ReportProgress progress) {
+		return createStreamingResponse(getRoleReportName(role), format, outputStream -> {
+			if (reportSpool.transferTo(ReportType.ROLE, role, format, userDataVersion.current(), outputStream)) {
+				log.info("Отчет для роли: {} в формате {} отдан из заранее построенных", role, format);
+				return;
+			}
+			log.info("Потоковая генерация отчета для роли: {} в формате {}", role, format);
+			reportCache.write(roleCacheKey(role, format), out -> writeRoleReport(role, format, out, progress), outputStream);
+		});
+	}
+	
+	@Override
+	public StreamingReportResponse streamReportsBundle(ReportFormat format) {
+		return new StreamingReportResponse(BUNDLE_REPORT_NAME, BUNDLE_REPORT_NAME + ".zip", "application/zip", outputStream -> {
+			log.info("Генерация архива со всеми отчетами в формате {}", format);
+			writeReportsBundle(format, outputStream);
+		});
+	}
+	
 	@Override
 	public ReportResponse generateGuestsReport() {
 		return generateRoleReport(UserRole.GUEST);
@@ -85,8 +181,259 @@ public class ReportServiceImpl implements ReportService {
 	}
 	
 	@Override
-	public List<UserResponse> getAllUsersForReport() {
-		return userService.getAllUsers();
+	public List<UserReportRow> getAllUsersForReport() {
+		return userReportRowReader.findAll();
+	}
+	
+	@Override
+	public ReportCacheStats getCacheStats() {
+		ReportCacheStats stats = reportCache.getStats();
+		stats.setDataVersion(userDataVersion.current());
+		return stats;
+	}
+	
+	@Override
+	public void prerenderReports() {
+		if (!reportSpool.isEnabled()) {
+			return;
+		}
+		for (ReportFormat format : reportSpool.getFormats()) {
+			prerender(allUsersCacheKey(format), out -> writeAllUsersReport(format, out, ReportProgress.NONE));
+			for (UserRole role : UserRole.values()) {
+				prerender(roleCacheKey(role, format), out -> writeRoleReport(role, format, out, ReportProgress.NONE));
+			}
+		}
+	}
+	
+	@Override
+	public ReportAdmissionStats getAdmissionStats() {
+		return reportAdmission.getStats();
+	}
+	
+	@PreDestroy
+	public void destroy() {
+		if (bundleRenderPool != null) {
+			bundleRenderPool.shutdownNow();
+		}
+		if (bundleDirectory != null) {
+			try {
+				Files.deleteIfExists(bundleDirectory);
+			} catch (IOException e) {
+				log.warn("Не удалось удалить каталог архивов {}", bundleDirectory, e);
+			}
+		}
+	}
+	
+	// Версия читается до загрузки данных: отчет не попадет в кэш под версией новее своих данных
+	private ReportCacheKey allUsersCacheKey(ReportFormat format) {
+		return new ReportCacheKey(ReportType.ALL_USERS, null, format, userDataVersion.current());
+	}
+	
+	private ReportCacheKey roleCacheKey(UserRole role, ReportFormat format) {
+		return new ReportCacheKey(ReportType.ROLE, role, format, userDataVersion.current());
+	}
+	
+	// Уже построенный по этой версии отчет пропускается. Если построить не удалось,
+	// старый файл убирается, и отчет строится по запросу как обычно
+	private void prerender(ReportCacheKey key, ReportWriter writer) {
+		if (reportSpool.isCurrent(key)) {
+			return;
+		}
+		Instant snapshotTime = Instant.now();
+		try {
+			reportSpool.publish(key, snapshotTime, writer);
+		} catch (ReportOverloadedException e) {
+			log.warn("Отчет {} не построен заранее: {}", key, e.getMessage());
+			reportSpool.discard(key.type(), key.role(), key.format());
+		} catch (IOException | RuntimeException e) {
+			log.error("Ошибка предварительного построения отчета {}", key, e);
+			reportSpool.discard(key.type(), key.role(), key.format());
+		}
+	}
+	
+	private StreamingReportResponse createStreamingResponse(String reportName, ReportFormat format, ReportWriter writer) {
+		return new StreamingReportResponse(reportName, reportName + "." + format.getExtension(),
+				format.getContentType(), writer);
+	}
+	
+	// Документ пишется сразу в переданный поток, без промежуточного буфера,
+	// а строки берутся из курсора БД по мере построения
+	private void writeAllUsersReport(ReportFormat format, OutputStream outputStream,
+									 ReportProgress progress) throws IOException {
+		long rows = userReportRowReader.countAll();
+		renderAdmitted(format, rows, UserReportColumns.COMPLETE.size(), progress,
+				() -> userReportRowReader.streamAll(users ->
+						renderAllUsersReport(new ProgressIterator(users, progress), format, outputStream)));
+	}
+	
+	// Построение ждет допуска; отчеты из кэша сюда не попадают и не ограничиваются
+	private void renderAdmitted(ReportFormat format, long rows, int columns, ReportProgress progress,
+								Render render) throws IOException {
+		try (ReportAdmission.Permit permit = reportAdmission.acquire(reportAdmission.estimateBytes(format, rows, columns))) {
+			progress.start(rows);
+			render.run();
+		}
+	}
+	
+	private void renderAllUsersReport(Iterator<UserReportRow> users, ReportFormat format,
+									  OutputStream outputStream) throws IOException {
+		switch (format) {
+			case XLSX -> XlsxTableWriter.write(outputStream, "Все пользователи", UserReportColumns.COMPLETE, users);
+			case CSV -> CsvTableWriter.write(outputStream, UserReportColumns.COMPLETE, users);
+			case DOCX -> renderAllUsersDocx(users, outputStream);
+		}
+	}
+	
+	private void renderAllUsersDocx(Iterator<UserReportRow> users, OutputStream outputStream) throws IOException {
+		try (XWPFDocument document = new XWPFDocument()) {
+			// Устанавливаем альбомную ориентацию для общего отчета
+			setLandscapeOrientation(document);
+			createTitle(document, "ПОЛНЫЙ ОТЧЕТ ПО ВСЕМ ПОЛЬЗОВАТЕЛЯМ");
+			createCompleteUsersTable(document, users);
+			
+			document.write(outputStream);
+		}
+	}
+	
+	private void writeRoleReport(UserRole role, ReportFormat format, OutputStream outputStream,
+								 ReportProgress progress) throws IOException {
+		long rows = userReportRowReader.countByRole(role);
+		renderAdmitted(format, rows, UserReportColumns.forRole(role).size(), progress,
+				() -> userReportRowReader.streamByRole(role, users ->
+						renderRoleReport(role, new ProgressIterator(users, progress), format, outputStream)));
+	}
+	
+	private void renderRoleReport(UserRole role, Iterator<UserReportRow> users, ReportFormat format,
+								  OutputStream outputStream) throws IOException {
+		List<ReportColumn<UserReportRow>> columns = UserReportColumns.forRole(role);
+		switch (format) {
+			case XLSX -> XlsxTableWriter.write(outputStream, UserReportColumns.getRoleNameInRussian(role), columns, users);
+			case CSV -> CsvTableWriter.write(outputStream, columns, users);
+			case DOCX -> renderRoleDocx(role, users, outputStream);
+		}
+	}
+	
+	private void renderRoleDocx(UserRole role, Iterator<UserReportRow> users, OutputStream outputStream) throws IOException {
+		String roleName = UserReportColumns.getRoleNameInRussian(role);
+		
+		try (XWPFDocument document = new XWPFDocument()) {
+			// Для отчетов по ролям тоже можно установить альбомную ориентацию, если много колонок
+			if (role == UserRole.VETERAN) {
+				setLandscapeOrientation(document);
+			}
+			
+			createTitle(document, "ОТЧЕТ: " + roleName.toUpperCase());
+			createRoleSpecificTable(document, users, role);
+			
+			document.write(outputStream);
+		}
+	}
+	
+	// Пользователи загружаются один раз, все отчеты строятся параллельно во временные файлы,
+	// поэтому общее время близко ко времени самого долгого отчета, а не к их сумме.
+	// Весь архив занимает одно разрешение допуска, а ответ начинает писаться только после
+	// построения всех отчетов: ошибка любого из них не оставит клиенту битый архив
+	private void writeReportsBundle(ReportFormat format, OutputStream outputStream) throws IOException {
+		long version = userDataVersion.current();
+		List<UserReportRow> users = getAllUsersForReport();
+		
+		Map<UserRole, List<UserReportRow>> usersByRole = new EnumMap<>(UserRole.class);
+		for (UserRole role : UserRole.values()) {
+			usersByRole.put(role, new ArrayList<>());
+		}
+		for (UserReportRow user : users) {
+			usersByRole.get(user.getRole()).add(user);
+		}
+		
+		List<BundleEntry> entries = new ArrayList<>();
+		long estimatedBytes = reportAdmission.estimateBytes(format, users.size(), UserReportColumns.COMPLETE.size());
+		entries.add(new BundleEntry(ALL_USERS_REPORT_NAME + "." + format.getExtension(),
+				new ReportCacheKey(ReportType.ALL_USERS, null, format, version),
+				out -> renderAllUsersReport(users.iterator(), format, out)));
+		for (UserRole role : UserRole.values()) {
+			estimatedBytes += reportAdmission.estimateBytes(format, usersByRole.get(role).size(),
+					UserReportColumns.forRole(role).size());
+			entries.add(new BundleEntry(getRoleReportName(role) + "." + format.getExtension(),
+					new ReportCacheKey(ReportType.ROLE, role, format, version),
+					out -> renderRoleReport(role, usersByRole.get(role).iterator(), format, out)));
+		}
+		
+		List<Path> files = new ArrayList<>();
+		try {
+			try (ReportAdmission.Permit permit = reportAdmission.acquire(estimatedBytes)) {
+				renderAll(entries, files);
+			}
+			
+			try (ZipOutputStream zip = new ZipOutputStream(new NonClosingOutputStream(outputStream))) {
+				// Файлы docx и xlsx уже сжаты, повторное сжатие почти ничего не дает
+				zip.setLevel(format == ReportFormat.CSV ? Deflater.DEFAULT_COMPRESSION : Deflater.BEST_SPEED);
+				for (int i = 0; i < entries.size(); i++) {
+					zip.putNextEntry(new ZipEntry(entries.get(i).filename()));
+					Files.copy(files.get(i), zip);
+					zip.closeEntry();
+				}
+			}
+		} finally {
+			for (Path file : files) {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+	
+	// Построенные файлы добавляются в files по порядку entries; при ошибке остальные построения отменяются
+	private void renderAll(List<BundleEntry> entries, List<Path> files) throws IOException {
+		List<Future<Path>> renders = new ArrayList<>();
+		for (BundleEntry entry : entries) {
+			renders.add(bundleRenderPool.submit(() -> renderToTempFile(entry)));
+		}
+		int done = 0;
+		try {
+			for (; done < renders.size(); done++) {
+				files.add(awaitRender(renders.get(done)));
+			}
+		} finally {
+			for (int i = done; i < renders.size(); i++) {
+				discardRender(renders.get(i));
+			}
+		}
+	}
+	
+	private Path renderToTempFile(BundleEntry entry) throws IOException {
+		Path file = Files.createTempFile(bundleDirectory, "report-", "-" + entry.filename());
+		try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file))) {
+			reportCache.write(entry.cacheKey(), entry.writer(), outputStream);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+		return file;
+	}
+	
+	private Path awaitRender(Future<Path> render) throws IOException {
+		try {
+			return render.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Построение архива отчетов прервано");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new RuntimeException("Ошибка генерации отчета", e.getCause());
+		}
+	}
+	
+	// Недостроенные отчеты отменяются, а уже построенные файлы удаляются
+	private void discardRender(Future<Path> render) {
+		render.cancel(true);
+		if (!render.isDone() || render.isCancelled()) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(render.get());
+		} catch (Exception e) {
+			log.debug("Временный файл отчета не удален", e);
+		}
 	}
 	
 	private void setLandscapeOrientation(XWPFDocument document) {
@@ -116,224 +463,33 @@ public class ReportServiceImpl implements ReportService {
 		titleRun.setFontFamily("Times New Roman");
 	}
 	
-	private void createCompleteUsersTable(XWPFDocument document, List<UserResponse> users) {
-		if (users.isEmpty()) {
+	private void createCompleteUsersTable(XWPFDocument document, Iterator<UserReportRow> users) {
+		if (!users.hasNext()) {
 			createNoDataMessage(document);
 			return;
 		}
 		
 		// Создаем таблицу со всеми колонками
-		XWPFTable table = document.createTable(1, 21);
+		XWPFTable table = document.createTable(1, UserReportColumns.COMPLETE.size());
 		table.setWidth("100%");
 		
 		// Устанавливаем стиль таблицы для альбомной ориентации
 		setupTableStyle(table);
 		
-		// Заголовки для полного отчета
-		String[] headers = {
-				"№", "Фамилия", "Имя", "Отчество", "Роль",
-				"Отряд", "Дата рожд.", "Место события", "Аллергии",
-				"Аллергии дет.", "Предпочт. еда", "Боулинг",
-				"Алкоголь", "Машина", "Слово на сцене", "С кем слово",
-				"С кем сидеть", "Выступление", "С кем номер",
-				"Возрастное огр.", "Валидность"
-		};
-		
-		// Создаем заголовки
-		XWPFTableRow headerRow = table.getRow(0);
-		headerRow.setHeight(400);
-		
-		for (int i = 0; i < headers.length; i++) {
-			XWPFTableCell cell = headerRow.getCell(i);
-			setHeaderCellStyle(cell, headers[i], getCompleteColumnWidth(i));
-		}
-		
-		// Заполняем данными
-		int rowNum = 1;
-		for (UserResponse user : users) {
-			XWPFTableRow row = table.createRow();
-			row.setHeight(350);
-			
-			// Основная информация
-			createDataCell(row, 0, String.valueOf(rowNum++), 400);
-			createDataCell(row, 1, user.getSurname(), 1200);
-			createDataCell(row, 2, user.getName(), 1200);
-			createDataCell(row, 3, getSafeValue(user.getPatronymic()), 1200);
-			createDataCell(row, 4, getRoleNameInRussian(user.getRole()), 800);
-			
-			// Информация по ролям
-			createDataCell(row, 5, getSafeValue(user.getSquadRussianName()), 800);
-			createDataCell(row, 6, getSafeDate(user.getBirthDate()), 900);
-			createDataCell(row, 7, getEventLocationInRussian(user.getEventLocation()), 1500);
-			
-			// Информация о банкете
-			createDataCell(row, 8, getBooleanValue(user.getHasAllergies()), 600);
-			createDataCell(row, 9, getAllergiesDetails(user), 1200);
-			createDataCell(row, 10, getSafeValue(user.getFoodPreferences()), 1200);
-			createDataCell(row, 11, getBooleanValue(user.getWantBowling()), 600);
-			createDataCell(row, 12, getSafeValue(user.getAlcoholPreferences()), 1200);
-			createDataCell(row, 13, getBooleanValue(user.getHasCar()), 600);
-			
-			// Информация о выступлениях
-			createDataCell(row, 14, getBooleanValue(user.getNeedSpeech()), 800);
-			createDataCell(row, 15, getSafeValue(user.getSpeechCompanions()), 1200);
-			createDataCell(row, 16, getSafeValue(user.getTableCompanions()), 1200);
-			createDataCell(row, 17, getBooleanValue(user.getWillPerform()), 800);
-			createDataCell(row, 18, getSafeValue(user.getPerformanceCompanions()), 1200);
-			
-			// Дополнительная информация
-			createDataCell(row, 19, user.getShowAlcoholWarning() ? "ДА" : "нет", 800);
-			createDataCell(row, 20, getBooleanValue(user.getValid()), 600);
-		}
+		DocxTableRenderer.render(table, UserReportColumns.COMPLETE, users, 400, 350);
 	}
 	
-	private void createRoleSpecificTable(XWPFDocument document, List<UserResponse> users, UserRole role) {
-		if (users.isEmpty()) {
+	private void createRoleSpecificTable(XWPFDocument document, Iterator<UserReportRow> users, UserRole role) {
+		if (!users.hasNext()) {
 			createNoDataMessage(document);
 			return;
 		}
 		
-		switch (role) {
-			case GUEST:
-				createGuestsTable(document, users);
-				break;
-			case NOVICE:
-				createNovicesTable(document, users);
-				break;
-			case FIGHTER:
-				createFightersTable(document, users);
-				break;
-			case VETERAN:
-				createVeteransTable(document, users);
-				break;
-		}
-	}
-	
-	private void createGuestsTable(XWPFDocument document, List<UserResponse> users) {
-		XWPFTable table = document.createTable(1, 6);
+		List<ReportColumn<UserReportRow>> columns = UserReportColumns.forRole(role);
+		XWPFTable table = document.createTable(1, columns.size());
 		table.setWidth("100%");
 		
-		String[] headers = {"№", "Фамилия", "Имя", "Отчество", "Отряд", "Слово на сцене"};
-		
-		XWPFTableRow headerRow = table.getRow(0);
-		for (int i = 0; i < headers.length; i++) {
-			setHeaderCellStyle(headerRow.getCell(i), headers[i], getColumnWidth(i));
-		}
-		
-		int rowNum = 1;
-		for (UserResponse user : users) {
-			XWPFTableRow row = table.createRow();
-			createDataCell(row, 0, String.valueOf(rowNum++), 500);
-			createDataCell(row, 1, user.getSurname(), 1500);
-			createDataCell(row, 2, user.getName(), 1500);
-			createDataCell(row, 3, getSafeValue(user.getPatronymic()), 1500);
-			createDataCell(row, 4, getSafeValue(user.getSquadRussianName()), 1000);
-			createDataCell(row, 5, getBooleanValue(user.getNeedSpeech()), 1200);
-		}
-	}
-	
-	private void createNovicesTable(XWPFDocument document, List<UserResponse> users) {
-		XWPFTable table = document.createTable(1, 12);
-		table.setWidth("100%");
-		
-		String[] headers = {
-				"№", "Фамилия", "Имя", "Отчество", "Дата рождения",
-				"Место события", "Аллергии", "Аллергии дет.", "Предпочтения в еде",
-				"Боулинг", "Возрастное огр.", "Валидность"
-		};
-		
-		XWPFTableRow headerRow = table.getRow(0);
-		for (int i = 0; i < headers.length; i++) {
-			setHeaderCellStyle(headerRow.getCell(i), headers[i], getColumnWidth(i));
-		}
-		
-		int rowNum = 1;
-		for (UserResponse user : users) {
-			XWPFTableRow row = table.createRow();
-			createDataCell(row, 0, String.valueOf(rowNum++), 500);
-			createDataCell(row, 1, user.getSurname(), 1200);
-			createDataCell(row, 2, user.getName(), 1200);
-			createDataCell(row, 3, getSafeValue(user.getPatronymic()), 1200);
-			createDataCell(row, 4, getSafeDate(user.getBirthDate()), 1200);
-			createDataCell(row, 5, getEventLocationInRussian(user.getEventLocation()), 1500);
-			createDataCell(row, 6, getBooleanValue(user.getHasAllergies()), 800);
-			createDataCell(row, 7, getAllergiesDetails(user), 1500);
-			createDataCell(row, 8, getSafeValue(user.getFoodPreferences()), 1500);
-			createDataCell(row, 9, getBooleanValue(user.getWantBowling()), 800);
-			createDataCell(row, 10, user.getShowAlcoholWarning() ? "ДА" : "нет", 1000);
-			createDataCell(row, 11, getBooleanValue(user.getValid()), 800);
-		}
-	}
-	
-	private void createFightersTable(XWPFDocument document, List<UserResponse> users) {
-		XWPFTable table = document.createTable(1, 13);
-		table.setWidth("100%");
-		
-		String[] headers = {
-				"№", "Фамилия", "Имя", "Отчество", "Место события",
-				"Аллергии", "Аллергии дет.", "Предпочтения в еде", "Боулинг",
-				"Алкоголь", "Машина", "Валидность"
-		};
-		
-		XWPFTableRow headerRow = table.getRow(0);
-		for (int i = 0; i < headers.length; i++) {
-			setHeaderCellStyle(headerRow.getCell(i), headers[i], getColumnWidth(i));
-		}
-		
-		int rowNum = 1;
-		for (UserResponse user : users) {
-			XWPFTableRow row = table.createRow();
-			createDataCell(row, 0, String.valueOf(rowNum++), 500);
-			createDataCell(row, 1, user.getSurname(), 1200);
-			createDataCell(row, 2, user.getName(), 1200);
-			createDataCell(row, 3, getSafeValue(user.getPatronymic()), 1200);
-			createDataCell(row, 4, getEventLocationInRussian(user.getEventLocation()), 1500);
-			createDataCell(row, 5, getBooleanValue(user.getHasAllergies()), 800);
-			createDataCell(row, 6, getAllergiesDetails(user), 1500);
-			createDataCell(row, 7, getSafeValue(user.getFoodPreferences()), 1500);
-			createDataCell(row, 8, getBooleanValue(user.getWantBowling()), 800);
-			createDataCell(row, 9, getSafeValue(user.getAlcoholPreferences()), 1500);
-			createDataCell(row, 10, getBooleanValue(user.getHasCar()), 800);
-			createDataCell(row, 11, getBooleanValue(user.getValid()), 800);
-		}
-	}
-	
-	private void createVeteransTable(XWPFDocument document, List<UserResponse> users) {
-		XWPFTable table = document.createTable(1, 18);
-		table.setWidth("100%");
-		
-		String[] headers = {
-				"№", "Фамилия", "Имя", "Отчество", "Место события",
-				"Аллергии", "Аллергии дет.", "Предпочтения в еде", "Боулинг", "Алкоголь", "Машина",
-				"Слово на сцене", "С кем слово", "С кем сидеть", "Выступление", "С кем номер", "Валидность"
-		};
-		
-		XWPFTableRow headerRow = table.getRow(0);
-		for (int i = 0; i < headers.length; i++) {
-			setHeaderCellStyle(headerRow.getCell(i), headers[i], getColumnWidth(i));
-		}
-		
-		int rowNum = 1;
-		for (UserResponse user : users) {
-			XWPFTableRow row = table.createRow();
-			createDataCell(row, 0, String.valueOf(rowNum++), 500);
-			createDataCell(row, 1, user.getSurname(), 1200);
-			createDataCell(row, 2, user.getName(), 1200);
-			createDataCell(row, 3, getSafeValue(user.getPatronymic()), 1200);
-			createDataCell(row, 4, getEventLocationInRussian(user.getEventLocation()), 1500);
-			createDataCell(row, 5, getBooleanValue(user.getHasAllergies()), 800);
-			createDataCell(row, 6, getAllergiesDetails(user), 1500);
-			createDataCell(row, 7, getSafeValue(user.getFoodPreferences()), 1500);
-			createDataCell(row, 8, getBooleanValue(user.getWantBowling()), 800);
-			createDataCell(row, 9, getSafeValue(user.getAlcoholPreferences()), 1500);
-			createDataCell(row, 10, getBooleanValue(user.getHasCar()), 800);
-			createDataCell(row, 11, getBooleanValue(user.getNeedSpeech()), 1000);
-			createDataCell(row, 12, getSafeValue(user.getSpeechCompanions()), 1500);
-			createDataCell(row, 13, getSafeValue(user.getTableCompanions()), 1500);
-			createDataCell(row, 14, getBooleanValue(user.getWillPerform()), 1000);
-			createDataCell(row, 15, getSafeValue(user.getPerformanceCompanions()), 1500);
-			createDataCell(row, 16, getBooleanValue(user.getValid()), 800);
-		}
+		DocxTableRenderer.render(table, columns, users, 0, 0);
 	}
 	
 	private void setupTableStyle(XWPFTable table) {
@@ -344,84 +500,6 @@ public class ReportServiceImpl implements ReportService {
 		tblWidth.setW(BigInteger.valueOf(15000));
 	}
 	
-	private void setHeaderCellStyle(XWPFTableCell cell, String text, int width) {
-		cell.setText(text);
-		cell.setColor("D3D3D3"); // Серый фон
-		
-		// Центрируем текст
-		XWPFParagraph paragraph = cell.getParagraphs().get(0);
-		paragraph.setAlignment(ParagraphAlignment.CENTER);
-		
-		// Жирный шрифт
-		XWPFRun run = paragraph.getRuns().get(0);
-		run.setBold(true);
-		run.setFontSize(9);
-		run.setFontFamily("Times New Roman");
-		
-		// Устанавливаем ширину колонки
-		CTTblWidth cellWidth = cell.getCTTc().addNewTcPr().addNewTcW();
-		cellWidth.setW(BigInteger.valueOf(width));
-		cellWidth.setType(STTblWidth.DXA);
-	}
-	
-	private void createDataCell(XWPFTableRow row, int cellIndex, String text, int width) {
-		XWPFTableCell cell = row.getCell(cellIndex);
-		cell.setText(text != null ? text : "-");
-		
-		XWPFParagraph paragraph = cell.getParagraphs().get(0);
-		paragraph.setAlignment(ParagraphAlignment.CENTER);
-		paragraph.setSpacingAfter(0);
-		paragraph.setSpacingBefore(0);
-		
-		XWPFRun run = paragraph.getRuns().get(0);
-		run.setFontSize(8);
-		run.setFontFamily("Times New Roman");
-		
-		// Устанавливаем ширину колонки
-		CTTblWidth cellWidth = cell.getCTTc().addNewTcPr().addNewTcW();
-		cellWidth.setW(BigInteger.valueOf(width));
-		cellWidth.setType(STTblWidth.DXA);
-	}
-	
-	private int getCompleteColumnWidth(int columnIndex) {
-		return switch (columnIndex) {
-			case 0 -> 400;   // №
-			case 1, 2, 3 -> 1200; // ФИО
-			case 4 -> 800;   // Роль
-			case 5 -> 800;   // Отряд
-			case 6 -> 900;   // Дата рождения
-			case 7 -> 1500;  // Место события
-			case 8, 11, 13, 19, 20 -> 600; // Boolean поля
-			case 9, 10, 12, 15, 16, 18 -> 1200; // Текстовые поля
-			case 14, 17 -> 800; // Выступления
-			default -> 1000;
-		};
-	}
-	
-	private int getColumnWidth(int columnIndex) {
-		return switch (columnIndex) {
-			case 0 -> 500;   // №
-			case 1, 2, 3 -> 1200; // ФИО
-			default -> 1200; // Остальные колонки
-		};
-	}
-	
-	// Вспомогательные методы для безопасного получения значений
-	private String getSafeValue(String value) {
-		return value != null ? value : "-";
-	}
-	
-	private String getSafeDate(java.time.LocalDate date) {
-		return date != null ? date.toString() : "-";
-	}
-	
-	private String getAllergiesDetails(UserResponse user) {
-		if (Boolean.TRUE.equals(user.getHasAllergies())) {
-			return user.getAllergies() != null ? user.getAllergies() : "Есть аллергии";
-		}
-		return "Нет";
-	}
-	
 	private void createNoDataMessage(XWPFDocument document) {
 		XWPFParagraph paragraph = document.createParagraph();
 		paragraph.setAlignment(ParagraphAlignment.CENTER);
@@ -433,32 +511,56 @@ public class ReportServiceImpl implements ReportService {
 		run.setFontFamily("Times New Roman");
 	}
 	
-	private String getRoleNameInRussian(UserRole role) {
-		return switch (role) {
-			case GUEST -> "Гость";
-			case NOVICE -> "Новичок";
-			case FIGHTER -> "Боец";
-			case VETERAN -> "Старик";
-		};
+	private String getRoleReportName(UserRole role) {
+		return role.name().toLowerCase() + "_report";
+	}
+	
+	@FunctionalInterface
+	private interface Render {
+		void run() throws IOException;
 	}
 	
-	private String getEventLocationInRussian(com.api.backend.model.enums.EventLocation location) {
-		if (location == null) return "Не указано";
-		return switch (location) {
-			case OFFICIAL_PART -> "Официальная часть";
-			case BANQUET -> "Банкет";
-			case BOTH -> "Официальная часть и банкет";
-		};
+	// Строка считается отрисованной, когда построитель документа забирает ее из курсора
+	private static class ProgressIterator implements Iterator<UserReportRow> {
+		private final Iterator<UserReportRow> users;
+		private final ReportProgress progress;
+		
+		ProgressIterator(Iterator<UserReportRow> users, ReportProgress progress) {
+			this.users = users;
+			this.progress = progress;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return users.hasNext();
+		}
+		
+		@Override
+		public UserReportRow next() {
+			UserReportRow user = users.next();
+			progress.rowRendered();
+			return user;
+		}
 	}
 	
-	private String getBooleanValue(Boolean value) {
-		if (value == null) return "Нет";
-		return value ? "Да" : "Нет";
+	private record BundleEntry(String filename, ReportCacheKey cacheKey, ReportWriter writer) {
 	}
 	
-	private ReportResponse createReportResponse(XWPFDocument document, String reportName) throws IOException {
-		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-		document.write(outputStream);
-		return new ReportResponse(reportName, outputStream.toByteArray());
+	// Поток ответа закрывает контейнер, закрытие архива должно только дописать его конец
+	private static class NonClosingOutputStream extends FilterOutputStream {
+		
+		NonClosingOutputStream(OutputStream out) {
+			super(out);
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+		
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.api.backend.service.impl;
+
+import com.api.backend.cache.UserDataVersion;
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.model.User;
+import com.api.backend.repository.UserRepository;
+import com.api.backend.repository.UserSpecifications;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Удаление пользователей порциями запросами DELETE ... WHERE id IN, без загрузки сущностей.
+// Для событий UserChangedEvent читаются только поля, нужные индексам поиска и статистике
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class UserBulkDeleter {
+	
+	static final int CHUNK_SIZE = 500;
+	// Больше стольких пользователей удаляется в фоне, каждая порция в своей транзакции
+	static final int BACKGROUND_THRESHOLD = 5000;
+	
+	private static final List<String> SNAPSHOT_ATTRIBUTES = List.of("id", "name", "surname", "patronymic", "role",
+			"squad", "birthDate", "eventLocation", "hasAllergies", "wantBowling", "hasCar", "needSpeech", "willPerform");
+	
+	private final UserRepository userRepository;
+	private final UserDataVersion userDataVersion;
+	private final ApplicationEventPublisher eventPublisher;
+	private final PlatformTransactionManager transactionManager;
+	
+	private TransactionTemplate transactionTemplate;
+	private ThreadPoolExecutor executor;
+	
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		// Один поток: фоновые удаления идут друг за другом и не соревнуются за блокировки
+		executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(4),
+				new CustomizableThreadFactory("user-purge-"), new ThreadPoolExecutor.AbortPolicy());
+	}
+	
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
+	
+	// Id из ids, которые есть в базе, по одному запросу IN на порцию
+	List<Long> findExistingIds(List<Long> ids) {
+		List<Long> existing = new ArrayList<>(ids.size());
+		for (List<Long> chunk : chunks(ids)) {
+			existing.addAll(userRepository.findExistingIds(chunk));
+		}
+		return existing;
+	}
+	
+	// Удаляет все порции в текущей транзакции, возвращает удаленных пользователей (только поля для событий)
+	List<User> delete(List<Long> ids) {
+		List<User> deleted = new ArrayList<>(ids.size());
+		for (List<Long> chunk : chunks(ids)) {
+			deleted.addAll(deleteChunk(chunk));
+		}
+		return deleted;
+	}
+	
+	void deleteInBackground(List<Long> ids) {
+		try {
+			executor.execute(() -> purge(ids));
+		} catch (RejectedExecutionException e) {
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+					"Очередь фонового удаления переполнена, повторите позже");
+		}
+		log.info("Фоновое удаление {} пользователей поставлено в очередь", ids.size());
+	}
+	
+	private void purge(List<Long> ids) {
+		long start = System.nanoTime();
+		int deleted = 0;
+		for (List<Long> chunk : chunks(ids)) {
+			if (Thread.currentThread().isInterrupted()) {
+				log.warn("Фоновое удаление прервано, удалено {} из {}", deleted, ids.size());
+				return;
+			}
+			try {
+				deleted += transactionTemplate.execute(status -> deleteChunk(chunk)).size();
+			} catch (RuntimeException e) {
+				log.error("Ошибка фонового удаления порции из {} пользователей", chunk.size(), e);
+			}
+		}
+		log.info("Фоновое удаление завершено: {} пользователей за {} мс",
+				deleted, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+	
+	private List<User> deleteChunk(List<Long> chunk) {
+		List<User> users = userRepository.findFields(UserSpecifications.hasIdIn(chunk), SNAPSHOT_ATTRIBUTES,
+				Sort.unsorted(), null);
+		if (users.isEmpty()) {
+			return users;
+		}
+		userRepository.deleteByIds(users.stream().map(User::getId).toList());
+		userDataVersion.bump();
+		users.forEach(user -> eventPublisher.publishEvent(UserChangedEvent.deleted(user)));
+		return users;
+	}
+	
+	private static List<List<Long>> chunks(List<Long> ids) {
+		List<List<Long>> chunks = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+			chunks.add(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+		}
+		return chunks;
+	}
+}
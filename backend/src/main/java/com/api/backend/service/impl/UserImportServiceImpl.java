@@ -0,0 +1,144 @@
+package com.api.backend.service.impl;
+
+import com.api.backend.dto.request.UserRequest;
+import com.api.backend.dto.response.UserBatchResponse;
+import com.api.backend.dto.response.UserImportResponse;
+import com.api.backend.dto.response.UserRowError;
+import com.api.backend.importing.CsvTableReader;
+import com.api.backend.importing.UserImportColumn;
+import com.api.backend.importing.XlsxTableReader;
+import com.api.backend.service.UserImportService;
+import com.api.backend.service.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Импорт пользователей из csv/xlsx. Файл читается потоково, строки собираются порциями:
+// порция проверяется параллельно на всех ядрах, затем ее правильные строки сохраняются
+// отдельной транзакцией с пакетной вставкой. В памяти одновременно только одна порция
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+	
+	// Не больше, чем принимает UserService.createValidatedUsers за раз
+	private static final int CHUNK_SIZE = 1000;
+	private static final int MAX_REPORTED_ERRORS = 1000;
+	
+	private final UserService userService;
+	
+	@Override
+	public UserImportResponse importUsers(MultipartFile file) {
+		String filename = file.getOriginalFilename() != null
+				? file.getOriginalFilename().toLowerCase(Locale.ROOT)
+				: "";
+		log.info("Импорт пользователей из файла {} ({} байт)", file.getOriginalFilename(), file.getSize());
+		long start = System.nanoTime();
+		
+		Import importRun = new Import();
+		try {
+			if (filename.endsWith(".csv")) {
+				try (InputStream inputStream = file.getInputStream()) {
+					CsvTableReader.read(inputStream, importRun::accept);
+				}
+			} else if (filename.endsWith(".xlsx")) {
+				Path tempFile = Files.createTempFile("user-import-", ".xlsx");
+				try {
+					file.transferTo(tempFile);
+					XlsxTableReader.read(tempFile.toFile(), importRun::accept);
+				} finally {
+					Files.deleteIfExists(tempFile);
+				}
+			} else {
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Поддерживаются только файлы .csv и .xlsx");
+			}
+		} catch (IOException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Не удалось прочитать файл: " + e.getMessage());
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		importRun.flush();
+		
+		log.info("Импорт завершен: строк {}, создано {}, с ошибками {} за {} мс", importRun.totalRows,
+				importRun.imported, importRun.failed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return new UserImportResponse(importRun.totalRows, importRun.imported, importRun.failed, importRun.errors);
+	}
+	
+	private record PendingRow(int rowNumber, UserRequest request, List<String> errors) {
+	}
+	
+	// Состояние одного импорта, строки приходят из читателя файла в потоке запроса
+	private class Import {
+		
+		private List<UserImportColumn> columns;
+		private final List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+		private final List<UserRowError> errors = new ArrayList<>();
+		private int totalRows;
+		private int imported;
+		private int failed;
+		
+		void accept(int rowNumber, List<String> cells) {
+			if (cells.stream().allMatch(String::isBlank)) {
+				return;
+			}
+			// Первая непустая строка - заголовок
+			if (columns == null) {
+				columns = UserImportColumn.fromHeaders(cells);
+				return;
+			}
+			totalRows++;
+			List<String> rowErrors = new ArrayList<>();
+			chunk.add(new PendingRow(rowNumber, UserImportColumn.toRequest(columns, cells, rowErrors), rowErrors));
+			if (chunk.size() == CHUNK_SIZE) {
+				flush();
+			}
+		}
+		
+		void flush() {
+			if (chunk.isEmpty()) {
+				return;
+			}
+			// Проверки не обращаются к БД, поэтому порцию можно проверять параллельно
+			List<List<String>> rowErrors = chunk.parallelStream()
+					.map(row -> row.errors().isEmpty() ? userService.getUserRequestErrors(row.request()) : row.errors())
+					.toList();
+			
+			List<PendingRow> validRows = new ArrayList<>(chunk.size());
+			for (int i = 0; i < chunk.size(); i++) {
+				if (rowErrors.get(i).isEmpty()) {
+					validRows.add(chunk.get(i));
+				} else {
+					reject(chunk.get(i).rowNumber(), rowErrors.get(i));
+				}
+			}
+			chunk.clear();
+			if (validRows.isEmpty()) {
+				return;
+			}
+			
+			// Строки уже проверены выше, повторно createValidatedUsers их не проверяет
+			UserBatchResponse response = userService.createValidatedUsers(
+					validRows.stream().map(PendingRow::request).toList());
+			imported += response.getCreated();
+		}
+		
+		private void reject(int rowNumber, List<String> messages) {
+			failed++;
+			if (errors.size() < MAX_REPORTED_ERRORS) {
+				errors.add(new UserRowError(rowNumber, messages));
+			}
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.api.backend.service.impl;
+
+import com.api.backend.model.User;
+import com.api.backend.model.enums.UserSortOrder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Непрозрачный курсор страницы: ключ сортировки последней выданной строки.
+// Сортировка входит в курсор, чтобы курсор нельзя было применить к другому порядку
+record UserPageCursor(UserSortOrder sort, long id, String surname) {
+	
+	static UserPageCursor after(UserSortOrder sort, User user) {
+		return new UserPageCursor(sort, user.getId(), sort == UserSortOrder.SURNAME ? user.getSurname() : null);
+	}
+	
+	String encode() {
+		String value = sort.getParameter() + ":" + id + (surname != null ? ":" + surname : "");
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	static UserPageCursor decode(String cursor, UserSortOrder sort) {
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = value.split(":", 3);
+			if (UserSortOrder.fromParameter(parts[0]) != sort || parts.length != (sort == UserSortOrder.SURNAME ? 3 : 2)) {
+				throw new IllegalArgumentException("Курсор от другой сортировки");
+			}
+			return new UserPageCursor(sort, Long.parseLong(parts[1]), parts.length == 3 ? parts[2] : null);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный курсор страницы");
+		}
+	}
+}
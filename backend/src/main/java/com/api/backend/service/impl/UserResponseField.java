@@ -0,0 +1,98 @@
+package com.api.backend.service.impl;
+
+import com.api.backend.model.User;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Поля UserResponse для параметра fields=: имя в JSON, колонки сущности, которые нужно
+// прочитать из БД, и вычисление значения. Вычисляемые поля используют те же методы User,
+// что и UserResponse.of, поэтому читают только колонки, от которых зависят
+enum UserResponseField {
+	ID("id", List.of("id"), User::getId),
+	NAME("name", List.of("name"), User::getName),
+	SURNAME("surname", List.of("surname"), User::getSurname),
+	PATRONYMIC("patronymic", List.of("patronymic"), User::getPatronymic),
+	ROLE("role", List.of("role"), User::getRole),
+	SQUAD("squad", List.of("squad"), User::getSquad),
+	SQUAD_RUSSIAN_NAME("squadRussianName", List.of("squad"), User::getSquadRussianName),
+	NEED_SPEECH("needSpeech", List.of("needSpeech"), User::getNeedSpeech),
+	BIRTH_DATE("birthDate", List.of("birthDate"), User::getBirthDate),
+	ALCOHOL_ALLOWED("alcoholAllowed", List.of("birthDate"), User::isAlcoholAllowed),
+	EVENT_LOCATION("eventLocation", List.of("eventLocation"), User::getEventLocation),
+	ATTENDING_BANQUET("attendingBanquet", List.of("eventLocation"), User::isAttendingBanquet),
+	ATTENDING_OFFICIAL_PART("attendingOfficialPart", List.of("eventLocation"), User::isAttendingOfficialPart),
+	HAS_ALLERGIES("hasAllergies", List.of("hasAllergies"), User::getHasAllergies),
+	ALLERGIES("allergies", List.of("allergies"), User::getAllergies),
+	FOOD_PREFERENCES("foodPreferences", List.of("foodPreferences"), User::getFoodPreferences),
+	WANT_BOWLING("wantBowling", List.of("wantBowling"), User::getWantBowling),
+	ALCOHOL_PREFERENCES("alcoholPreferences", List.of("alcoholPreferences"), User::getAlcoholPreferences),
+	HAS_CAR("hasCar", List.of("hasCar"), User::getHasCar),
+	TABLE_COMPANIONS("tableCompanions", List.of("tableCompanions"), User::getTableCompanions),
+	SPEECH_COMPANIONS("speechCompanions", List.of("speechCompanions"), User::getSpeechCompanions),
+	WILL_PERFORM("willPerform", List.of("willPerform"), User::getWillPerform),
+	PERFORMANCE_COMPANIONS("performanceCompanions", List.of("performanceCompanions"), User::getPerformanceCompanions),
+	// Каждая проверка is*Valid сама проверяет роль, поэтому результат совпадает с validateUser
+	VALID("valid", List.of("role", "squad", "birthDate", "eventLocation"),
+			user -> user.isGuestValid() || user.isNoviceValid() || user.isFighterValid() || user.isVeteranValid()),
+	SHOW_ALCOHOL_WARNING("showAlcoholWarning", List.of("role", "eventLocation", "birthDate"),
+			User::shouldShowAlcoholWarning);
+	
+	private final String jsonName;
+	private final List<String> attributes;
+	private final Function<User, Object> value;
+	
+	UserResponseField(String jsonName, List<String> attributes, Function<User, Object> value) {
+		this.jsonName = jsonName;
+		this.attributes = attributes;
+		this.value = value;
+	}
+	
+	// Список имен через запятую; null, если параметр не задан и нужен полный ответ
+	static Set<UserResponseField> parse(String fields) {
+		if (fields == null || fields.isBlank()) {
+			return null;
+		}
+		Set<UserResponseField> result = EnumSet.noneOf(UserResponseField.class);
+		for (String name : fields.split(",")) {
+			String trimmed = name.trim();
+			if (!trimmed.isEmpty()) {
+				result.add(fromJsonName(trimmed));
+			}
+		}
+		if (result.isEmpty()) {
+			throw new IllegalArgumentException("Не указано ни одного поля");
+		}
+		return result;
+	}
+	
+	static Set<String> attributes(Set<UserResponseField> fields) {
+		Set<String> result = new LinkedHashSet<>();
+		for (UserResponseField field : fields) {
+			result.addAll(field.attributes);
+		}
+		return result;
+	}
+	
+	static Map<String, Object> toMap(User user, Set<UserResponseField> fields) {
+		Map<String, Object> result = new LinkedHashMap<>();
+		for (UserResponseField field : fields) {
+			result.put(field.jsonName, field.value.apply(user));
+		}
+		return result;
+	}
+	
+	private static UserResponseField fromJsonName(String jsonName) {
+		for (UserResponseField field : values()) {
+			if (field.jsonName.equals(jsonName)) {
+				return field;
+			}
+		}
+		throw new IllegalArgumentException("Неизвестное поле: " + jsonName);
+	}
+}
@@ -1,18 +1,60 @@
 package com.api.backend.service.impl;
 
+import com.api.backend.cache.UserDataVersion;
 import com.api.backend.dto.request.UserRequest;
+import com.api.backend.dto.response.BulkDeleteResponse;
+import com.api.backend.dto.response.UserBatchResponse;
+import com.api.backend.dto.response.UserFacetResponse;
+import com.api.backend.dto.response.UserPageResponse;
 import com.api.backend.dto.response.UserResponse;
+import com.api.backend.dto.response.UserRowError;
+import com.api.backend.dto.response.UserStatsResponse;
+import com.api.backend.dto.response.UserSuggestion;
+import com.api.backend.dto.response.UserValidationResponse;
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.exception.UserValidationException;
 import com.api.backend.model.User;
+import com.api.backend.model.UserFieldRules;
+import com.api.backend.model.UserFieldViolation;
 import com.api.backend.model.enums.EventLocation;
 import com.api.backend.model.enums.UserRole;
+import com.api.backend.model.enums.UserSortOrder;
+import com.api.backend.readmodel.UserReadModel;
 import com.api.backend.repository.UserRepository;
+import com.api.backend.repository.UserSpecifications;
+import com.api.backend.search.NameNormalizer;
+import com.api.backend.search.UserFacet;
+import com.api.backend.search.UserFacetIndex;
+import com.api.backend.search.UserNameFuzzyIndex;
+import com.api.backend.search.UserNameIndex;
+import com.api.backend.search.UserNameTrie;
 import com.api.backend.service.UserService;
+import com.api.backend.stats.UserStatsCounters;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -21,14 +63,43 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 	
 	private final UserRepository userRepository;
+	private final UserDataVersion userDataVersion;
+	private final UserNameIndex userNameIndex;
+	private final UserNameFuzzyIndex userNameFuzzyIndex;
+	private final UserNameTrie userNameTrie;
+	private final UserFacetIndex userFacetIndex;
+	private final UserStatsCounters userStatsCounters;
+	private final UserReadModel userReadModel;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Validator validator;
+	private final UserBulkDeleter userBulkDeleter;
 	
+	private static final int DEFAULT_PAGE_SIZE = 50;
+	private static final int MAX_PAGE_SIZE = 200;
+	private static final int SEARCH_LOAD_CHUNK_SIZE = 1000;
+	private static final int DEFAULT_SUGGESTION_LIMIT = 10;
+	private static final int MAX_SUGGESTION_LIMIT = 50;
+	private static final int MAX_BATCH_SIZE = 1000;
+	
+	// Списки без параметров постраничной выдачи отдаются из модели чтения, без транзакции и запросов к БД
 	@Override
-	@Transactional(readOnly = true)
-	public List<UserResponse> getAllUsers() {
+	public Collection<UserResponse> getAllUsers() {
 		log.info("Получение всех пользователей");
-		return userRepository.findAll().stream()
-				.map(this::convertToResponse)
-				.collect(Collectors.toList());
+		return userReadModel.getAll();
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public UserPageResponse<?> getUsersPage(Integer limit, String cursor, String sort, String fields) {
+		log.info("Получение страницы пользователей, сортировка: {}", sort);
+		return findPage(null, limit, cursor, sort, fields);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<Map<String, Object>> getAllUserFields(String fields) {
+		log.info("Получение полей {} всех пользователей", fields);
+		return findFields(null, fields);
 	}
 	
 	@Override
@@ -37,7 +108,18 @@ public class UserServiceImpl implements UserService {
 		log.info("Получение пользователя с ID: {}", id);
 		User user = userRepository.findById(id)
 				.orElseThrow(() -> new RuntimeException("Пользователь не найден с ID: " + id));
-		return convertToResponse(user);
+		return UserResponse.of(user);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public Map<String, Object> getUserFieldsById(Long id, String fields) {
+		log.info("Получение полей {} пользователя с ID: {}", fields, id);
+		List<Map<String, Object>> users = findFields(UserSpecifications.hasId(id), fields);
+		if (users.isEmpty()) {
+			throw new RuntimeException("Пользователь не найден с ID: " + id);
+		}
+		return users.get(0);
 	}
 	
 	@Override
@@ -47,19 +129,71 @@ public class UserServiceImpl implements UserService {
 		
 		User user = convertToEntity(userRequest);
 		
-		// Валидация запрещенных полей
-		validateRoleSpecificFields(user);
-		
-		// Валидация пользователя
-		if (!validateUser(user)) {
-			String errors = getUserValidationErrors(user);
-			throw new RuntimeException("Ошибка валидации: " + errors);
-		}
+		// Запрещенные и обязательные поля роли проверяются за один проход
+		checkFieldRules(user);
 		
 		User savedUser = userRepository.save(user);
+		userDataVersion.bump();
+		eventPublisher.publishEvent(UserChangedEvent.created(savedUser));
 		log.info("Пользователь создан с ID: {}", savedUser.getId());
 		
-		return convertToResponse(savedUser);
+		return UserResponse.of(savedUser);
+	}
+	
+	// Сначала проверяются все строки, и только если ошибок нет, все сохраняются одной транзакцией.
+	// Id выдаются из последовательности пачками, поэтому Hibernate отправляет вставки
+	// JDBC-пакетами по hibernate.jdbc.batch_size вместо отдельного запроса на каждую строку
+	@Override
+	@Transactional
+	public UserBatchResponse createUsers(List<UserRequest> userRequests) {
+		checkBatchSize(userRequests);
+		log.info("Массовое создание {} пользователей", userRequests.size());
+		
+		List<User> users = new ArrayList<>(userRequests.size());
+		List<UserRowError> errors = new ArrayList<>();
+		for (int row = 0; row < userRequests.size(); row++) {
+			UserRequest userRequest = userRequests.get(row);
+			List<String> messages = userRequest == null ? List.of("Пустая строка") : getUserRequestErrors(userRequest);
+			if (messages.isEmpty()) {
+				users.add(convertToEntity(userRequest));
+			} else {
+				errors.add(new UserRowError(row, messages));
+			}
+		}
+		if (!errors.isEmpty()) {
+			log.info("Массовое создание отклонено: ошибки в {} строках", errors.size());
+			return new UserBatchResponse(0, List.of(), errors);
+		}
+		return saveUsers(users);
+	}
+	
+	// Для строк, уже проверенных getUserRequestErrors (импорт проверяет их параллельно)
+	@Override
+	@Transactional
+	public UserBatchResponse createValidatedUsers(List<UserRequest> userRequests) {
+		checkBatchSize(userRequests);
+		log.info("Массовое создание {} проверенных пользователей", userRequests.size());
+		return saveUsers(userRequests.stream().map(this::convertToEntity).collect(Collectors.toList()));
+	}
+	
+	private void checkBatchSize(List<UserRequest> userRequests) {
+		if (userRequests == null || userRequests.isEmpty()) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Список пользователей не может быть пустым");
+		}
+		if (userRequests.size() > MAX_BATCH_SIZE) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"За один запрос можно создать не больше " + MAX_BATCH_SIZE + " пользователей");
+		}
+	}
+	
+	private UserBatchResponse saveUsers(List<User> users) {
+		List<User> savedUsers = userRepository.saveAll(users);
+		userDataVersion.bump();
+		savedUsers.forEach(user -> eventPublisher.publishEvent(UserChangedEvent.created(user)));
+		log.info("Создано {} пользователей", savedUsers.size());
+		
+		return new UserBatchResponse(savedUsers.size(),
+				savedUsers.stream().map(UserResponse::of).collect(Collectors.toList()), List.of());
 	}
 	
 	@Override
@@ -69,105 +203,121 @@ public class UserServiceImpl implements UserService {
 		
 		User existingUser = userRepository.findById(id)
 				.orElseThrow(() -> new RuntimeException("Пользователь не найден с ID: " + id));
+		User before = UserChangedEvent.copyOf(existingUser);
 		
 		// Обновляем поля
 		updateEntityFromRequest(existingUser, userRequest);
 		
-		// Валидация запрещенных полей
-		validateRoleSpecificFields(existingUser);
-		
-		// Валидация
-		if (!validateUser(existingUser)) {
-			String errors = getUserValidationErrors(existingUser);
-			throw new RuntimeException("Ошибка валидации: " + errors);
-		}
+		// Запрещенные и обязательные поля роли проверяются за один проход
+		checkFieldRules(existingUser);
 		
 		User updatedUser = userRepository.save(existingUser);
+		userDataVersion.bump();
+		eventPublisher.publishEvent(UserChangedEvent.updated(before, updatedUser));
 		log.info("Пользователь с ID: {} обновлен", id);
 		
-		return convertToResponse(updatedUser);
+		return UserResponse.of(updatedUser);
 	}
 	
 	@Override
 	@Transactional
 	public void deleteUser(Long id) {
 		log.info("Удаление пользователя с ID: {}", id);
-		if (!userRepository.existsById(id)) {
-			throw new RuntimeException("Пользователь не найден с ID: " + id);
-		}
-		userRepository.deleteById(id);
+		// Сущность загружается целиком, чтобы слушатели получили удаленное состояние
+		User user = userRepository.findById(id)
+				.orElseThrow(() -> new RuntimeException("Пользователь не найден с ID: " + id));
+		userRepository.delete(user);
+		userDataVersion.bump();
+		eventPublisher.publishEvent(UserChangedEvent.deleted(user));
 		log.info("Пользователь с ID: {} удален", id);
 	}
 	
 	@Override
-	@Transactional(readOnly = true)
-	public List<UserResponse> getUsersByRole(String role) {
+	public Collection<UserResponse> getUsersByRole(String role) {
 		log.info("Получение пользователей с ролью: {}", role);
-		try {
-			UserRole userRole = UserRole.valueOf(role.toUpperCase());
-			return userRepository.findByRole(userRole).stream()
-					.map(this::convertToResponse)
-					.collect(Collectors.toList());
-		} catch (IllegalArgumentException e) {
-			throw new RuntimeException("Неверная роль: " + role);
-		}
+		return userReadModel.getByRole(parseRole(role));
 	}
 	
 	@Override
 	@Transactional(readOnly = true)
-	public List<UserResponse> getUsersByEventLocation(String eventLocation) {
+	public UserPageResponse<?> getUsersByRolePage(String role, Integer limit, String cursor, String sort, String fields) {
+		log.info("Получение страницы пользователей с ролью: {}", role);
+		return findPage(UserSpecifications.hasRole(parseRole(role)), limit, cursor, sort, fields);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<Map<String, Object>> getUserFieldsByRole(String role, String fields) {
+		log.info("Получение полей {} пользователей с ролью: {}", fields, role);
+		return findFields(UserSpecifications.hasRole(parseRole(role)), fields);
+	}
+	
+	@Override
+	public Collection<UserResponse> getUsersByEventLocation(String eventLocation) {
 		log.info("Получение пользователей с местом события: {}", eventLocation);
-		try {
-			EventLocation location = EventLocation.valueOf(eventLocation.toUpperCase());
-			return userRepository.findByEventLocation(location).stream()
-					.map(this::convertToResponse)
-					.collect(Collectors.toList());
-		} catch (IllegalArgumentException e) {
-			throw new RuntimeException("Неверное место события: " + eventLocation);
-		}
+		return userReadModel.getByEventLocation(parseEventLocation(eventLocation));
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public UserPageResponse<?> getUsersByEventLocationPage(String eventLocation, Integer limit, String cursor, String sort,
+															 String fields) {
+		log.info("Получение страницы пользователей с местом события: {}", eventLocation);
+		return findPage(UserSpecifications.hasEventLocation(parseEventLocation(eventLocation)), limit, cursor, sort,
+				fields);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<Map<String, Object>> getUserFieldsByEventLocation(String eventLocation, String fields) {
+		log.info("Получение полей {} пользователей с местом события: {}", fields, eventLocation);
+		return findFields(UserSpecifications.hasEventLocation(parseEventLocation(eventLocation)), fields);
 	}
 	
 	@Override
 	public boolean validateUser(User user) {
-		return switch (user.getRole()) {
-			case GUEST -> user.isGuestValid();
-			case NOVICE -> user.isNoviceValid();
-			case FIGHTER -> user.isFighterValid();
-			case VETERAN -> user.isVeteranValid();
-		};
+		return UserFieldRules.hasRequiredFields(user);
 	}
 	
 	@Override
 	public String getUserValidationErrors(User user) {
-		StringBuilder errors = new StringBuilder();
-		
-		switch (user.getRole()) {
-			case GUEST:
-				if (user.getSquad() == null) {
-					errors.append("Гость должен указать отряд. ");
-				}
-				break;
-			case NOVICE:
-				if (user.getBirthDate() == null) {
-					errors.append("Новичок должен указать дату рождения. ");
-				}
-				if (user.getEventLocation() == null) {
-					errors.append("Новичок должен указать место события. ");
-				}
-				break;
-			case FIGHTER:
-				if (user.getEventLocation() == null) {
-					errors.append("Боец должен указать место события. ");
-				}
-				break;
-			case VETERAN:
-				if (user.getEventLocation() == null) {
-					errors.append("Старик должен указать место события. ");
-				}
-				break;
+		return UserFieldRules.check(user).stream()
+				.filter(violation -> violation.code() == UserFieldViolation.Code.REQUIRED)
+				.map(violation -> violation.message() + ".")
+				.collect(Collectors.joining(" "));
+	}
+	
+	// Те же проверки, что при создании одного пользователя, но ошибки возвращаются, а не бросаются.
+	// Не обращается к БД и может вызываться из нескольких потоков
+	@Override
+	public List<String> getUserRequestErrors(UserRequest userRequest) {
+		List<String> messages = validator.validate(userRequest).stream()
+				.map(ConstraintViolation::getMessage)
+				.sorted()
+				.collect(Collectors.toList());
+		if (!messages.isEmpty()) {
+			return messages;
 		}
 		
-		return errors.toString().trim();
+		List<UserFieldViolation> violations = UserFieldRules.check(convertToEntity(userRequest));
+		if (violations.isEmpty()) {
+			return List.of();
+		}
+		return violations.stream()
+				.map(UserFieldViolation::message)
+				.collect(Collectors.toList());
+	}
+	
+	// Проверка анкеты без сохранения и без обращения к БД: ограничения полей запроса и правила роли вместе
+	@Override
+	public UserValidationResponse validateUserRequest(UserRequest userRequest) {
+		List<UserFieldViolation> violations = validator.validate(userRequest).stream()
+				.map(violation -> new UserFieldViolation(violation.getPropertyPath().toString(),
+						UserFieldViolation.Code.INVALID, violation.getMessage()))
+				.sorted(Comparator.comparing(UserFieldViolation::field))
+				.collect(Collectors.toCollection(ArrayList::new));
+		violations.addAll(UserFieldRules.check(convertToEntity(userRequest)));
+		return new UserValidationResponse(violations.isEmpty(), violations);
 	}
 	
 	@Override
@@ -176,131 +326,324 @@ public class UserServiceImpl implements UserService {
 		log.info("Поиск пользователей по имени: {}", name);
 		
 		if (name == null || name.trim().isEmpty()) {
-			return getAllUsers();
+			return List.copyOf(getAllUsers());
 		}
 		
-		String searchTerm = name.trim();
-		List<User> users = userRepository.searchByName(searchTerm);
+		return loadInOrder(userNameIndex.search(name), userRepository::findAllById).stream()
+				.map(UserResponse::of)
+				.collect(Collectors.toList());
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<UserResponse> fuzzySearchUsersByName(String name, int maxDistance) {
+		log.info("Нечеткий поиск пользователей по имени: {}, расстояние: {}", name, maxDistance);
+		
+		if (maxDistance < 0 || maxDistance > UserNameFuzzyIndex.MAX_DISTANCE) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"Допустимое число опечаток от 0 до " + UserNameFuzzyIndex.MAX_DISTANCE);
+		}
+		if (name == null || name.trim().isEmpty()) {
+			return List.copyOf(getAllUsers());
+		}
 		
-		return users.stream()
-				.map(this::convertToResponse)
+		return loadInOrder(userNameFuzzyIndex.search(name, maxDistance), userRepository::findAllById).stream()
+				.map(UserResponse::of)
 				.collect(Collectors.toList());
 	}
 	
+	// Отвечает из памяти, без запроса к БД
 	@Override
-	@Transactional
-	public void deleteUsers(List<Long> ids) {
-		log.info("Массовое удаление пользователей с ID: {}", ids);
+	public List<UserSuggestion> autocompleteUsers(String prefix, Integer limit) {
+		int suggestionLimit = limit == null ? DEFAULT_SUGGESTION_LIMIT : limit;
+		if (suggestionLimit < 1 || suggestionLimit > MAX_SUGGESTION_LIMIT) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"Число подсказок должно быть от 1 до " + MAX_SUGGESTION_LIMIT);
+		}
+		return userNameTrie.suggest(prefix, suggestionLimit);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public UserFacetResponse filterUsers(Map<String, List<String>> filters, Integer limit) {
+		log.info("Фасетный фильтр пользователей: {}", filters);
 		
+		Map<UserFacet, Set<String>> facetFilters = new EnumMap<>(UserFacet.class);
+		try {
+			filters.forEach((parameter, rawValues) -> {
+				UserFacet facet = UserFacet.fromParameter(parameter);
+				Set<String> values = facetFilters.computeIfAbsent(facet, key -> new HashSet<>());
+				for (String rawValue : rawValues) {
+					for (String value : rawValue.split(",")) {
+						if (!value.isBlank()) {
+							values.add(facet.normalizeValue(value));
+						}
+					}
+				}
+			});
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		
+		UserFacetIndex.FacetResult result = userFacetIndex.filter(facetFilters, resolvePageSize(limit));
+		List<UserResponse> items = loadInOrder(result.ids(), userRepository::findAllById).stream()
+				.map(UserResponse::of)
+				.collect(Collectors.toList());
+		return new UserFacetResponse(result.total(), items, result.facets());
+	}
+	
+	@Override
+	public UserStatsResponse getUserStats() {
+		return userStatsCounters.snapshot();
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public UserPageResponse<?> searchUsersByNamePage(String name, Integer limit, String cursor, String sort,
+													 String fields) {
+		log.info("Поиск страницы пользователей по имени: {}", name);
+		
+		if (name == null || name.trim().isEmpty()) {
+			return getUsersPage(limit, cursor, sort, fields);
+		}
+		
+		// Страница выбирается в памяти из совпадений триграммного индекса, как в searchUsersByName,
+		// и из БД читаются только ее строки. Порядок по фамилии тоже берется из индекса:
+		// по нормализованной фамилии (без учета регистра, ё = е), а не по сравнению строк в БД
+		UserSortOrder sortOrder = parseSortOrder(sort);
+		List<UserNameIndex.SurnameMatch> matches;
+		if (sortOrder == UserSortOrder.SURNAME) {
+			matches = userNameIndex.searchBySurname(name);
+		} else {
+			// В порядке id фамилия не участвует в сравнении и остается пустой
+			matches = userNameIndex.search(name).stream().sorted()
+					.map(id -> new UserNameIndex.SurnameMatch(id, ""))
+					.toList();
+		}
+		int from = 0;
+		if (cursor != null && !cursor.isBlank()) {
+			UserPageCursor after = UserPageCursor.decode(cursor, sortOrder);
+			UserNameIndex.SurnameMatch key = new UserNameIndex.SurnameMatch(after.id(),
+					NameNormalizer.normalize(after.surname()));
+			int position = Collections.binarySearch(matches, key, UserNameIndex.SurnameMatch.ORDER);
+			from = position >= 0 ? position + 1 : -position - 1;
+		}
+		List<UserNameIndex.SurnameMatch> page = matches.subList(from,
+				Math.min(from + resolvePageSize(limit), matches.size()));
+		boolean hasMore = from + page.size() < matches.size();
+		String nextCursor = null;
+		if (hasMore) {
+			UserNameIndex.SurnameMatch last = page.get(page.size() - 1);
+			nextCursor = new UserPageCursor(sortOrder, last.id(),
+					sortOrder == UserSortOrder.SURNAME ? last.surname() : null).encode();
+		}
+		List<Long> ids = page.stream().map(UserNameIndex.SurnameMatch::id).toList();
+		
+		Set<UserResponseField> selectedFields = parseFields(fields);
+		if (selectedFields == null) {
+			List<UserResponse> items = loadInOrder(ids, userRepository::findAllById).stream()
+					.map(UserResponse::of)
+					.collect(Collectors.toList());
+			return new UserPageResponse<>(items, nextCursor, hasMore);
+		}
+		Set<String> attributes = new LinkedHashSet<>();
+		attributes.add("id");
+		attributes.addAll(UserResponseField.attributes(selectedFields));
+		List<Map<String, Object>> items = loadInOrder(ids,
+				chunk -> userRepository.findFields(UserSpecifications.hasIdIn(chunk), attributes, null, null))
+				.stream()
+				.map(user -> UserResponseField.toMap(user, selectedFields))
+				.collect(Collectors.toList());
+		return new UserPageResponse<>(items, nextCursor, hasMore);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<Map<String, Object>> searchUserFieldsByName(String name, String fields) {
+		log.info("Поиск полей {} пользователей по имени: {}", fields, name);
+		
+		if (name == null || name.trim().isEmpty()) {
+			return getAllUserFields(fields);
+		}
+		Set<UserResponseField> selectedFields = parseFields(fields);
+		if (selectedFields == null) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Не указаны поля");
+		}
+		Set<String> attributes = new LinkedHashSet<>();
+		attributes.add("id");
+		attributes.addAll(UserResponseField.attributes(selectedFields));
+		
+		return loadInOrder(userNameIndex.search(name),
+				chunk -> userRepository.findFields(UserSpecifications.hasIdIn(chunk), attributes, null, null))
+				.stream()
+				.map(user -> UserResponseField.toMap(user, selectedFields))
+				.collect(Collectors.toList());
+	}
+	
+	// Небольшие списки удаляются сразу одной транзакцией: запрос полей для событий по IN заодно
+	// показывает, каких id нет. Большие - в фоне порциями, чтобы не держать долгие блокировки
+	@Override
+	@Transactional
+	public BulkDeleteResponse deleteUsers(List<Long> ids) {
 		if (ids == null || ids.isEmpty()) {
-			throw new RuntimeException("Список ID для удаления не может быть пустым");
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Список ID для удаления не может быть пустым");
 		}
+		List<Long> requestedIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+		log.info("Массовое удаление {} пользователей", requestedIds.size());
 		
-		for (Long id : ids) {
-			if (!userRepository.existsById(id)) {
-				throw new RuntimeException("Пользователь не найден с ID: " + id);
+		List<Long> idsToDelete = requestedIds;
+		if (requestedIds.size() > UserBulkDeleter.BACKGROUND_THRESHOLD) {
+			idsToDelete = userBulkDeleter.findExistingIds(requestedIds);
+			if (idsToDelete.size() > UserBulkDeleter.BACKGROUND_THRESHOLD) {
+				userBulkDeleter.deleteInBackground(idsToDelete);
+				return new BulkDeleteResponse(0, idsToDelete.size(), missingIds(requestedIds, idsToDelete));
 			}
 		}
 		
-		userRepository.deleteAllById(ids);
-		log.info("Удалено {} пользователей", ids.size());
+		List<Long> deletedIds = userBulkDeleter.delete(idsToDelete).stream().map(User::getId).toList();
+		log.info("Удалено {} пользователей", deletedIds.size());
+		return new BulkDeleteResponse(deletedIds.size(), 0, missingIds(requestedIds, deletedIds));
 	}
 	
-	// НОВЫЙ МЕТОД: Валидация запрещенных полей для ролей
-	private void validateRoleSpecificFields(User user) {
-		switch (user.getRole()) {
-			case GUEST:
-				if (user.getBirthDate() != null) {
-					throw new RuntimeException("Гость не может иметь дату рождения");
-				}
-				if (user.getEventLocation() != null) {
-					throw new RuntimeException("Гость не может указывать место события");
-				}
-				if (user.getHasAllergies() != null) {
-					throw new RuntimeException("Гость не может указывать информацию об аллергии");
-				}
-				if (user.getAllergies() != null) {
-					throw new RuntimeException("Гость не может указывать аллергии");
-				}
-				if (user.getFoodPreferences() != null) {
-					throw new RuntimeException("Гость не может указывать предпочтения в еде");
-				}
-				if (user.getWantBowling() != null) {
-					throw new RuntimeException("Гость не может указывать предпочтения по боулингу");
-				}
-				if (user.getAlcoholPreferences() != null) {
-					throw new RuntimeException("Гость не может указывать предпочтения по алкоголю");
-				}
-				if (user.getHasCar() != null) {
-					throw new RuntimeException("Гость не может указывать наличие машины");
-				}
-				if (user.getTableCompanions() != null) {
-					throw new RuntimeException("Гость не может указывать с кем сидеть");
-				}
-				if (user.getSpeechCompanions() != null) {
-					throw new RuntimeException("Гость не может указывать с кем слово на сцене");
-				}
-				if (user.getWillPerform() != null) {
-					throw new RuntimeException("Гость не может указывать будет ли выступать");
-				}
-				if (user.getPerformanceCompanions() != null) {
-					throw new RuntimeException("Гость не может указывать с кем номер");
-				}
-				break;
-			
-			case NOVICE:
-				if (user.getSquad() != null) {
-					throw new RuntimeException("Новичок не может иметь отряд");
-				}
-				if (user.getAlcoholPreferences() != null) {
-					throw new RuntimeException("Новичок не может указывать предпочтения по алкоголю");
-				}
-				if (user.getHasCar() != null) {
-					throw new RuntimeException("Новичок не может указывать наличие машины");
-				}
-				if (user.getTableCompanions() != null) {
-					throw new RuntimeException("Новичок не может указывать с кем сидеть");
-				}
-				if (user.getSpeechCompanions() != null) {
-					throw new RuntimeException("Новичок не может указывать с кем слово на сцене");
-				}
-				if (user.getWillPerform() != null) {
-					throw new RuntimeException("Новичок не может указывать будет ли выступать");
-				}
-				if (user.getPerformanceCompanions() != null) {
-					throw new RuntimeException("Новичок не может указывать с кем номер");
-				}
-				break;
-			
-			case FIGHTER:
-				if (user.getSquad() != null) {
-					throw new RuntimeException("Боец не может иметь отряд");
-				}
-				if (user.getBirthDate() != null) {
-					throw new RuntimeException("Боец не может иметь дату рождения");
-				}
-				if (user.getTableCompanions() != null) {
-					throw new RuntimeException("Боец не может указывать с кем сидеть");
-				}
-				if (user.getSpeechCompanions() != null) {
-					throw new RuntimeException("Боец не может указывать с кем слово на сцене");
-				}
-				if (user.getWillPerform() != null) {
-					throw new RuntimeException("Боец не может указывать будет ли выступать");
-				}
-				if (user.getPerformanceCompanions() != null) {
-					throw new RuntimeException("Боец не может указывать с кем номер");
-				}
-				break;
-			
-			case VETERAN:
-				if (user.getSquad() != null) {
-					throw new RuntimeException("Старик не может иметь отряд");
-				}
-				if (user.getBirthDate() != null) {
-					throw new RuntimeException("Старик не может иметь дату рождения");
-				}
-				break;
+	private static List<Long> missingIds(List<Long> requestedIds, List<Long> foundIds) {
+		Set<Long> found = new HashSet<>(foundIds);
+		return requestedIds.stream().filter(id -> !found.contains(id)).toList();
+	}
+	
+	// Keyset-пагинация: вместо OFFSET условие "после ключа последней строки", поэтому
+	// любая страница читает по индексу только limit + 1 строк независимо от ее номера
+	private UserPageResponse<?> findPage(Specification<User> filter, Integer limit, String cursor, String sort,
+										 String fields) {
+		int pageSize = resolvePageSize(limit);
+		UserSortOrder sortOrder = parseSortOrder(sort);
+		Set<UserResponseField> selectedFields = parseFields(fields);
+		
+		List<Specification<User>> conditions = new ArrayList<>();
+		if (filter != null) {
+			conditions.add(filter);
+		}
+		if (cursor != null && !cursor.isBlank()) {
+			UserPageCursor after = UserPageCursor.decode(cursor, sortOrder);
+			conditions.add(sortOrder == UserSortOrder.SURNAME
+					? UserSpecifications.surnameAndIdAfter(after.surname(), after.id())
+					: UserSpecifications.idAfter(after.id()));
+		}
+		Specification<User> specification = Specification.allOf(conditions);
+		Sort pageSort = sortOrder == UserSortOrder.SURNAME ? Sort.by("surname", "id") : Sort.by("id");
+		
+		// Лишняя строка показывает, есть ли следующая страница, без отдельного COUNT
+		List<User> users;
+		if (selectedFields == null) {
+			users = userRepository.findBy(specification, query -> query.sortBy(pageSort).limit(pageSize + 1).all());
+		} else {
+			// Ключ сортировки нужен для курсора, даже если его нет среди запрошенных полей
+			Set<String> attributes = new LinkedHashSet<>();
+			attributes.add("id");
+			if (sortOrder == UserSortOrder.SURNAME) {
+				attributes.add("surname");
+			}
+			attributes.addAll(UserResponseField.attributes(selectedFields));
+			users = userRepository.findFields(specification, attributes, pageSort, pageSize + 1);
+		}
+		boolean hasMore = users.size() > pageSize;
+		if (hasMore) {
+			users = users.subList(0, pageSize);
+		}
+		
+		String nextCursor = hasMore ? UserPageCursor.after(sortOrder, users.get(users.size() - 1)).encode() : null;
+		if (selectedFields == null) {
+			List<UserResponse> items = users.stream()
+					.map(UserResponse::of)
+					.collect(Collectors.toList());
+			return new UserPageResponse<>(items, nextCursor, hasMore);
+		}
+		List<Map<String, Object>> items = users.stream()
+				.map(user -> UserResponseField.toMap(user, selectedFields))
+				.collect(Collectors.toList());
+		return new UserPageResponse<>(items, nextCursor, hasMore);
+	}
+	
+	// Выборка только колонок, нужных запрошенным полям, в порядке id
+	private List<Map<String, Object>> findFields(Specification<User> filter, String fields) {
+		Set<UserResponseField> selectedFields = parseFields(fields);
+		if (selectedFields == null) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Не указаны поля");
+		}
+		return userRepository.findFields(filter, UserResponseField.attributes(selectedFields), Sort.by("id"), null)
+				.stream()
+				.map(user -> UserResponseField.toMap(user, selectedFields))
+				.collect(Collectors.toList());
+	}
+	
+	// Загружает пользователей по id из поискового индекса порциями и возвращает в порядке ids
+	private static List<User> loadInOrder(List<Long> ids, Function<List<Long>, List<User>> loader) {
+		Map<Long, User> loaded = new HashMap<>(ids.size() * 2);
+		for (int from = 0; from < ids.size(); from += SEARCH_LOAD_CHUNK_SIZE) {
+			List<Long> chunk = ids.subList(from, Math.min(from + SEARCH_LOAD_CHUNK_SIZE, ids.size()));
+			for (User user : loader.apply(chunk)) {
+				loaded.put(user.getId(), user);
+			}
+		}
+		List<User> result = new ArrayList<>(loaded.size());
+		for (Long id : ids) {
+			User user = loaded.get(id);
+			// Пользователь мог быть удален между поиском и загрузкой
+			if (user != null) {
+				result.add(user);
+			}
+		}
+		return result;
+	}
+	
+	private static Set<UserResponseField> parseFields(String fields) {
+		try {
+			return UserResponseField.parse(fields);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+	}
+	
+	private static int resolvePageSize(Integer limit) {
+		if (limit == null) {
+			return DEFAULT_PAGE_SIZE;
+		}
+		if (limit < 1) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Размер страницы должен быть больше нуля");
+		}
+		return Math.min(limit, MAX_PAGE_SIZE);
+	}
+	
+	private static UserSortOrder parseSortOrder(String sort) {
+		if (sort == null || sort.isBlank()) {
+			return UserSortOrder.ID;
+		}
+		try {
+			return UserSortOrder.fromParameter(sort.trim());
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверная сортировка: " + sort);
+		}
+	}
+	
+	private static UserRole parseRole(String role) {
+		try {
+			return UserRole.valueOf(role.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new RuntimeException("Неверная роль: " + role);
+		}
+	}
+	
+	private static EventLocation parseEventLocation(String eventLocation) {
+		try {
+			return EventLocation.valueOf(eventLocation.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new RuntimeException("Неверное место события: " + eventLocation);
+		}
+	}
+	
+	private void checkFieldRules(User user) {
+		List<UserFieldViolation> violations = UserFieldRules.check(user);
+		if (!violations.isEmpty()) {
+			throw new UserValidationException(violations);
 		}
 	}
 	
@@ -350,35 +693,4 @@ public class UserServiceImpl implements UserService {
 		if (request.getWillPerform() != null) user.setWillPerform(request.getWillPerform());
 		if (request.getPerformanceCompanions() != null) user.setPerformanceCompanions(request.getPerformanceCompanions());
 	}
-	
-	private UserResponse convertToResponse(User user) {
-		UserResponse response = new UserResponse();
-		response.setId(user.getId());
-		response.setName(user.getName());
-		response.setSurname(user.getSurname());
-		response.setPatronymic(user.getPatronymic());
-		response.setRole(user.getRole());
-		response.setSquad(user.getSquad());
-		response.setSquadRussianName(user.getSquadRussianName());
-		response.setNeedSpeech(user.getNeedSpeech());
-		response.setBirthDate(user.getBirthDate());
-		response.setAlcoholAllowed(user.isAlcoholAllowed());
-		response.setEventLocation(user.getEventLocation());
-		response.setAttendingBanquet(user.isAttendingBanquet());
-		response.setAttendingOfficialPart(user.isAttendingOfficialPart());
-		response.setHasAllergies(user.getHasAllergies());
-		response.setAllergies(user.getAllergies());
-		response.setFoodPreferences(user.getFoodPreferences());
-		response.setWantBowling(user.getWantBowling());
-		response.setAlcoholPreferences(user.getAlcoholPreferences());
-		response.setHasCar(user.getHasCar());
-		response.setTableCompanions(user.getTableCompanions());
-		response.setSpeechCompanions(user.getSpeechCompanions());
-		response.setWillPerform(user.getWillPerform());
-		response.setPerformanceCompanions(user.getPerformanceCompanions());
-		response.setValid(validateUser(user));
-		response.setShowAlcoholWarning(user.shouldShowAlcoholWarning());
-		
-		return response;
-	}
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.api.backend.stats;
+
+import com.api.backend.dto.response.UserStatsResponse;
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Сводная статистика по пользователям без запросов к БД. Счетчики строятся одним GROUP BY при старте
+// и затем меняются на каждую запись: вычитается старое состояние пользователя и добавляется новое.
+// Несовершеннолетие зависит от текущей даты, поэтому раз в сутки счетчики строятся заново.
+// Записи, пришедшие во время перестроения, повторяются на новых счетчиках перед подменой
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserStatsCounters {
+	
+	private final UserRepository userRepository;
+	
+	// При перестроении подменяется целиком
+	private volatile Counters counters = new Counters();
+	// События, пришедшие во время перестроения: применяются к новым счетчикам перед подменой,
+	// иначе изменения между запросом и подменой потерялись бы до следующего перестроения.
+	// Событие, закоммиченное до начала запроса, но доставленное после начала перестроения,
+	// учитывается дважды: окно - время между коммитом и вызовом слушателя в том же потоке
+	private Queue<UserChangedEvent> pendingEvents;
+	// Записи идут под общей блокировкой чтения и друг друга не ждут, счетчики LongAdder.
+	// Исключительная блокировка берется только перестроением: при начале записи событий
+	// и при повторе событий с подменой счетчиков
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Object rebuildLock = new Object();
+	
+	@PostConstruct
+	@Scheduled(cron = "${app.users.stats.rebuild-cron:0 5 0 * * *}")
+	public void rebuild() {
+		synchronized (rebuildLock) {
+			long start = System.nanoTime();
+			Queue<UserChangedEvent> pending = new ConcurrentLinkedQueue<>();
+			lock.writeLock().lock();
+			try {
+				pendingEvents = pending;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			try {
+				List<UserStatsRow> rows = userRepository.countStatsRows(LocalDate.now().minusYears(18));
+				Counters rebuilt = new Counters();
+				for (UserStatsRow row : rows) {
+					rebuilt.add(row, row.count());
+				}
+				lock.writeLock().lock();
+				try {
+					pending.forEach(rebuilt::apply);
+					counters = rebuilt;
+				} finally {
+					lock.writeLock().unlock();
+				}
+				log.info("Статистика пользователей построена: {} групп, {} пользователей за {} мс",
+						rows.size(), rebuilt.total.sum(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			} finally {
+				lock.writeLock().lock();
+				try {
+					pendingEvents = null;
+				} finally {
+					lock.writeLock().unlock();
+				}
+			}
+		}
+	}
+	
+	// Без транзакции (fallbackExecution) событие применяется сразу
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		lock.readLock().lock();
+		try {
+			counters.apply(event);
+			Queue<UserChangedEvent> pending = pendingEvents;
+			if (pending != null) {
+				pending.add(event);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	public UserStatsResponse snapshot() {
+		return counters.toResponse();
+	}
+	
+	private static final class Counters {
+		
+		private final LongAdder total = new LongAdder();
+		private final Map<UserRole, LongAdder> byRole = adders(UserRole.class);
+		private final Map<Squad, LongAdder> bySquad = adders(Squad.class);
+		private final Map<EventLocation, LongAdder> byEventLocation = adders(EventLocation.class);
+		private final LongAdder attendingBanquet = new LongAdder();
+		private final LongAdder attendingOfficialPart = new LongAdder();
+		private final LongAdder withAllergies = new LongAdder();
+		private final LongAdder wantBowling = new LongAdder();
+		private final LongAdder withCar = new LongAdder();
+		private final LongAdder speakers = new LongAdder();
+		private final LongAdder performers = new LongAdder();
+		private final LongAdder minorsAtBanquet = new LongAdder();
+		
+		void apply(UserChangedEvent event) {
+			if (event.before() != null) {
+				add(UserStatsRow.of(event.before()), -1);
+			}
+			if (event.after() != null) {
+				add(UserStatsRow.of(event.after()), 1);
+			}
+		}
+		
+		// Условия те же, что в User.isAttendingBanquet и User.isAttendingOfficialPart
+		void add(UserStatsRow row, long delta) {
+			total.add(delta);
+			add(byRole, row.role(), delta);
+			add(bySquad, row.squad(), delta);
+			add(byEventLocation, row.eventLocation(), delta);
+			EventLocation location = row.eventLocation();
+			if (location == EventLocation.BANQUET || location == EventLocation.BOTH) {
+				attendingBanquet.add(delta);
+			}
+			if (location == EventLocation.OFFICIAL_PART || location == EventLocation.BOTH) {
+				attendingOfficialPart.add(delta);
+			}
+			add(withAllergies, row.hasAllergies(), delta);
+			add(wantBowling, row.wantBowling(), delta);
+			add(withCar, row.hasCar(), delta);
+			add(speakers, row.needSpeech(), delta);
+			add(performers, row.willPerform(), delta);
+			if (row.alcoholWarning()) {
+				minorsAtBanquet.add(delta);
+			}
+		}
+		
+		UserStatsResponse toResponse() {
+			return new UserStatsResponse(total.sum(), sums(UserRole.class, byRole), sums(Squad.class, bySquad),
+					sums(EventLocation.class, byEventLocation), attendingBanquet.sum(), attendingOfficialPart.sum(),
+					withAllergies.sum(), wantBowling.sum(), withCar.sum(), speakers.sum(), performers.sum(),
+					minorsAtBanquet.sum());
+		}
+		
+		private static <E extends Enum<E>> void add(Map<E, LongAdder> adders, E key, long delta) {
+			if (key != null) {
+				adders.get(key).add(delta);
+			}
+		}
+		
+		private static void add(LongAdder adder, Boolean flag, long delta) {
+			if (Boolean.TRUE.equals(flag)) {
+				adder.add(delta);
+			}
+		}
+		
+		// Карты заполняются один раз при создании и дальше только читаются
+		private static <E extends Enum<E>> Map<E, LongAdder> adders(Class<E> type) {
+			Map<E, LongAdder> adders = new EnumMap<>(type);
+			for (E key : type.getEnumConstants()) {
+				adders.put(key, new LongAdder());
+			}
+			return adders;
+		}
+		
+		private static <E extends Enum<E>> Map<E, Long> sums(Class<E> type, Map<E, LongAdder> adders) {
+			Map<E, Long> sums = new EnumMap<>(type);
+			adders.forEach((key, adder) -> sums.put(key, adder.sum()));
+			return sums;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.api.backend.stats;
+
+import com.api.backend.model.User;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+
+// Сочетание полей, по которым ведутся счетчики, и число пользователей с таким сочетанием
+public record UserStatsRow(UserRole role, Squad squad, EventLocation eventLocation, Boolean hasAllergies,
+						   Boolean wantBowling, Boolean hasCar, Boolean needSpeech, Boolean willPerform,
+						   boolean alcoholWarning, long count) {
+	
+	public static UserStatsRow of(User user) {
+		return new UserStatsRow(user.getRole(), user.getSquad(), user.getEventLocation(), user.getHasAllergies(),
+				user.getWantBowling(), user.getHasCar(), user.getNeedSpeech(), user.getWillPerform(),
+				user.shouldShowAlcoholWarning(), 1);
+	}
+}
@@ -0,0 +1,64 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.dto.response.UserSuggestion;
+import com.api.backend.search.UserNameRow;
+import com.api.backend.search.UserNameTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Подсказки UserNameTrie: первые 10 пользователей по началу фамилии длины prefixLength.
+// Начала берутся по кругу из фамилий в данных; аллокации на запрос смотреть с -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutocompleteBenchmark {
+	
+	private static final int QUERIES = 256;
+	private static final int LIMIT = 10;
+	
+	@Param({"10000", "100000"})
+	private int users;
+	
+	@Param({"1", "2", "4"})
+	private int prefixLength;
+	
+	private UserNameTrie trie;
+	private String[] prefixes;
+	private int next;
+	
+	@Setup
+	public void setUp() {
+		List<UserNameRow> rows = BenchmarkData.syllableNames(users);
+		trie = new UserNameTrie(null);
+		trie.rebuild(rows);
+		
+		Random random = new Random(7);
+		prefixes = new String[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			prefixes[i] = rows.get(random.nextInt(rows.size())).surname().substring(0, prefixLength);
+		}
+	}
+	
+	@Benchmark
+	public List<UserSuggestion> suggest() {
+		String prefix = prefixes[next];
+		next = (next + 1) % QUERIES;
+		return trie.suggest(prefix, LIMIT);
+	}
+}
@@ -0,0 +1,135 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.dto.request.UserRequest;
+import com.api.backend.model.User;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.report.UserReportRow;
+import com.api.backend.search.UserNameRow;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Синтетические данные для бенчмарков, одинаковые от запуска к запуску
+public final class BenchmarkData {
+	
+	private static final String[] SURNAMES = {
+			"Иванов", "Петров", "Сидоров", "Смирнов", "Кузнецов", "Попов", "Васильев", "Соколов",
+			"Михайлов", "Новиков", "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семёнов"
+	};
+	private static final String[] NAMES = {
+			"Александр", "Алексей", "Анна", "Мария", "Дмитрий", "Елена", "Иван", "Ольга",
+			"Сергей", "Татьяна", "Андрей", "Наталья", "Павел", "Юлия", "Артём", "Алёна"
+	};
+	private static final String[] PATRONYMICS = {
+			"Александрович", "Сергеевна", "Иванович", "Петровна", "Дмитриевич", "Андреевна", null
+	};
+	
+	private static final String[] SYLLABLES = {
+			"ба", "ве", "го", "да", "же", "за", "ки", "ла", "ми", "но", "пе", "ро", "са", "ту", "фе",
+			"ха", "це", "ча", "ша", "ко", "ло", "ре", "ли", "мо", "ны", "ст", "кр", "бр", "гл", "вл"
+	};
+	private static final String[] SURNAME_ENDINGS = {"ов", "ев", "ин", "ский", "енко", "ук"};
+	
+	private BenchmarkData() {
+	}
+	
+	public static List<User> users(int count) {
+		Random random = new Random(42);
+		List<User> users = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			UserRole role = UserRole.values()[random.nextInt(UserRole.values().length)];
+			EventLocation location = role == UserRole.GUEST
+					? null
+					: EventLocation.values()[random.nextInt(EventLocation.values().length)];
+			
+			User user = new User();
+			user.setSurname(SURNAMES[random.nextInt(SURNAMES.length)] + i);
+			user.setName(NAMES[random.nextInt(NAMES.length)]);
+			user.setPatronymic(PATRONYMICS[random.nextInt(PATRONYMICS.length)]);
+			user.setRole(role);
+			user.setEventLocation(location);
+			switch (role) {
+				case GUEST -> {
+					Squad squad = Squad.values()[random.nextInt(Squad.values().length)];
+					user.setSquad(squad);
+					user.setNeedSpeech(random.nextBoolean());
+				}
+				case NOVICE -> {
+					user.setBirthDate(LocalDate.of(1995 + random.nextInt(15), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+					user.setHasAllergies(random.nextBoolean());
+					user.setAllergies(Boolean.TRUE.equals(user.getHasAllergies()) ? "Орехи" : null);
+					user.setFoodPreferences("Без ограничений");
+					user.setWantBowling(random.nextBoolean());
+				}
+				case FIGHTER, VETERAN -> {
+					user.setHasAllergies(random.nextBoolean());
+					user.setFoodPreferences("Вегетарианское");
+					user.setWantBowling(random.nextBoolean());
+					user.setAlcoholPreferences("Вино");
+					user.setHasCar(random.nextBoolean());
+					if (role == UserRole.VETERAN) {
+						user.setNeedSpeech(random.nextBoolean());
+						user.setSpeechCompanions("Отряд");
+						user.setTableCompanions("Друзья по отряду");
+						user.setWillPerform(random.nextBoolean());
+						user.setPerformanceCompanions("Группа");
+					}
+				}
+			}
+			users.add(user);
+		}
+		return users;
+	}
+	
+	// Те же пользователи в виде запросов на создание
+	public static List<UserRequest> userRequests(int count) {
+		List<UserRequest> requests = new ArrayList<>(count);
+		for (User user : users(count)) {
+			UserRequest request = new UserRequest();
+			BeanUtils.copyProperties(user, request);
+			requests.add(request);
+		}
+		return requests;
+	}
+	
+	// Те же пользователи в виде строк отчета, как их вернул бы запрос-проекция
+	public static List<UserReportRow> reportRows(int count) {
+		List<UserReportRow> rows = new ArrayList<>(count);
+		for (User user : users(count)) {
+			rows.add(toReportRow(user));
+		}
+		return rows;
+	}
+	
+	// Имена с правдоподобными различными фамилиями из слогов, без числовых суффиксов users(),
+	// чтобы число различных слов росло вместе с числом пользователей, как в реальных данных
+	public static List<UserNameRow> syllableNames(int count) {
+		Random random = new Random(42);
+		List<UserNameRow> rows = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			StringBuilder surname = new StringBuilder();
+			int syllables = 2 + random.nextInt(2);
+			for (int j = 0; j < syllables; j++) {
+				surname.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+			}
+			surname.append(SURNAME_ENDINGS[random.nextInt(SURNAME_ENDINGS.length)]);
+			surname.setCharAt(0, Character.toUpperCase(surname.charAt(0)));
+			rows.add(new UserNameRow((long) i + 1, NAMES[random.nextInt(NAMES.length)], surname.toString(),
+					PATRONYMICS[random.nextInt(PATRONYMICS.length)]));
+		}
+		return rows;
+	}
+	
+	private static UserReportRow toReportRow(User user) {
+		return new UserReportRow(user.getSurname(), user.getName(), user.getPatronymic(), user.getRole(),
+				user.getSquad(), user.getBirthDate(), user.getEventLocation(), user.getHasAllergies(),
+				user.getAllergies(), user.getFoodPreferences(), user.getWantBowling(), user.getAlcoholPreferences(),
+				user.getHasCar(), user.getNeedSpeech(), user.getSpeechCompanions(), user.getTableCompanions(),
+				user.getWillPerform(), user.getPerformanceCompanions(), user.shouldShowAlcoholWarning());
+	}
+}
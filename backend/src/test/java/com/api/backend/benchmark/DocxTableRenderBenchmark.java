@@ -0,0 +1,61 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.report.DocxTableRenderer;
+import com.api.backend.report.UserReportColumns;
+import com.api.backend.report.UserReportRow;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Построение полной таблицы (21 колонка): прежнее оформление каждой ячейки через API POI
+// против копирования шаблонной строки. Аллокации смотреть с -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocxTableRenderBenchmark {
+	
+	@Param({"100", "1000", "5000"})
+	private int users;
+	
+	private List<UserReportRow> data;
+	
+	@Setup
+	public void setUp() {
+		data = BenchmarkData.reportRows(users);
+	}
+	
+	@Benchmark
+	public XWPFDocument perCellStyling() throws IOException {
+		try (XWPFDocument document = new XWPFDocument()) {
+			LegacyCompleteTable.create(document, data);
+			return document;
+		}
+	}
+	
+	@Benchmark
+	public XWPFDocument templateRow() throws IOException {
+		try (XWPFDocument document = new XWPFDocument()) {
+			XWPFTable table = document.createTable(1, UserReportColumns.COMPLETE.size());
+			table.setWidth("100%");
+			DocxTableRenderer.render(table, UserReportColumns.COMPLETE, data, 400, 350);
+			return document;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.search.UserNameFuzzyIndex;
+import com.api.backend.search.UserNameRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Нечеткий поиск UserNameFuzzyIndex (BK-дерево) по фамилии с одной опечаткой.
+// Запросы берутся по кругу из заранее подготовленного набора, чтобы не мерить одно слово
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FuzzyNameSearchBenchmark {
+	
+	private static final int QUERIES = 256;
+	
+	@Param({"10000", "50000"})
+	private int users;
+	
+	@Param({"1", "2"})
+	private int distance;
+	
+	private UserNameFuzzyIndex index;
+	private String[] queries;
+	private int next;
+	
+	@Setup
+	public void setUp() {
+		List<UserNameRow> rows = BenchmarkData.syllableNames(users);
+		index = new UserNameFuzzyIndex(null);
+		index.rebuild(rows);
+		
+		Random random = new Random(7);
+		queries = new String[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			char[] surname = rows.get(random.nextInt(rows.size())).surname().toCharArray();
+			surname[1 + random.nextInt(surname.length - 1)] = 'ы';
+			queries[i] = new String(surname);
+		}
+	}
+	
+	@Benchmark
+	public List<Long> search() {
+		String query = queries[next];
+		next = (next + 1) % QUERIES;
+		return index.search(query, distance);
+	}
+}
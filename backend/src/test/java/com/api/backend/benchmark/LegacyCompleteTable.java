@@ -0,0 +1,82 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.report.UserReportColumns;
+import com.api.backend.report.UserReportRow;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblWidth;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STTblWidth;
+
+import java.math.BigInteger;
+import java.util.List;
+
+// Прежний способ построения полной таблицы: стили создаются заново для каждой ячейки.
+// Оставлен как точка отсчета для DocxTableRenderBenchmark
+final class LegacyCompleteTable {
+	
+	private LegacyCompleteTable() {
+	}
+	
+	static void create(XWPFDocument document, List<UserReportRow> users) {
+		XWPFTable table = document.createTable(1, UserReportColumns.COMPLETE.size());
+		table.setWidth("100%");
+		
+		XWPFTableRow headerRow = table.getRow(0);
+		headerRow.setHeight(400);
+		for (int i = 0; i < UserReportColumns.COMPLETE.size(); i++) {
+			setHeaderCellStyle(headerRow.getCell(i), UserReportColumns.COMPLETE.get(i).header(),
+					UserReportColumns.COMPLETE.get(i).headerWidth());
+		}
+		
+		int rowNum = 1;
+		for (UserReportRow user : users) {
+			XWPFTableRow row = table.createRow();
+			row.setHeight(350);
+			for (int i = 0; i < UserReportColumns.COMPLETE.size(); i++) {
+				createDataCell(row, i, UserReportColumns.COMPLETE.get(i).value().get(user, rowNum),
+						UserReportColumns.COMPLETE.get(i).width());
+			}
+			rowNum++;
+		}
+	}
+	
+	private static void setHeaderCellStyle(XWPFTableCell cell, String text, int width) {
+		cell.setText(text);
+		cell.setColor("D3D3D3");
+		
+		XWPFParagraph paragraph = cell.getParagraphs().get(0);
+		paragraph.setAlignment(ParagraphAlignment.CENTER);
+		
+		XWPFRun run = paragraph.getRuns().get(0);
+		run.setBold(true);
+		run.setFontSize(9);
+		run.setFontFamily("Times New Roman");
+		
+		CTTblWidth cellWidth = cell.getCTTc().addNewTcPr().addNewTcW();
+		cellWidth.setW(BigInteger.valueOf(width));
+		cellWidth.setType(STTblWidth.DXA);
+	}
+	
+	private static void createDataCell(XWPFTableRow row, int cellIndex, String text, int width) {
+		XWPFTableCell cell = row.getCell(cellIndex);
+		cell.setText(text != null ? text : "-");
+		
+		XWPFParagraph paragraph = cell.getParagraphs().get(0);
+		paragraph.setAlignment(ParagraphAlignment.CENTER);
+		paragraph.setSpacingAfter(0);
+		paragraph.setSpacingBefore(0);
+		
+		XWPFRun run = paragraph.getRuns().get(0);
+		run.setFontSize(8);
+		run.setFontFamily("Times New Roman");
+		
+		CTTblWidth cellWidth = cell.getCTTc().addNewTcPr().addNewTcW();
+		cellWidth.setW(BigInteger.valueOf(width));
+		cellWidth.setType(STTblWidth.DXA);
+	}
+}
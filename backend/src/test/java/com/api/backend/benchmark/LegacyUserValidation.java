@@ -0,0 +1,157 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.model.User;
+
+// Прежняя проверка пользователя: switch по роли с исключением на первом запрещенном поле
+// и сборкой строки ошибок. Оставлена как точка отсчета для UserValidationBenchmark
+final class LegacyUserValidation {
+	
+	private LegacyUserValidation() {
+	}
+	
+	// Как в прежнем createUser: первое нарушение бросается исключением
+	static void validate(User user) {
+		validateRoleSpecificFields(user);
+		if (!validateUser(user)) {
+			String errors = getUserValidationErrors(user);
+			throw new RuntimeException("Ошибка валидации: " + errors);
+		}
+	}
+	
+	static void validateRoleSpecificFields(User user) {
+		switch (user.getRole()) {
+			case GUEST:
+				if (user.getBirthDate() != null) {
+					throw new RuntimeException("Гость не может иметь дату рождения");
+				}
+				if (user.getEventLocation() != null) {
+					throw new RuntimeException("Гость не может указывать место события");
+				}
+				if (user.getHasAllergies() != null) {
+					throw new RuntimeException("Гость не может указывать информацию об аллергии");
+				}
+				if (user.getAllergies() != null) {
+					throw new RuntimeException("Гость не может указывать аллергии");
+				}
+				if (user.getFoodPreferences() != null) {
+					throw new RuntimeException("Гость не может указывать предпочтения в еде");
+				}
+				if (user.getWantBowling() != null) {
+					throw new RuntimeException("Гость не может указывать предпочтения по боулингу");
+				}
+				if (user.getAlcoholPreferences() != null) {
+					throw new RuntimeException("Гость не может указывать предпочтения по алкоголю");
+				}
+				if (user.getHasCar() != null) {
+					throw new RuntimeException("Гость не может указывать наличие машины");
+				}
+				if (user.getTableCompanions() != null) {
+					throw new RuntimeException("Гость не может указывать с кем сидеть");
+				}
+				if (user.getSpeechCompanions() != null) {
+					throw new RuntimeException("Гость не может указывать с кем слово на сцене");
+				}
+				if (user.getWillPerform() != null) {
+					throw new RuntimeException("Гость не может указывать будет ли выступать");
+				}
+				if (user.getPerformanceCompanions() != null) {
+					throw new RuntimeException("Гость не может указывать с кем номер");
+				}
+				break;
+			
+			case NOVICE:
+				if (user.getSquad() != null) {
+					throw new RuntimeException("Новичок не может иметь отряд");
+				}
+				if (user.getAlcoholPreferences() != null) {
+					throw new RuntimeException("Новичок не может указывать предпочтения по алкоголю");
+				}
+				if (user.getHasCar() != null) {
+					throw new RuntimeException("Новичок не может указывать наличие машины");
+				}
+				if (user.getTableCompanions() != null) {
+					throw new RuntimeException("Новичок не может указывать с кем сидеть");
+				}
+				if (user.getSpeechCompanions() != null) {
+					throw new RuntimeException("Новичок не может указывать с кем слово на сцене");
+				}
+				if (user.getWillPerform() != null) {
+					throw new RuntimeException("Новичок не может указывать будет ли выступать");
+				}
+				if (user.getPerformanceCompanions() != null) {
+					throw new RuntimeException("Новичок не может указывать с кем номер");
+				}
+				break;
+			
+			case FIGHTER:
+				if (user.getSquad() != null) {
+					throw new RuntimeException("Боец не может иметь отряд");
+				}
+				if (user.getBirthDate() != null) {
+					throw new RuntimeException("Боец не может иметь дату рождения");
+				}
+				if (user.getTableCompanions() != null) {
+					throw new RuntimeException("Боец не может указывать с кем сидеть");
+				}
+				if (user.getSpeechCompanions() != null) {
+					throw new RuntimeException("Боец не может указывать с кем слово на сцене");
+				}
+				if (user.getWillPerform() != null) {
+					throw new RuntimeException("Боец не может указывать будет ли выступать");
+				}
+				if (user.getPerformanceCompanions() != null) {
+					throw new RuntimeException("Боец не может указывать с кем номер");
+				}
+				break;
+			
+			case VETERAN:
+				if (user.getSquad() != null) {
+					throw new RuntimeException("Старик не может иметь отряд");
+				}
+				if (user.getBirthDate() != null) {
+					throw new RuntimeException("Старик не может иметь дату рождения");
+				}
+				break;
+		}
+	}
+	
+	static boolean validateUser(User user) {
+		return switch (user.getRole()) {
+			case GUEST -> user.getSquad() != null;
+			case NOVICE -> user.getBirthDate() != null && user.getEventLocation() != null;
+			case FIGHTER, VETERAN -> user.getEventLocation() != null;
+		};
+	}
+	
+	static String getUserValidationErrors(User user) {
+		StringBuilder errors = new StringBuilder();
+		
+		switch (user.getRole()) {
+			case GUEST:
+				if (user.getSquad() == null) {
+					errors.append("Гость должен указать отряд. ");
+				}
+				break;
+			case NOVICE:
+				if (user.getBirthDate() == null) {
+					errors.append("Новичок должен указать дату рождения. ");
+				}
+				if (user.getEventLocation() == null) {
+					errors.append("Новичок должен указать место события. ");
+				}
+				break;
+			case FIGHTER:
+				if (user.getEventLocation() == null) {
+					errors.append("Боец должен указать место события. ");
+				}
+				break;
+			case VETERAN:
+				if (user.getEventLocation() == null) {
+					errors.append("Старик должен указать место события. ");
+				}
+				break;
+		}
+		
+		return errors.toString().trim();
+	}
+}
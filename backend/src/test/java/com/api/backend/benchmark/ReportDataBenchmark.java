@@ -0,0 +1,72 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.BackendApplication;
+import com.api.backend.dto.response.UserResponse;
+import com.api.backend.report.UserReportRow;
+import com.api.backend.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Загрузка данных для отчета на H2: прежний путь через сущности и UserResponse
+// против запроса-проекции UserReportRow. Аллокации смотреть с -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportDataBenchmark {
+	
+	@Param({"1000", "10000"})
+	private int users;
+	
+	private ConfigurableApplicationContext context;
+	private UserRepository userRepository;
+	
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"spring.datasource.url=jdbc:h2:mem:report-data-benchmark;DB_CLOSE_DELAY=-1",
+						"logging.level.root=WARN",
+						// Фоновое построение отчетов искажает замеры
+						"app.reports.prerender.enabled=false")
+				.run();
+		userRepository = context.getBean(UserRepository.class);
+		userRepository.deleteAllInBatch();
+		userRepository.saveAll(BenchmarkData.users(users));
+	}
+	
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+	
+	@Benchmark
+	public List<UserResponse> entitiesWithConversion() {
+		return userRepository.findAll().stream().map(UserResponse::of).toList();
+	}
+	
+	@Benchmark
+	public List<UserReportRow> projection() {
+		return userRepository.findAllReportRows(LocalDate.now().minusYears(18));
+	}
+}
@@ -0,0 +1,148 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.cache.ReportCache;
+import com.api.backend.cache.ReportSpool;
+import com.api.backend.cache.UserDataVersion;
+import com.api.backend.config.ReportConfig;
+import com.api.backend.dto.response.ReportResponse;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.report.ReportAdmission;
+import com.api.backend.report.UserReportRow;
+import com.api.backend.report.UserReportRowReader;
+import com.api.backend.service.impl.ReportServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Построение docx отчетов ReportServiceImpl целиком (без БД и без кэша).
+// Варианты отчетов различаются ориентацией и числом колонок:
+// ALL_USERS - альбомная, 21 колонка; GUEST - книжная, 6; NOVICE и FIGHTER - книжная, 12; VETERAN - альбомная, 17.
+// Базовые результаты лежат в benchmarks/report-generation-baseline.json.
+// ALL_USERS на 100k пользователей в -Xmx3g не помещается и всегда отклоняется допуском ReportAdmission,
+// поэтому полный отчет меряется только на 1k и 10k
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ReportGenerationBenchmark {
+	
+	@Benchmark
+	public ReportResponse allUsers(AllUsersReport state) {
+		return state.reportService.generateAllUsersReport();
+	}
+	
+	@Benchmark
+	public ReportResponse role(RoleReport state) {
+		return state.reportService.generateRoleReport(state.role);
+	}
+	
+	@State(Scope.Benchmark)
+	public static class AllUsersReport extends ReportServiceState {
+		
+		@Param({"1000", "10000"})
+		private int users;
+		
+		@Setup
+		public void setUp() throws IOException {
+			start(users);
+		}
+	}
+	
+	@State(Scope.Benchmark)
+	public static class RoleReport extends ReportServiceState {
+		
+		@Param({"1000", "10000", "100000"})
+		private int users;
+		
+		@Param({"GUEST", "NOVICE", "FIGHTER", "VETERAN"})
+		private String report;
+		
+		private UserRole role;
+		
+		@Setup
+		public void setUp() throws IOException {
+			start(users);
+			role = UserRole.valueOf(report);
+		}
+	}
+	
+	public abstract static class ReportServiceState {
+		
+		protected ReportServiceImpl reportService;
+		
+		protected void start(int users) throws IOException {
+			ReportConfig reportConfig = new ReportConfig();
+			reportConfig.getCache().setEnabled(false);
+			reportConfig.getPrerender().setEnabled(false);
+			reportService = new ReportServiceImpl(new InMemoryRowReader(BenchmarkData.reportRows(users)),
+					new ReportCache(reportConfig), new UserDataVersion(), new ReportAdmission(reportConfig),
+					new ReportSpool(reportConfig), reportConfig);
+			reportService.init();
+		}
+		
+		@TearDown
+		public void tearDown() {
+			reportService.destroy();
+		}
+	}
+	
+	// Отдает заранее построенные строки вместо запросов к БД
+	private static class InMemoryRowReader extends UserReportRowReader {
+		
+		private final List<UserReportRow> rows;
+		private final Map<UserRole, List<UserReportRow>> rowsByRole = new EnumMap<>(UserRole.class);
+		
+		InMemoryRowReader(List<UserReportRow> rows) {
+			super(null);
+			this.rows = rows;
+			for (UserRole role : UserRole.values()) {
+				rowsByRole.put(role, new ArrayList<>());
+			}
+			for (UserReportRow row : rows) {
+				rowsByRole.get(row.getRole()).add(row);
+			}
+		}
+		
+		@Override
+		public void streamAll(RowsHandler handler) throws IOException {
+			handler.handle(rows.iterator());
+		}
+		
+		@Override
+		public void streamByRole(UserRole role, RowsHandler handler) throws IOException {
+			handler.handle(rowsByRole.get(role).iterator());
+		}
+		
+		@Override
+		public long countAll() {
+			return rows.size();
+		}
+		
+		@Override
+		public long countByRole(UserRole role) {
+			return rowsByRole.get(role).size();
+		}
+		
+		@Override
+		public List<UserReportRow> findAll() {
+			return rows;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.BackendApplication;
+import com.api.backend.dto.request.UserRequest;
+import com.api.backend.dto.response.UserBatchResponse;
+import com.api.backend.repository.UserRepository;
+import com.api.backend.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Создание users пользователей на H2: по одному через createUser (транзакция и вставка на каждого)
+// против одного вызова createUsers с JDBC-пакетами. Одна операция - весь список
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserBatchInsertBenchmark {
+	
+	@Param({"100", "500"})
+	private int users;
+	
+	private ConfigurableApplicationContext context;
+	private UserService userService;
+	private UserRepository userRepository;
+	private List<UserRequest> requests;
+	
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"spring.datasource.url=jdbc:h2:mem:user-batch-insert-benchmark;DB_CLOSE_DELAY=-1",
+						"logging.level.root=WARN",
+						// Фоновое построение отчетов искажает замеры
+						"app.reports.prerender.enabled=false")
+				.run();
+		userService = context.getBean(UserService.class);
+		userRepository = context.getBean(UserRepository.class);
+		requests = BenchmarkData.userRequests(users);
+	}
+	
+	@Setup(Level.Iteration)
+	public void clearUsers() {
+		userRepository.deleteAllInBatch();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+	
+	@Benchmark
+	public void singleRow(Blackhole blackhole) {
+		for (UserRequest request : requests) {
+			blackhole.consume(userService.createUser(request));
+		}
+	}
+	
+	@Benchmark
+	public UserBatchResponse batch() {
+		return userService.createUsers(requests);
+	}
+}
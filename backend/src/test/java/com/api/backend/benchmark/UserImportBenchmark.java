@@ -0,0 +1,136 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.BackendApplication;
+import com.api.backend.dto.request.UserRequest;
+import com.api.backend.dto.response.UserImportResponse;
+import com.api.backend.report.CsvTableWriter;
+import com.api.backend.report.ReportColumn;
+import com.api.backend.report.XlsxTableWriter;
+import com.api.backend.repository.UserRepository;
+import com.api.backend.search.UserFacetIndex;
+import com.api.backend.search.UserNameFuzzyIndex;
+import com.api.backend.search.UserNameIndex;
+import com.api.backend.search.UserNameTrie;
+import com.api.backend.service.UserImportService;
+import com.api.backend.stats.UserStatsCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Импорт файла из users строк на H2 целиком: чтение, параллельная проверка и пакетная вставка.
+// Куча ограничена, чтобы было видно, что память не растет с размером файла
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class UserImportBenchmark {
+	
+	private static final List<ReportColumn<UserRequest>> COLUMNS = List.of(
+			column("surname", UserRequest::getSurname),
+			column("name", UserRequest::getName),
+			column("patronymic", UserRequest::getPatronymic),
+			column("role", UserRequest::getRole),
+			column("squad", UserRequest::getSquad),
+			column("birthDate", UserRequest::getBirthDate),
+			column("eventLocation", UserRequest::getEventLocation),
+			column("hasAllergies", UserRequest::getHasAllergies),
+			column("allergies", UserRequest::getAllergies),
+			column("foodPreferences", UserRequest::getFoodPreferences),
+			column("wantBowling", UserRequest::getWantBowling),
+			column("alcoholPreferences", UserRequest::getAlcoholPreferences),
+			column("hasCar", UserRequest::getHasCar),
+			column("needSpeech", UserRequest::getNeedSpeech),
+			column("speechCompanions", UserRequest::getSpeechCompanions),
+			column("tableCompanions", UserRequest::getTableCompanions),
+			column("willPerform", UserRequest::getWillPerform),
+			column("performanceCompanions", UserRequest::getPerformanceCompanions)
+	);
+	
+	@Param({"50000"})
+	private int users;
+	
+	@Param({"csv", "xlsx"})
+	private String format;
+	
+	private ConfigurableApplicationContext context;
+	private UserImportService userImportService;
+	private UserRepository userRepository;
+	private MockMultipartFile file;
+	
+	@Setup
+	public void setUp() throws IOException {
+		context = new SpringApplicationBuilder(BackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"spring.datasource.url=jdbc:h2:mem:user-import-benchmark;DB_CLOSE_DELAY=-1",
+						"logging.level.root=WARN",
+						// Фоновое построение отчетов искажает замеры
+						"app.reports.prerender.enabled=false")
+				.run();
+		userImportService = context.getBean(UserImportService.class);
+		userRepository = context.getBean(UserRepository.class);
+		
+		List<UserRequest> requests = BenchmarkData.userRequests(users);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		if ("csv".equals(format)) {
+			CsvTableWriter.write(outputStream, COLUMNS, requests.iterator());
+		} else {
+			XlsxTableWriter.write(outputStream, "Пользователи", COLUMNS, requests.iterator());
+		}
+		file = new MockMultipartFile("file", "users." + format, null, outputStream.toByteArray());
+	}
+	
+	// deleteAllInBatch не публикует событий, поэтому индексы в памяти строятся заново
+	@Setup(Level.Iteration)
+	public void clearUsers() {
+		userRepository.deleteAllInBatch();
+		context.getBean(UserNameIndex.class).rebuild();
+		context.getBean(UserNameFuzzyIndex.class).rebuild();
+		context.getBean(UserNameTrie.class).rebuild();
+		context.getBean(UserFacetIndex.class).rebuild();
+		context.getBean(UserStatsCounters.class).rebuild();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+	
+	@Benchmark
+	public UserImportResponse importFile() {
+		UserImportResponse response = userImportService.importUsers(file);
+		if (response.getImported() != users) {
+			throw new IllegalStateException("Импортировано " + response.getImported() + " из " + users
+					+ ": " + response.getErrors().stream().limit(3).toList());
+		}
+		return response;
+	}
+	
+	private static ReportColumn<UserRequest> column(String header, Function<UserRequest, Object> value) {
+		return new ReportColumn<>(header, 0, 0,
+				(request, rowNumber) -> Objects.toString(value.apply(request), null));
+	}
+}
@@ -0,0 +1,95 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.BackendApplication;
+import com.api.backend.dto.response.UserResponse;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.readmodel.UserReadModel;
+import com.api.backend.repository.UserRepository;
+import com.api.backend.repository.UserSpecifications;
+import com.api.backend.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Списки пользователей на H2: прежний путь (сущности в транзакции только для чтения и UserResponse.of)
+// против модели чтения UserReadModel. Выборка по роли в прежнем пути идет через кэш запросов Hibernate
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserListBenchmark {
+	
+	@Param({"1000", "10000"})
+	private int users;
+	
+	private ConfigurableApplicationContext context;
+	private UserService userService;
+	private UserRepository userRepository;
+	private TransactionTemplate readOnlyTransaction;
+	
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"spring.datasource.url=jdbc:h2:mem:user-list-benchmark;DB_CLOSE_DELAY=-1",
+						"logging.level.root=WARN",
+						// Фоновое построение отчетов искажает замеры
+						"app.reports.prerender.enabled=false")
+				.run();
+		userService = context.getBean(UserService.class);
+		userRepository = context.getBean(UserRepository.class);
+		readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readOnlyTransaction.setReadOnly(true);
+		userRepository.deleteAllInBatch();
+		userRepository.saveAll(BenchmarkData.users(users));
+		// Пользователи сохранены в обход UserService, без событий
+		context.getBean(UserReadModel.class).rebuild();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+	
+	@Benchmark
+	public List<UserResponse> allFromEntities() {
+		return readOnlyTransaction.execute(status -> userRepository.findAll().stream().map(UserResponse::of).toList());
+	}
+	
+	@Benchmark
+	public Collection<UserResponse> allFromReadModel() {
+		return userService.getAllUsers();
+	}
+	
+	@Benchmark
+	public List<UserResponse> byRoleFromEntities() {
+		return readOnlyTransaction.execute(status ->
+				userRepository.findAll(UserSpecifications.hasRole(UserRole.FIGHTER)).stream().map(UserResponse::of).toList());
+	}
+	
+	@Benchmark
+	public Collection<UserResponse> byRoleFromReadModel() {
+		return userService.getUsersByRole("fighter");
+	}
+}
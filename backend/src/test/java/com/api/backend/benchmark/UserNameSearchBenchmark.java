@@ -0,0 +1,87 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.BackendApplication;
+import com.api.backend.dto.response.UserResponse;
+import com.api.backend.model.User;
+import com.api.backend.repository.UserRepository;
+import com.api.backend.search.UserNameIndex;
+import com.api.backend.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Поиск по имени на H2: прежний запрос LOWER(...) LIKE '%x%' против триграммного индекса
+// (только id и полный ответ сервиса). Запросы: редкая фамилия, частое имя и фамилия с ё
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserNameSearchBenchmark {
+	
+	@Param({"100000"})
+	private int users;
+	
+	@Param({"петров1234", "алекс", "федоров12"})
+	private String term;
+	
+	private ConfigurableApplicationContext context;
+	private UserService userService;
+	private UserRepository userRepository;
+	private UserNameIndex userNameIndex;
+	
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"spring.datasource.url=jdbc:h2:mem:name-search-benchmark;DB_CLOSE_DELAY=-1",
+						"logging.level.root=WARN",
+						// Фоновое построение отчетов искажает замеры
+						"app.reports.prerender.enabled=false")
+				.run();
+		userService = context.getBean(UserService.class);
+		userRepository = context.getBean(UserRepository.class);
+		userNameIndex = context.getBean(UserNameIndex.class);
+		userRepository.deleteAllInBatch();
+		userRepository.saveAll(BenchmarkData.users(users));
+		// Данные записаны мимо UserService, поэтому индекс перестраивается явно
+		userNameIndex.rebuild();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+	
+	@Benchmark
+	public List<User> likeQuery() {
+		return userRepository.searchByName(term);
+	}
+	
+	@Benchmark
+	public List<Long> trigramIndex() {
+		return userNameIndex.search(term);
+	}
+	
+	@Benchmark
+	public List<UserResponse> serviceSearch() {
+		return userService.searchUsersByName(term);
+	}
+}
@@ -0,0 +1,75 @@
+package com.api.backend.benchmark;
+
+import com.api.backend.model.User;
+import com.api.backend.model.UserFieldRules;
+import com.api.backend.model.UserFieldViolation;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Проверка 1000 анкет: прежний switch по роли с исключением на первом нарушении (LegacyUserValidation)
+// против битовых масок UserFieldRules. В invalid у каждой анкеты лишнее поле и нет обязательного
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserValidationBenchmark {
+	
+	@Param({"valid", "invalid"})
+	private String users;
+	
+	private User[] batch;
+	
+	@Setup
+	public void setUp() {
+		List<User> generated = BenchmarkData.users(1000);
+		if ("invalid".equals(users)) {
+			for (User user : generated) {
+				if (user.isGuest()) {
+					user.setSquad(null);
+					user.setEventLocation(EventLocation.BANQUET);
+				} else {
+					user.setEventLocation(null);
+					user.setSquad(Squad.GNOM);
+				}
+			}
+		}
+		batch = generated.toArray(new User[0]);
+	}
+	
+	@Benchmark
+	public void legacy(Blackhole blackhole) {
+		for (User user : batch) {
+			try {
+				LegacyUserValidation.validate(user);
+				blackhole.consume(true);
+			} catch (RuntimeException e) {
+				blackhole.consume(e.getMessage());
+			}
+		}
+	}
+	
+	@Benchmark
+	public void rules(Blackhole blackhole) {
+		for (User user : batch) {
+			List<UserFieldViolation> violations = UserFieldRules.check(user);
+			blackhole.consume(violations);
+		}
+	}
+}
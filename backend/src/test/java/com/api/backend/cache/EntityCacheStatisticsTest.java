@@ -0,0 +1,65 @@
+package com.api.backend.cache;
+
+import com.api.backend.dto.response.EntityCacheStats;
+import com.api.backend.model.User;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Без общей транзакции теста: кэш заполняется и сбрасывается только закоммиченными изменениями
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(EntityCacheStatistics.class)
+class EntityCacheStatisticsTest {
+	
+	@Autowired
+	private UserRepository userRepository;
+	
+	@Autowired
+	private EntityCacheStatistics entityCacheStatistics;
+	
+	@AfterEach
+	void tearDown() {
+		userRepository.deleteAllInBatch();
+	}
+	
+	@Test
+	void servesRepeatedReadsFromCacheAndUpdatesItOnWrite() {
+		User fighter = userRepository.save(user("Боец", UserRole.FIGHTER));
+		
+		assertThat(userRepository.findById(fighter.getId())).isPresent();
+		EntityCacheStats before = entityCacheStatistics.getStats();
+		
+		assertThat(userRepository.findById(fighter.getId())).get().extracting(User::getSurname).isEqualTo("Боец");
+		
+		EntityCacheStats after = entityCacheStatistics.getStats();
+		assertThat(after.getEntityLoads()).isEqualTo(before.getEntityLoads());
+		assertThat(after.getHits()).isGreaterThan(before.getHits());
+		assertThat(after.getRegions()).containsKey("users").doesNotContainKey("user-queries");
+		
+		// Запись через Hibernate обновляет закэшированную сущность при коммите
+		fighter.setSurname("Ветеран");
+		userRepository.save(fighter);
+		
+		assertThat(userRepository.findById(fighter.getId())).get().extracting(User::getSurname).isEqualTo("Ветеран");
+		assertThat(entityCacheStatistics.getStats().getEntityLoads()).isEqualTo(after.getEntityLoads());
+	}
+	
+	private User user(String surname, UserRole role) {
+		User user = new User();
+		user.setName("Имя");
+		user.setSurname(surname);
+		user.setRole(role);
+		user.setEventLocation(EventLocation.BOTH);
+		return user;
+	}
+}
@@ -0,0 +1,96 @@
+package com.api.backend.cache;
+
+import com.api.backend.config.ReportConfig;
+import com.api.backend.dto.response.ReportCacheStats;
+import com.api.backend.model.enums.ReportFormat;
+import com.api.backend.model.enums.ReportType;
+import com.api.backend.model.enums.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportCacheTest {
+	
+	@TempDir
+	Path tempDir;
+	
+	private ReportCache reportCache;
+	private final AtomicInteger renders = new AtomicInteger();
+	
+	@BeforeEach
+	void setUp() throws IOException {
+		ReportConfig reportConfig = new ReportConfig();
+		reportConfig.getCache().setDirectory(tempDir.toString());
+		reportConfig.getCache().setMaxSizeBytes(25);
+		reportCache = new ReportCache(reportConfig);
+		reportCache.init();
+	}
+	
+	@AfterEach
+	void tearDown() {
+		reportCache.destroy();
+	}
+	
+	@Test
+	void repeatedDownloadIsServedFromCache() throws IOException {
+		ReportCacheKey key = new ReportCacheKey(ReportType.ALL_USERS, null, ReportFormat.DOCX, 0);
+		
+		assertThat(download(key, "report")).isEqualTo("report");
+		assertThat(download(key, "other")).isEqualTo("report");
+		
+		ReportCacheStats stats = reportCache.getStats();
+		assertThat(renders).hasValue(1);
+		assertThat(stats.getHits()).isEqualTo(1);
+		assertThat(stats.getMisses()).isEqualTo(1);
+	}
+	
+	@Test
+	void newDataVersionRendersAgainAndDropsOutdatedReports() throws IOException {
+		download(new ReportCacheKey(ReportType.ROLE, UserRole.GUEST, ReportFormat.DOCX, 0), "old");
+		
+		assertThat(download(new ReportCacheKey(ReportType.ROLE, UserRole.GUEST, ReportFormat.DOCX, 1), "new")).isEqualTo("new");
+		
+		ReportCacheStats stats = reportCache.getStats();
+		assertThat(renders).hasValue(2);
+		assertThat(stats.getEntries()).isEqualTo(1);
+		assertThat(stats.getEvictions()).isEqualTo(1);
+	}
+	
+	@Test
+	void leastRecentlyUsedReportIsEvictedWhenSizeLimitExceeded() throws IOException {
+		ReportCacheKey guests = new ReportCacheKey(ReportType.ROLE, UserRole.GUEST, ReportFormat.DOCX, 0);
+		ReportCacheKey novices = new ReportCacheKey(ReportType.ROLE, UserRole.NOVICE, ReportFormat.DOCX, 0);
+		ReportCacheKey fighters = new ReportCacheKey(ReportType.ROLE, UserRole.FIGHTER, ReportFormat.DOCX, 0);
+		
+		download(guests, "0123456789");
+		download(novices, "0123456789");
+		download(guests, "0123456789");
+		download(fighters, "0123456789");
+		
+		ReportCacheStats stats = reportCache.getStats();
+		assertThat(stats.getEntries()).isEqualTo(2);
+		assertThat(stats.getSizeBytes()).isEqualTo(20);
+		
+		download(guests, "0123456789");
+		assertThat(renders).hasValue(3);
+		download(novices, "0123456789");
+		assertThat(renders).hasValue(4);
+	}
+	
+	private String download(ReportCacheKey key, String content) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		reportCache.write(key, out -> {
+			renders.incrementAndGet();
+			out.write(content.getBytes());
+		}, outputStream);
+		return outputStream.toString();
+	}
+}
@@ -0,0 +1,97 @@
+package com.api.backend.cache;
+
+import com.api.backend.config.ReportConfig;
+import com.api.backend.model.enums.ReportFormat;
+import com.api.backend.model.enums.ReportType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportSpoolTest {
+	
+	@TempDir
+	Path tempDir;
+	
+	@Test
+	void newVersionReplacesPreviousFile() throws IOException {
+		ReportSpool spool = createSpool(300);
+		spool.publish(key(1), Instant.now(), out -> out.write("v1".getBytes(StandardCharsets.UTF_8)));
+		spool.publish(key(2), Instant.now(), out -> out.write("v2".getBytes(StandardCharsets.UTF_8)));
+		
+		assertThat(spool.isCurrent(key(2))).isTrue();
+		assertThat(read(spool, 2)).isEqualTo("v2");
+		try (Stream<Path> files = Files.list(tempDir).flatMap(ReportSpoolTest::list)) {
+			assertThat(files).hasSize(1);
+		}
+		spool.destroy();
+	}
+	
+	@Test
+	void staleFileIsServedOnlyWhileNewOneIsRendering() throws IOException {
+		ReportSpool spool = createSpool(60);
+		spool.publish(key(1), Instant.now(), out -> out.write("v1".getBytes(StandardCharsets.UTF_8)));
+		assertThat(read(spool, 2)).isNull();
+		
+		List<String> servedDuringRender = new ArrayList<>();
+		spool.publish(key(2), Instant.now(), out -> {
+			servedDuringRender.add(read(spool, 2));
+			out.write("v2".getBytes(StandardCharsets.UTF_8));
+		});
+		assertThat(servedDuringRender).containsExactly("v1");
+		assertThat(read(spool, 2)).isEqualTo("v2");
+		spool.destroy();
+	}
+	
+	@Test
+	void staleFileIsServedOnlyWithinLimit() throws IOException {
+		ReportSpool spool = createSpool(60);
+		spool.publish(key(1), Instant.now().minusSeconds(120), out -> out.write("v1".getBytes(StandardCharsets.UTF_8)));
+		assertThat(read(spool, 1)).isEqualTo("v1");
+		
+		List<String> servedDuringRender = new ArrayList<>();
+		spool.publish(key(2), Instant.now(), out -> {
+			servedDuringRender.add(read(spool, 2));
+			out.write("v2".getBytes(StandardCharsets.UTF_8));
+		});
+		assertThat(servedDuringRender).containsOnlyNulls();
+		spool.destroy();
+	}
+	
+	private ReportSpool createSpool(long maxStaleSeconds) throws IOException {
+		ReportConfig reportConfig = new ReportConfig();
+		reportConfig.getPrerender().setDirectory(tempDir.toString());
+		reportConfig.getPrerender().setMaxStaleSeconds(maxStaleSeconds);
+		ReportSpool spool = new ReportSpool(reportConfig);
+		spool.init();
+		return spool;
+	}
+	
+	private static ReportCacheKey key(long version) {
+		return new ReportCacheKey(ReportType.ALL_USERS, null, ReportFormat.CSV, version);
+	}
+	
+	private static String read(ReportSpool spool, long currentVersion) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		boolean served = spool.transferTo(ReportType.ALL_USERS, null, ReportFormat.CSV, currentVersion, outputStream);
+		return served ? outputStream.toString(StandardCharsets.UTF_8) : null;
+	}
+	
+	private static Stream<Path> list(Path directory) {
+		try {
+			return Files.list(directory);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.api.backend.config;
+
+import com.api.backend.model.User;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(UserIdSequenceInitializer.class)
+class UserIdSequenceInitializerTest {
+	
+	@Autowired
+	private UserRepository userRepository;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private UserIdSequenceInitializer initializer;
+	
+	// База со строками, вставленными до перехода на последовательность (id выдавал IDENTITY)
+	@Test
+	void movesSequencePastExistingIds() {
+		User user = new User();
+		user.setName("Имя");
+		user.setSurname("Фамилия");
+		user.setPatronymic("Отчество");
+		user.setRole(UserRole.GUEST);
+		Long id = userRepository.saveAndFlush(user).getId();
+		jdbcTemplate.update("update users set id = 1000 where id = ?", id);
+		
+		initializer.init();
+		
+		Long next = jdbcTemplate.queryForObject("select next value for " + User.ID_SEQUENCE, Long.class);
+		// Пул из ID_ALLOCATION_SIZE id, выданный по этому значению, начинается после 1000
+		assertThat(next - User.ID_ALLOCATION_SIZE + 1).isGreaterThan(1000);
+	}
+}
@@ -0,0 +1,49 @@
+package com.api.backend.form;
+
+import com.api.backend.dto.response.UserFormSchemaResponse;
+import com.api.backend.dto.response.UserFormState;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.UserField;
+import com.api.backend.model.enums.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserFormSchemaTest {
+	
+	@Test
+	void coversEveryStateWithUserVisibilityRules() throws Exception {
+		UserFormSchema formSchema = new UserFormSchema(new ObjectMapper());
+		UserFormSchemaResponse schema = formSchema.getSchema();
+		
+		// 4 роли x (не выбрано + 3 места события) x 8 сочетаний переключателей
+		assertThat(schema.getStates()).hasSize(128);
+		assertThat(schema.getFields()).hasSize(UserField.values().length).startsWith("squad", "needSpeech");
+		
+		UserFormState guest = state(schema, UserRole.GUEST, null, false, true, false);
+		assertThat(guest.getVisible()).isEqualTo(UserField.SQUAD.mask() | UserField.NEED_SPEECH.mask());
+		assertThat(guest.getRequired()).isEqualTo(UserField.SQUAD.mask());
+		
+		UserFormState veteran = state(schema, UserRole.VETERAN, EventLocation.OFFICIAL_PART, true, false, true);
+		assertThat(veteran.getVisible() & UserField.PERFORMANCE_COMPANIONS.mask()).isNotZero();
+		assertThat(veteran.getVisible() & UserField.ALLERGIES.mask()).isZero();
+		assertThat(veteran.getVisible() & UserField.SPEECH_COMPANIONS.mask()).isZero();
+		
+		UserFormState novice = state(schema, UserRole.NOVICE, EventLocation.BANQUET, true, false, false);
+		assertThat(novice.getVisible() & UserField.ALLERGIES.mask()).isNotZero();
+		assertThat(novice.getVisible() & UserField.HAS_CAR.mask()).isZero();
+		
+		// ETag зависит только от содержимого
+		assertThat(new UserFormSchema(new ObjectMapper()).getEtag()).isEqualTo(formSchema.getEtag());
+	}
+	
+	private UserFormState state(UserFormSchemaResponse schema, UserRole role, EventLocation location,
+								boolean hasAllergies, boolean needSpeech, boolean willPerform) {
+		return schema.getStates().stream()
+				.filter(state -> state.getRole() == role && state.getEventLocation() == location
+						&& state.isHasAllergies() == hasAllergies && state.isNeedSpeech() == needSpeech
+						&& state.isWillPerform() == willPerform)
+				.findFirst().orElseThrow();
+	}
+}
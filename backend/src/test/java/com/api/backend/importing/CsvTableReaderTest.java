@@ -0,0 +1,43 @@
+package com.api.backend.importing;
+
+import com.api.backend.report.CsvTableWriter;
+import com.api.backend.report.ReportColumn;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTableReaderTest {
+	
+	@Test
+	void readsWhatCsvTableWriterWrites() throws IOException {
+		List<ReportColumn<String>> columns = List.of(new ReportColumn<>("Значение", 0, 0, (value, rowNumber) -> value));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		CsvTableWriter.write(outputStream, columns,
+				List.of("Иванов", "Сыр, \"Гауда\"", "=СУММ(A1)", "строка\nвторая").iterator());
+		
+		assertThat(read(outputStream.toByteArray())).containsExactly(
+				"1:[Значение]", "2:[Иванов]", "3:[Сыр, \"Гауда\"]", "4:[=СУММ(A1)]", "5:[строка\nвторая]");
+	}
+	
+	// Excel с русской локалью сохраняет через ";", пустые строки пропускаются, но учитываются в нумерации
+	@Test
+	void detectsSemicolonSeparator() throws IOException {
+		String csv = "Фамилия;Имя;Отчество\nПетров;\"Иван; Петрович\";\n\r\nСидоров;Олег;Олегович";
+		
+		assertThat(read(csv.getBytes(StandardCharsets.UTF_8))).containsExactly(
+				"1:[Фамилия, Имя, Отчество]", "2:[Петров, Иван; Петрович, ]", "4:[Сидоров, Олег, Олегович]");
+	}
+	
+	private static List<String> read(byte[] csv) throws IOException {
+		List<String> rows = new ArrayList<>();
+		CsvTableReader.read(new ByteArrayInputStream(csv), (rowNumber, cells) -> rows.add(rowNumber + ":" + cells));
+		return rows;
+	}
+}
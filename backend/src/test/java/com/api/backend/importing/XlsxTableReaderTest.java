@@ -0,0 +1,50 @@
+package com.api.backend.importing;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxTableReaderTest {
+	
+	@TempDir
+	private Path directory;
+	
+	// Пропущенные ячейки заполняются пустыми строками, даты в любом формате приходят в ISO
+	@Test
+	void readsFirstSheetRowByRow() throws IOException {
+		Path file = directory.resolve("users.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream outputStream = Files.newOutputStream(file)) {
+			CellStyle dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd.mm.yyyy"));
+			Sheet sheet = workbook.createSheet("Пользователи");
+			Row header = sheet.createRow(0);
+			header.createCell(0).setCellValue("Фамилия");
+			header.createCell(1).setCellValue("Отчество");
+			header.createCell(2).setCellValue("Дата рождения");
+			Row row = sheet.createRow(2);
+			row.createCell(0).setCellValue("Петров");
+			row.createCell(2).setCellValue(LocalDate.of(2008, 3, 15));
+			row.getCell(2).setCellStyle(dateStyle);
+			row.createCell(3).setCellValue(5);
+			workbook.write(outputStream);
+		}
+		
+		List<String> rows = new ArrayList<>();
+		XlsxTableReader.read(file.toFile(), (rowNumber, cells) -> rows.add(rowNumber + ":" + cells));
+		
+		assertThat(rows).containsExactly("1:[Фамилия, Отчество, Дата рождения]", "3:[Петров, , 2008-03-15, 5]");
+	}
+}
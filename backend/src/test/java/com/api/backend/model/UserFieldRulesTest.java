@@ -0,0 +1,68 @@
+package com.api.backend.model;
+
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserField;
+import com.api.backend.model.enums.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserFieldRulesTest {
+	
+	// Все нарушения возвращаются сразу: лишние поля, затем обязательные, тексты как в прежних исключениях
+	@Test
+	void reportsAllViolationsAtOnce() {
+		User guest = user(UserRole.GUEST);
+		guest.setBirthDate(LocalDate.of(2000, 1, 1));
+		guest.setHasCar(true);
+		guest.setNeedSpeech(true);
+		
+		assertThat(UserFieldRules.check(guest)).containsExactly(
+				new UserFieldViolation("birthDate", UserFieldViolation.Code.NOT_ALLOWED, "Гость не может иметь дату рождения"),
+				new UserFieldViolation("hasCar", UserFieldViolation.Code.NOT_ALLOWED, "Гость не может указывать наличие машины"),
+				new UserFieldViolation("squad", UserFieldViolation.Code.REQUIRED, "Гость должен указать отряд"));
+		assertThat(UserFieldRules.hasRequiredFields(guest)).isFalse();
+		
+		User novice = user(UserRole.NOVICE);
+		novice.setSquad(Squad.GNOM);
+		
+		assertThat(UserFieldRules.check(novice)).extracting(UserFieldViolation::message).containsExactly(
+				"Новичок не может иметь отряд",
+				"Новичок должен указать дату рождения",
+				"Новичок должен указать место события");
+	}
+	
+	@Test
+	void acceptsValidUsersAndSharesRulesWithUser() {
+		User veteran = user(UserRole.VETERAN);
+		veteran.setEventLocation(EventLocation.BOTH);
+		veteran.setTableCompanions("Все");
+		veteran.setWillPerform(true);
+		veteran.setPerformanceCompanions("Хор");
+		
+		assertThat(UserFieldRules.check(veteran)).isEmpty();
+		assertThat(veteran.isVeteranValid()).isTrue();
+		assertThat(veteran.shouldShowPerformanceCompanionsField()).isTrue();
+		
+		User fighter = user(UserRole.FIGHTER);
+		fighter.setEventLocation(EventLocation.OFFICIAL_PART);
+		fighter.setHasCar(false);
+		
+		assertThat(UserFieldRules.check(fighter)).isEmpty();
+		assertThat(fighter.shouldShowHasCarField()).isTrue();
+		assertThat(fighter.shouldShowAlcoholPreferencesField()).isFalse();
+		assertThat(UserFieldRules.isAllowed(UserRole.FIGHTER, UserField.TABLE_COMPANIONS)).isFalse();
+		assertThat(UserFieldRules.isAllowed(null, UserField.SQUAD)).isFalse();
+	}
+	
+	private User user(UserRole role) {
+		User user = new User();
+		user.setName("Иван");
+		user.setSurname("Иванов");
+		user.setRole(role);
+		return user;
+	}
+}
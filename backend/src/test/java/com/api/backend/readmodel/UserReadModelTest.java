@@ -0,0 +1,73 @@
+package com.api.backend.readmodel;
+
+import com.api.backend.dto.response.UserResponse;
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.model.User;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(UserReadModel.class)
+class UserReadModelTest {
+	
+	@Autowired
+	private UserRepository userRepository;
+	
+	@Autowired
+	private UserReadModel userReadModel;
+	
+	@Test
+	void buildsPartitionsAndFollowsChanges() {
+		User fighter = user("Боец", UserRole.FIGHTER, EventLocation.BANQUET);
+		User veteran = user("Старик", UserRole.VETERAN, EventLocation.BOTH);
+		userRepository.saveAll(List.of(fighter, veteran));
+		
+		userReadModel.rebuild();
+		
+		assertThat(userReadModel.getAll()).extracting(UserResponse::getSurname).containsExactly("Боец", "Старик");
+		assertThat(userReadModel.getByRole(UserRole.FIGHTER)).extracting(UserResponse::getId)
+				.containsExactly(fighter.getId());
+		assertThat(userReadModel.getByEventLocation(EventLocation.BOTH)).extracting(UserResponse::getValid)
+				.containsExactly(true);
+		assertThatThrownBy(() -> userReadModel.getAll().clear())
+				.isInstanceOf(UnsupportedOperationException.class);
+		
+		// Смена места события переносит пользователя между разделами
+		User before = UserChangedEvent.copyOf(fighter);
+		fighter.setEventLocation(EventLocation.BOTH);
+		userReadModel.onUserChanged(UserChangedEvent.updated(before, fighter));
+		
+		assertThat(userReadModel.getByEventLocation(EventLocation.BANQUET)).isEmpty();
+		assertThat(userReadModel.getByEventLocation(EventLocation.BOTH)).extracting(UserResponse::getSurname)
+				.containsExactly("Боец", "Старик");
+		assertThat(userReadModel.getByRole(UserRole.FIGHTER)).extracting(UserResponse::getEventLocation)
+				.containsExactly(EventLocation.BOTH);
+		
+		// Для удаления достаточно id, как в событиях массового удаления
+		User deleted = new User();
+		deleted.setId(veteran.getId());
+		userReadModel.onUserChanged(UserChangedEvent.deleted(deleted));
+		
+		assertThat(userReadModel.getAll()).extracting(UserResponse::getId).containsExactly(fighter.getId());
+		assertThat(userReadModel.getByRole(UserRole.VETERAN)).isEmpty();
+	}
+	
+	private User user(String surname, UserRole role, EventLocation location) {
+		User user = new User();
+		user.setName("Имя");
+		user.setSurname(surname);
+		user.setRole(role);
+		user.setEventLocation(location);
+		return user;
+	}
+}
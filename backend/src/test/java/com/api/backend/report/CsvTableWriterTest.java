@@ -0,0 +1,33 @@
+package com.api.backend.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTableWriterTest {
+	
+	private static final List<ReportColumn<String>> COLUMNS = List.of(
+			new ReportColumn<>("№", 0, 0, (value, rowNumber) -> String.valueOf(rowNumber)),
+			new ReportColumn<>("Значение", 0, 0, (value, rowNumber) -> value)
+	);
+	
+	@Test
+	void writesRowsWithQuotingAndFormulaEscaping() throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		CsvTableWriter.write(outputStream, COLUMNS,
+				List.of("Иванов", "Сыр, \"Гауда\"", "=СУММ(A1)", "-", "строка\nвторая").iterator());
+		
+		assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo(
+				"\uFEFF№,Значение\r\n" +
+						"1,Иванов\r\n" +
+						"2,\"Сыр, \"\"Гауда\"\"\"\r\n" +
+						"3,'=СУММ(A1)\r\n" +
+						"4,-\r\n" +
+						"5,\"строка\nвторая\"\r\n");
+	}
+}
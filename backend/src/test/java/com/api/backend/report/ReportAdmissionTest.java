@@ -0,0 +1,76 @@
+package com.api.backend.report;
+
+import com.api.backend.config.ReportConfig;
+import com.api.backend.dto.response.ReportAdmissionStats;
+import com.api.backend.exception.ReportOverloadedException;
+import com.api.backend.model.enums.ReportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class ReportAdmissionTest {
+	
+	private static final long HEAP_BYTES = 1000;
+	
+	@Test
+	void rejectsReportOverHeapBudgetWithoutWaiting() {
+		ReportAdmission admission = new ReportAdmission(config(1, 1, 30), HEAP_BYTES);
+		
+		assertThatThrownBy(() -> admission.acquire(600))
+				.isInstanceOf(ReportOverloadedException.class)
+				.extracting("retryAfterSeconds").isEqualTo(7L);
+		assertThat(admission.getStats().getRejected()).isEqualTo(1);
+		assertThat(admission.estimateBytes(ReportFormat.DOCX, 9, 3)).isEqualTo(30 * 2048);
+	}
+	
+	@Test
+	void rejectsWhenQueueIsFullOrWaitTimesOut() throws Exception {
+		ReportAdmission noQueue = new ReportAdmission(config(1, 0, 30), HEAP_BYTES);
+		try (ReportAdmission.Permit permit = noQueue.acquire(100)) {
+			assertThatThrownBy(() -> noQueue.acquire(100)).isInstanceOf(ReportOverloadedException.class);
+		}
+		
+		ReportAdmission noWait = new ReportAdmission(config(1, 1, 0), HEAP_BYTES);
+		try (ReportAdmission.Permit permit = noWait.acquire(100)) {
+			assertThatThrownBy(() -> noWait.acquire(100)).isInstanceOf(ReportOverloadedException.class);
+		}
+		assertThat(noWait.getStats().getTimedOut()).isEqualTo(1);
+	}
+	
+	@Test
+	void queuedRenderStartsAfterRelease() throws Exception {
+		ReportAdmission admission = new ReportAdmission(config(1, 1, 30), HEAP_BYTES);
+		ReportAdmission.Permit first = admission.acquire(100);
+		
+		CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> {
+			try (ReportAdmission.Permit permit = admission.acquire(100)) {
+				assertThat(admission.getStats().getActiveRenders()).isEqualTo(1);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		await().atMost(5, TimeUnit.SECONDS).until(() -> admission.getStats().getQueueDepth() == 1);
+		first.close();
+		queued.get(5, TimeUnit.SECONDS);
+		
+		ReportAdmissionStats stats = admission.getStats();
+		assertThat(stats.getAdmitted()).isEqualTo(2);
+		assertThat(stats.getMaxQueueDepth()).isEqualTo(1);
+		assertThat(stats.getQueueDepth()).isZero();
+		assertThat(stats.getReservedBytes()).isZero();
+	}
+	
+	private static ReportConfig config(int maxConcurrent, int maxQueued, long queueTimeoutSeconds) {
+		ReportConfig reportConfig = new ReportConfig();
+		reportConfig.getAdmission().setMaxConcurrent(maxConcurrent);
+		reportConfig.getAdmission().setMaxQueued(maxQueued);
+		reportConfig.getAdmission().setQueueTimeoutSeconds(queueTimeoutSeconds);
+		reportConfig.getAdmission().setRetryAfterSeconds(7);
+		return reportConfig;
+	}
+}
@@ -0,0 +1,35 @@
+package com.api.backend.report;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxTableWriterTest {
+	
+	@Test
+	void writesEveryRowBeyondTheStreamingWindow() throws IOException {
+		List<ReportColumn<Integer>> columns = List.of(
+				new ReportColumn<>("№", 400, 400, (value, rowNumber) -> String.valueOf(rowNumber)),
+				new ReportColumn<>("Фамилия", 1200, 1200, (value, rowNumber) -> "Фамилия" + value)
+		);
+		
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		XlsxTableWriter.write(outputStream, "Отчет", columns, IntStream.range(0, 1000).boxed().iterator());
+		
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+			Sheet sheet = workbook.getSheet("Отчет");
+			assertThat(sheet.getLastRowNum()).isEqualTo(1000);
+			assertThat(sheet.getRow(0).getCell(1).getStringCellValue()).isEqualTo("Фамилия");
+			assertThat(sheet.getRow(1000).getCell(0).getStringCellValue()).isEqualTo("1000");
+			assertThat(sheet.getRow(1000).getCell(1).getStringCellValue()).isEqualTo("Фамилия999");
+		}
+	}
+}
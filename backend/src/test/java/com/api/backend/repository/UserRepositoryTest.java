@@ -0,0 +1,76 @@
+package com.api.backend.repository;
+
+import com.api.backend.model.User;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.report.UserReportRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class UserRepositoryTest {
+	
+	private static final LocalDate ADULT_BIRTH_DATE_LIMIT = LocalDate.of(2008, 6, 1);
+	
+	@Autowired
+	private UserRepository userRepository;
+	
+	// Флаги в проекции должны совпадать с правилами сущности User
+	@Test
+	void reportRowsMatchEntityRules() {
+		List<User> users = userRepository.saveAll(List.of(
+				user(UserRole.GUEST, null, null, Squad.GNOM),
+				user(UserRole.GUEST, null, null, null),
+				user(UserRole.NOVICE, EventLocation.BANQUET, LocalDate.of(2010, 3, 15), null),
+				user(UserRole.NOVICE, EventLocation.BOTH, ADULT_BIRTH_DATE_LIMIT, null),
+				user(UserRole.NOVICE, EventLocation.OFFICIAL_PART, LocalDate.of(2010, 3, 15), null),
+				user(UserRole.NOVICE, EventLocation.BANQUET, null, null),
+				user(UserRole.FIGHTER, EventLocation.BOTH, null, null),
+				user(UserRole.VETERAN, null, null, null)));
+		
+		List<UserReportRow> rows = userRepository.findAllReportRows(ADULT_BIRTH_DATE_LIMIT);
+		
+		assertThat(rows).extracting(UserReportRow::isValid)
+				.containsExactly(true, false, true, true, true, false, true, false);
+		assertThat(rows).extracting(UserReportRow::isShowAlcoholWarning)
+				.containsExactly(false, false, true, false, false, false, false, false);
+		assertThat(rows).extracting(UserReportRow::getSurname)
+				.containsExactlyElementsOf(users.stream().map(User::getSurname).toList());
+		assertThat(userRepository.findReportRowsByRole(UserRole.NOVICE, ADULT_BIRTH_DATE_LIMIT)).hasSize(4);
+	}
+	
+	@Test
+	void streamedReportRowsMatchLoadedRows() {
+		userRepository.saveAll(List.of(
+				user(UserRole.GUEST, null, null, Squad.VEGA),
+				user(UserRole.FIGHTER, EventLocation.BANQUET, null, null),
+				user(UserRole.FIGHTER, EventLocation.OFFICIAL_PART, null, null)));
+		
+		try (Stream<UserReportRow> rows = userRepository.streamAllReportRows(ADULT_BIRTH_DATE_LIMIT)) {
+			assertThat(rows.map(UserReportRow::getSurname)).containsExactlyElementsOf(
+					userRepository.findAllReportRows(ADULT_BIRTH_DATE_LIMIT).stream().map(UserReportRow::getSurname).toList());
+		}
+		try (Stream<UserReportRow> rows = userRepository.streamReportRowsByRole(UserRole.FIGHTER, ADULT_BIRTH_DATE_LIMIT)) {
+			assertThat(rows).extracting(UserReportRow::getRole).containsOnly(UserRole.FIGHTER).hasSize(2);
+		}
+	}
+	
+	private static User user(UserRole role, EventLocation location, LocalDate birthDate, Squad squad) {
+		User user = new User();
+		user.setName("Имя");
+		user.setSurname(role + "-" + location + "-" + birthDate + "-" + squad);
+		user.setRole(role);
+		user.setEventLocation(location);
+		user.setBirthDate(birthDate);
+		user.setSquad(squad);
+		return user;
+	}
+}
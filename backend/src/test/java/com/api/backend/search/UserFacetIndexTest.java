@@ -0,0 +1,80 @@
+package com.api.backend.search;
+
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.model.User;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserFacetIndexTest {
+	
+	private UserFacetIndex index;
+	
+	@BeforeEach
+	void setUp() {
+		index = new UserFacetIndex(null);
+		index.rebuild(List.of(
+				row(1L, UserRole.FIGHTER, EventLocation.BANQUET, true),
+				row(2L, UserRole.VETERAN, EventLocation.BANQUET, true),
+				row(3L, UserRole.VETERAN, EventLocation.OFFICIAL_PART, true),
+				row(4L, UserRole.NOVICE, EventLocation.BANQUET, null),
+				new UserFacetRow(5L, UserRole.GUEST, Squad.GNOM, null, null, null, null, true, null)));
+	}
+	
+	// Внутри атрибута значения по ИЛИ, атрибуты по И; счетчики атрибута без его собственного условия
+	@Test
+	void combinesFiltersAndCountsFacets() {
+		UserFacetIndex.FacetResult result = index.filter(Map.of(
+				UserFacet.ROLE, Set.of("FIGHTER", "VETERAN"),
+				UserFacet.EVENT_LOCATION, Set.of("BANQUET"),
+				UserFacet.HAS_CAR, Set.of("true")), 10);
+		
+		assertThat(result.total()).isEqualTo(2);
+		assertThat(result.ids()).containsExactly(1L, 2L);
+		assertThat(result.facets().get("role"))
+				.containsEntry("FIGHTER", 1).containsEntry("VETERAN", 1).containsEntry("NOVICE", 0);
+		assertThat(result.facets().get("eventLocation"))
+				.containsEntry("BANQUET", 2).containsEntry("OFFICIAL_PART", 1);
+		assertThat(result.facets().get("hasCar")).containsEntry("true", 2).containsEntry("false", 0);
+		
+		UserFacetIndex.FacetResult all = index.filter(Map.of(), 2);
+		assertThat(all.total()).isEqualTo(5);
+		assertThat(all.ids()).containsExactly(1L, 2L);
+		assertThat(all.facets().get("needSpeech")).containsEntry("true", 1).containsEntry("false", 4);
+		assertThat(all.facets().get("squad")).containsEntry("GNOM", 1);
+	}
+	
+	@Test
+	void followsUserChangesAndReusesSlots() {
+		index.onUserChanged(UserChangedEvent.deleted(user(1L, UserRole.FIGHTER, EventLocation.BANQUET)));
+		index.onUserChanged(UserChangedEvent.updated(user(2L, UserRole.VETERAN, EventLocation.BANQUET),
+				user(2L, UserRole.VETERAN, EventLocation.OFFICIAL_PART)));
+		index.onUserChanged(UserChangedEvent.created(user(6L, UserRole.FIGHTER, EventLocation.BOTH)));
+		
+		UserFacetIndex.FacetResult result = index.filter(Map.of(UserFacet.ROLE, Set.of("FIGHTER", "VETERAN")), 10);
+		assertThat(result.ids()).containsExactly(2L, 3L, 6L);
+		assertThat(result.facets().get("eventLocation"))
+				.containsEntry("BANQUET", 0).containsEntry("OFFICIAL_PART", 2).containsEntry("BOTH", 1);
+		assertThat(result.facets().get("hasCar")).containsEntry("true", 1).containsEntry("false", 2);
+	}
+	
+	private static UserFacetRow row(Long id, UserRole role, EventLocation location, Boolean hasCar) {
+		return new UserFacetRow(id, role, null, location, false, true, hasCar, null, null);
+	}
+	
+	private static User user(Long id, UserRole role, EventLocation location) {
+		User user = new User();
+		user.setId(id);
+		user.setRole(role);
+		user.setEventLocation(location);
+		return user;
+	}
+}
@@ -0,0 +1,38 @@
+package com.api.backend.search;
+
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.model.User;
+
+import java.util.List;
+
+// Общие имена для тестов поисковых структур: ё в исходных данных, слова с общим началом,
+// слова короче триграммы
+final class UserNameFixtures {
+	
+	static final List<UserNameRow> ROWS = List.of(
+			new UserNameRow(1L, "Пётр", "Фёдоров", "Иванович"),
+			new UserNameRow(2L, "Иван", "Петров", null),
+			new UserNameRow(3L, "Анна", "Иванова", "Петровна"),
+			new UserNameRow(4L, "Ян", "Ли", null),
+			new UserNameRow(5L, "Павел", "Петренко", null));
+	
+	private UserNameFixtures() {
+	}
+	
+	// Переименование, удаление и создание: Петров 2 становится Сидоровым, Анна 3 удаляется,
+	// появляется Олег Петровский 6
+	static List<UserChangedEvent> changes() {
+		return List.of(
+				UserChangedEvent.updated(user(2L, "Иван", "Петров"), user(2L, "Иван", "Сидоров")),
+				UserChangedEvent.deleted(user(3L, "Анна", "Иванова")),
+				UserChangedEvent.created(user(6L, "Олег", "Петровский")));
+	}
+	
+	static User user(Long id, String name, String surname) {
+		User user = new User();
+		user.setId(id);
+		user.setName(name);
+		user.setSurname(surname);
+		return user;
+	}
+}
@@ -0,0 +1,76 @@
+package com.api.backend.search;
+
+import com.api.backend.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.api.backend.search.UserNameFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserNameFuzzyIndexTest {
+	
+	private UserNameFuzzyIndex index;
+	
+	@BeforeEach
+	void setUp() {
+		index = new UserNameFuzzyIndex(null);
+		index.rebuild(UserNameFixtures.ROWS);
+	}
+	
+	// Результаты по возрастанию числа правок, без учета регистра и ё
+	@Test
+	void findsNamesWithTyposRankedByDistance() {
+		assertThat(index.search("петрав", 1)).containsExactly(2L);
+		assertThat(index.search("петрав", 2)).containsExactly(2L, 1L);
+		assertThat(index.search("ФЕДАРОВ", 1)).containsExactly(1L);
+		assertThat(index.search("петр фёдаров", 1)).containsExactly(1L);
+		assertThat(index.search("анна федоров", 2)).isEmpty();
+		assertThat(index.search("ли", 0)).containsExactly(4L);
+	}
+	
+	@Test
+	void followsUserChanges() {
+		UserNameFixtures.changes().forEach(index::onUserChanged);
+		
+		assertThat(index.search("сидорв", 1)).containsExactly(2L);
+		assertThat(index.search("петров", 0)).isEmpty();
+		assertThat(index.search("петровский", 0)).containsExactly(6L);
+		assertThat(index.search("анна", 0)).isEmpty();
+	}
+	
+	// Удаленное слово остается в дереве надгробием и оживает при повторном добавлении
+	@Test
+	void reusesTombstoneWhenWordReturns() {
+		int size = index.treeSize();
+		
+		index.onUserChanged(UserChangedEvent.deleted(user(4L, "Ян", "Ли")));
+		assertThat(index.search("ли", 0)).isEmpty();
+		assertThat(index.treeSize()).isEqualTo(size);
+		
+		index.onUserChanged(UserChangedEvent.created(user(7L, "Ян", "Ли")));
+		assertThat(index.search("ли", 0)).containsExactly(7L);
+		assertThat(index.treeSize()).isEqualTo(size);
+	}
+	
+	// Когда надгробий становится больше живых слов (и не меньше порога), дерево строится заново
+	// только из живых слов, и поиск после этого тот же
+	@Test
+	void compactsTreeWhenTombstonesOutnumberLiveWords() {
+		int size = index.treeSize();
+		for (long id = 100; id < 1100; id++) {
+			index.onUserChanged(UserChangedEvent.created(user(id, "Имя", "Фамилия" + id)));
+		}
+		assertThat(index.treeSize()).isEqualTo(size + 1001);
+		
+		for (long id = 100; id < 1099; id++) {
+			index.onUserChanged(UserChangedEvent.deleted(user(id, "Имя", "Фамилия" + id)));
+		}
+		assertThat(index.treeSize()).isEqualTo(size + 1001);
+		index.onUserChanged(UserChangedEvent.deleted(user(1099L, "Имя", "Фамилия1099")));
+		
+		assertThat(index.treeSize()).isEqualTo(size);
+		assertThat(index.search("фамилия150", 1)).isEmpty();
+		assertThat(index.search("федоров", 0)).containsExactly(1L);
+		assertThat(index.search("петрав", 2)).containsExactly(2L, 1L);
+	}
+}
@@ -0,0 +1,59 @@
+package com.api.backend.search;
+
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.api.backend.search.UserNameFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserNameIndexTest {
+	
+	private UserNameIndex index;
+	
+	@BeforeEach
+	void setUp() {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findAllNameRows()).thenReturn(UserNameFixtures.ROWS);
+		index = new UserNameIndex(userRepository);
+		index.rebuild();
+	}
+	
+	// Поиск подстроки без учета регистра и различия ё/е, лучшие совпадения первыми
+	@Test
+	void findsSubstringsIgnoringCaseAndYo() {
+		assertThat(index.search("федор")).containsExactly(1L);
+		assertThat(index.search("ПЁТР")).containsExactly(1L, 2L, 5L, 3L);
+		assertThat(index.search("иван")).containsExactly(2L, 3L, 1L);
+		assertThat(index.search("ванова")).containsExactly(3L);
+		assertThat(index.search("анна петр")).containsExactly(3L);
+		assertThat(index.search("сидоров")).isEmpty();
+	}
+	
+	// У слов короче триграммы нет списков в индексе: такие запросы проверяют все имена,
+	// а рядом с длинным словом короткое только отсеивает его кандидатов
+	@Test
+	void shortWordsFallBackToScan() {
+		assertThat(index.search("ли")).containsExactly(4L);
+		assertThat(index.search("ко")).containsExactly(5L);
+		assertThat(index.search("ян ли")).containsExactly(4L);
+		assertThat(index.search("па петр")).containsExactly(5L);
+		
+		index.onUserChanged(UserChangedEvent.created(user(6L, "Ли", "Ким")));
+		index.onUserChanged(UserChangedEvent.deleted(user(4L, "Ян", "Ли")));
+		assertThat(index.search("ли")).containsExactly(6L);
+		assertThat(index.search("ян")).isEmpty();
+	}
+	
+	@Test
+	void followsUserChanges() {
+		UserNameFixtures.changes().forEach(index::onUserChanged);
+		
+		assertThat(index.search("петров")).containsExactly(6L);
+		assertThat(index.search("сидоров")).containsExactly(2L);
+		assertThat(index.search("анна")).isEmpty();
+	}
+}
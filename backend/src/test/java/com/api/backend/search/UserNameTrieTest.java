@@ -0,0 +1,64 @@
+package com.api.backend.search;
+
+import com.api.backend.dto.response.UserSuggestion;
+import com.api.backend.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.api.backend.search.UserNameFixtures.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserNameTrieTest {
+	
+	private UserNameTrie trie;
+	
+	@BeforeEach
+	void setUp() {
+		trie = new UserNameTrie(null);
+		trie.rebuild(UserNameFixtures.ROWS);
+	}
+	
+	// По алфавиту слов, фамилии и имена вместе, каждый пользователь один раз
+	@Test
+	void suggestsUsersByPrefixInAlphabeticalOrder() {
+		assertThat(ids(trie.suggest("пет", 10))).containsExactly(1L, 5L, 2L);
+		assertThat(ids(trie.suggest("ПЁТРО", 10))).containsExactly(2L);
+		assertThat(ids(trie.suggest("п", 10))).containsExactly(5L, 1L, 2L);
+		assertThat(ids(trie.suggest("ива", 1))).containsExactly(2L);
+		assertThat(trie.suggest("петровский", 10)).isEmpty();
+		assertThat(trie.suggest("петре", 1).get(0)).isEqualTo(new UserSuggestion(5L, "Петренко", "Павел"));
+	}
+	
+	@Test
+	void followsUserChanges() {
+		UserNameFixtures.changes().forEach(trie::onUserChanged);
+		
+		assertThat(ids(trie.suggest("пет", 10))).containsExactly(1L, 5L, 6L);
+		assertThat(ids(trie.suggest("с", 10))).containsExactly(2L);
+		assertThat(trie.suggest("анна", 10)).isEmpty();
+	}
+	
+	// Узел «петр» без своих пользователей с единственным потомком «ов» склеивается с ним,
+	// поэтому после удалений дерево совпадает с построенным заново по оставшимся словам
+	@Test
+	void deletesMergeSingleChildNodes() {
+		trie.onUserChanged(UserChangedEvent.deleted(user(5L, "Павел", "Петренко")));
+		trie.onUserChanged(UserChangedEvent.deleted(user(1L, "Пётр", "Фёдоров")));
+		
+		UserNameTrie rebuilt = new UserNameTrie(null);
+		rebuilt.rebuild(UserNameFixtures.ROWS.stream().filter(row -> row.id() != 1L && row.id() != 5L).toList());
+		assertThat(trie.nodeCount()).isEqualTo(rebuilt.nodeCount());
+		assertThat(ids(trie.suggest("петр", 10))).containsExactly(2L);
+		
+		// Склеенную метку снова можно разделить
+		trie.onUserChanged(UserChangedEvent.created(user(6L, "Пётр", "Петрович")));
+		assertThat(ids(trie.suggest("петр", 10))).containsExactly(6L, 2L);
+		assertThat(ids(trie.suggest("петрови", 10))).containsExactly(6L);
+	}
+	
+	private static List<Long> ids(List<UserSuggestion> suggestions) {
+		return suggestions.stream().map(UserSuggestion::getId).toList();
+	}
+}
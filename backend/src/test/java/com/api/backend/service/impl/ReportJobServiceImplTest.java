@@ -0,0 +1,163 @@
+package com.api.backend.service.impl;
+
+import com.api.backend.config.ReportConfig;
+import com.api.backend.dto.request.ReportJobRequest;
+import com.api.backend.dto.response.ReportJobResponse;
+import com.api.backend.dto.response.StreamingReportResponse;
+import com.api.backend.model.enums.ReportFormat;
+import com.api.backend.model.enums.ReportJobStatus;
+import com.api.backend.model.enums.ReportType;
+import com.api.backend.service.ReportProgress;
+import com.api.backend.service.ReportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReportJobServiceImplTest {
+	
+	@TempDir
+	Path tempDir;
+	
+	private final ReportService reportService = mock(ReportService.class);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final ReportConfig reportConfig = new ReportConfig();
+	private ReportJobServiceImpl reportJobService;
+	
+	@BeforeEach
+	void setUp() throws IOException {
+		reportConfig.getJobs().setDirectory(tempDir.toString());
+		reportConfig.getJobs().setPoolSize(1);
+		reportConfig.getJobs().setQueueCapacity(1);
+		reportJobService = new ReportJobServiceImpl(reportService, reportConfig);
+		reportJobService.init();
+		
+		// Отчет из трех строк: первая отрисовывается сразу, остальные после release
+		when(reportService.streamAllUsersReport(eq(ReportFormat.DOCX), any())).thenAnswer(invocation -> {
+			ReportProgress progress = invocation.getArgument(1);
+			return new StreamingReportResponse("complete_users_report", outputStream -> {
+				progress.start(3);
+				writeRow(outputStream, progress, "rep");
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				writeRow(outputStream, progress, "o");
+				writeRow(outputStream, progress, "rt");
+			});
+		});
+	}
+	
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		reportJobService.destroy();
+	}
+	
+	@Test
+	void completedJobCanBeDownloaded() throws Exception {
+		ReportJobResponse job = reportJobService.submitJob(allUsersRequest());
+		assertThat(job.getStatus()).isIn(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING);
+		
+		release.countDown();
+		ReportJobResponse finished = awaitFinished(job.getId());
+		assertThat(finished.getStatus()).isEqualTo(ReportJobStatus.COMPLETED);
+		assertThat(finished.getTotalRows()).isEqualTo(3);
+		assertThat(finished.getRowsRendered()).isEqualTo(3);
+		assertThat(finished.getExpiresAt()).isNotNull();
+		
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		reportJobService.downloadJobResult(job.getId()).getWriter().writeTo(outputStream);
+		assertThat(outputStream.toString()).isEqualTo("report");
+	}
+	
+	@Test
+	void runningJobReportsRenderedRows() throws Exception {
+		ReportJobResponse job = reportJobService.submitJob(allUsersRequest());
+		
+		ReportJobResponse running = awaitRows(job.getId(), 1);
+		assertThat(running.getStatus()).isEqualTo(ReportJobStatus.RUNNING);
+		assertThat(running.getTotalRows()).isEqualTo(3);
+	}
+	
+	@Test
+	void expiredJobIsKeptWhileDownloadIsInProgress() throws Exception {
+		reportConfig.getJobs().setArtifactTtlSeconds(0);
+		ReportJobResponse job = reportJobService.submitJob(allUsersRequest());
+		release.countDown();
+		awaitFinished(job.getId());
+		Thread.sleep(5);
+		
+		StreamingReportResponse download = reportJobService.downloadJobResult(job.getId());
+		reportJobService.removeExpiredJobs();
+		
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		download.getWriter().writeTo(outputStream);
+		assertThat(outputStream.toString()).isEqualTo("report");
+		
+		reportJobService.removeExpiredJobs();
+		assertThatThrownBy(() -> reportJobService.getJob(job.getId()))
+				.isInstanceOf(ResponseStatusException.class)
+				.hasMessageContaining("404");
+	}
+	
+	@Test
+	void jobIsRejectedWhenQueueIsFull() {
+		reportJobService.submitJob(allUsersRequest());
+		reportJobService.submitJob(allUsersRequest());
+		
+		// Один поток занят, одно место в очереди занято
+		assertThatThrownBy(() -> reportJobService.submitJob(allUsersRequest()))
+				.isInstanceOf(ResponseStatusException.class)
+				.hasMessageContaining("503");
+	}
+	
+	private ReportJobResponse awaitFinished(String id) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			ReportJobResponse job = reportJobService.getJob(id);
+			if (job.getFinishedAt() != null) {
+				return job;
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Задача не завершилась: " + id);
+	}
+	
+	private ReportJobResponse awaitRows(String id, long rows) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			ReportJobResponse job = reportJobService.getJob(id);
+			if (job.getRowsRendered() >= rows) {
+				return job;
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Задача не отрисовала строки: " + id);
+	}
+	
+	private static void writeRow(OutputStream outputStream, ReportProgress progress, String row) throws IOException {
+		outputStream.write(row.getBytes());
+		progress.rowRendered();
+	}
+	
+	private static ReportJobRequest allUsersRequest() {
+		ReportJobRequest request = new ReportJobRequest();
+		request.setType(ReportType.ALL_USERS);
+		return request;
+	}
+}
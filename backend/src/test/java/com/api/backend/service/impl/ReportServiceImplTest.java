@@ -0,0 +1,277 @@
+package com.api.backend.service.impl;
+
+import com.api.backend.cache.ReportCache;
+import com.api.backend.cache.ReportCacheKey;
+import com.api.backend.cache.ReportSpool;
+import com.api.backend.cache.UserDataVersion;
+import com.api.backend.config.ReportConfig;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.ReportFormat;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.report.CsvTableWriter;
+import com.api.backend.report.ReportAdmission;
+import com.api.backend.report.UserReportColumns;
+import com.api.backend.report.UserReportRow;
+import com.api.backend.report.UserReportRowReader;
+import com.api.backend.repository.UserRepository;
+import com.api.backend.service.ReportProgress;
+import com.api.backend.service.ReportWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReportServiceImplTest {
+	
+	private static final int USERS_COUNT = 500;
+	
+	@TempDir
+	Path tempDir;
+	
+	// Выделения памяти считаются по текущему потоку (не удерживаемая куча): буферизованный путь
+	// выделяет как минимум еще одну копию документа. Копия в ByteArrayOutputStream выдала бы документ
+	// в выходной поток одной большой записью, поэтому проверяется и размер самой большой записи
+	@Test
+	void streamingReportWritesDocumentWithoutIntermediateBuffer() throws IOException {
+		UserRepository userRepository = mock(UserRepository.class);
+		List<UserReportRow> rows = createRows(USERS_COUNT);
+		when(userRepository.streamAllReportRows(any())).thenAnswer(invocation -> rows.stream());
+		ReportServiceImpl reportService = createReportService(userRepository, new UserDataVersion(),
+				disabledSpool());
+		
+		// Первые вызовы загружают классы POI, иначе их выделения попали бы в замер
+		reportService.generateAllUsersReport();
+		reportService.streamAllUsersReport(ReportFormat.DOCX).getWriter().writeTo(new CountingOutputStream());
+		
+		long bufferedStart = allocatedBytes();
+		byte[] content = reportService.generateAllUsersReport().getContent();
+		long bufferedAllocated = allocatedBytes() - bufferedStart;
+		
+		CountingOutputStream outputStream = new CountingOutputStream();
+		long streamingStart = allocatedBytes();
+		reportService.streamAllUsersReport(ReportFormat.DOCX).getWriter().writeTo(outputStream);
+		long streamingAllocated = allocatedBytes() - streamingStart;
+		
+		// Размер может отличаться на пару байт из-за отметок времени внутри архива
+		assertThat(outputStream.count).isCloseTo(content.length, within(64L));
+		assertThat(bufferedAllocated - streamingAllocated).isGreaterThanOrEqualTo(content.length);
+		assertThat(outputStream.maxWrite).isLessThan(content.length / 4);
+	}
+	
+	@Test
+	void streamingReportReportsRenderedRows() throws IOException {
+		UserRepository userRepository = mock(UserRepository.class);
+		List<UserReportRow> rows = createRows(40).stream()
+				.filter(row -> row.getRole() == UserRole.FIGHTER)
+				.toList();
+		when(userRepository.countByRole(UserRole.FIGHTER)).thenReturn((long) rows.size());
+		when(userRepository.streamReportRowsByRole(any(), any())).thenAnswer(invocation -> rows.stream());
+		ReportServiceImpl reportService = createReportService(userRepository, new UserDataVersion(),
+				disabledSpool());
+		
+		List<Long> totals = new ArrayList<>();
+		long[] rendered = new long[1];
+		ReportProgress progress = new ReportProgress() {
+			@Override
+			public void start(long totalRows) {
+				totals.add(totalRows);
+			}
+			
+			@Override
+			public void rowRendered() {
+				rendered[0]++;
+			}
+		};
+		reportService.streamRoleReport(UserRole.FIGHTER, ReportFormat.CSV, progress).getWriter()
+				.writeTo(new ByteArrayOutputStream());
+		
+		assertThat(totals).containsExactly(10L);
+		assertThat(rendered[0]).isEqualTo(10);
+	}
+	
+	@Test
+	void bundleLoadsUsersOnceAndContainsEveryReport() throws IOException {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findAllReportRows(any())).thenReturn(createRows(40));
+		ReportServiceImpl reportService = createReportService(userRepository, new UserDataVersion(),
+				disabledSpool());
+		
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		reportService.streamReportsBundle(ReportFormat.DOCX).getWriter().writeTo(outputStream);
+		reportService.destroy();
+		
+		List<String> entries = new ArrayList<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				entries.add(entry.getName());
+			}
+		}
+		assertThat(entries).containsExactly(
+				"complete_users_report.docx", "guest_report.docx", "novice_report.docx",
+				"fighter_report.docx", "veteran_report.docx");
+		verify(userRepository, times(1)).findAllReportRows(any());
+		verify(userRepository, never()).streamReportRowsByRole(any(), any());
+		assertThat(reportService.getAdmissionStats().getAdmitted()).isEqualTo(1);
+	}
+	
+	@Test
+	void bundleWritesNothingWhenAnyReportFails() throws IOException {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findAllReportRows(any())).thenReturn(createRows(40));
+		ReportCache reportCache = mock(ReportCache.class);
+		doAnswer(invocation -> {
+			ReportCacheKey key = invocation.getArgument(0);
+			if (key.role() == UserRole.VETERAN) {
+				throw new IOException("Ошибка построения");
+			}
+			invocation.<ReportWriter>getArgument(1).writeTo(invocation.getArgument(2));
+			return null;
+		}).when(reportCache).write(any(), any(), any());
+		ReportServiceImpl reportService = createReportService(userRepository, new UserDataVersion(),
+				disabledSpool(), reportCache);
+		
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		assertThatThrownBy(() -> reportService.streamReportsBundle(ReportFormat.CSV).getWriter().writeTo(outputStream))
+				.isInstanceOf(IOException.class);
+		reportService.destroy();
+		
+		assertThat(outputStream.size()).isZero();
+		assertThat(reportService.getAdmissionStats().getActiveRenders()).isZero();
+		try (Stream<Path> files = Files.list(tempDir).flatMap(ReportServiceImplTest::list)) {
+			assertThat(files).isEmpty();
+		}
+	}
+	
+	@Test
+	void prerenderedReportIsServedWithoutRendering() throws IOException {
+		UserRepository userRepository = mock(UserRepository.class);
+		List<UserReportRow> rows = createRows(20);
+		when(userRepository.streamAllReportRows(any())).thenAnswer(invocation -> rows.stream());
+		when(userRepository.streamReportRowsByRole(any(), any())).thenAnswer(invocation -> rows.stream()
+				.filter(row -> row.getRole() == invocation.getArgument(0)));
+		
+		ReportConfig reportConfig = new ReportConfig();
+		reportConfig.getPrerender().setDirectory(tempDir.toString());
+		reportConfig.getPrerender().setFormats(List.of(ReportFormat.CSV));
+		ReportSpool spool = new ReportSpool(reportConfig);
+		spool.init();
+		UserDataVersion userDataVersion = new UserDataVersion();
+		ReportServiceImpl reportService = createReportService(userRepository, userDataVersion, spool);
+		
+		reportService.prerenderReports();
+		verify(userRepository, times(1)).streamAllReportRows(any());
+		verify(userRepository, times(UserRole.values().length)).streamReportRowsByRole(any(), any());
+		
+		ByteArrayOutputStream prerendered = new ByteArrayOutputStream();
+		reportService.streamAllUsersReport(ReportFormat.CSV).getWriter().writeTo(prerendered);
+		verify(userRepository, times(1)).streamAllReportRows(any());
+		// Новая версия не строится, поэтому устаревший файл не отдается, а отчет строится по запросу
+		userDataVersion.bump();
+		ByteArrayOutputStream afterChange = new ByteArrayOutputStream();
+		reportService.streamAllUsersReport(ReportFormat.CSV).getWriter().writeTo(afterChange);
+		verify(userRepository, times(2)).streamAllReportRows(any());
+		
+		ByteArrayOutputStream rendered = new ByteArrayOutputStream();
+		reportService.streamAllUsersReport(ReportFormat.XLSX).getWriter().writeTo(rendered);
+		verify(userRepository, times(3)).streamAllReportRows(any());
+		
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		CsvTableWriter.write(expected, UserReportColumns.COMPLETE, rows.iterator());
+		assertThat(prerendered.toByteArray()).isEqualTo(expected.toByteArray());
+		assertThat(afterChange.toByteArray()).isEqualTo(expected.toByteArray());
+		spool.destroy();
+	}
+	
+	private ReportServiceImpl createReportService(UserRepository userRepository, UserDataVersion userDataVersion,
+												  ReportSpool spool) throws IOException {
+		return createReportService(userRepository, userDataVersion, spool, disabledCache());
+	}
+	
+	private ReportServiceImpl createReportService(UserRepository userRepository, UserDataVersion userDataVersion,
+												  ReportSpool spool, ReportCache reportCache) throws IOException {
+		ReportConfig reportConfig = new ReportConfig();
+		reportConfig.getBundle().setDirectory(tempDir.toString());
+		ReportServiceImpl reportService = new ReportServiceImpl(new UserReportRowReader(userRepository), reportCache,
+				userDataVersion, new ReportAdmission(reportConfig), spool, reportConfig);
+		reportService.init();
+		return reportService;
+	}
+	
+	private static ReportSpool disabledSpool() {
+		ReportConfig reportConfig = new ReportConfig();
+		reportConfig.getPrerender().setEnabled(false);
+		return new ReportSpool(reportConfig);
+	}
+	
+	// Без кэша каждый вызов действительно строит документ
+	private static ReportCache disabledCache() {
+		ReportConfig reportConfig = new ReportConfig();
+		reportConfig.getCache().setEnabled(false);
+		return new ReportCache(reportConfig);
+	}
+	
+	private static Stream<Path> list(Path directory) {
+		try {
+			return Files.list(directory);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	
+	private static long allocatedBytes() {
+		com.sun.management.ThreadMXBean threadMXBean =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+	
+	private static List<UserReportRow> createRows(int count) {
+		List<UserReportRow> rows = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			rows.add(new UserReportRow("Фамилия" + i, "Имя" + i, "Отчество" + i,
+					UserRole.values()[i % UserRole.values().length], null, LocalDate.of(2000, 1, 1),
+					EventLocation.BOTH, true, "Орехи", "Без мяса", true, "Вино", false,
+					true, "Отряд", "Друзья", true, "Группа", false));
+		}
+		return rows;
+	}
+	
+	private static class CountingOutputStream extends OutputStream {
+		private long count;
+		private int maxWrite;
+		
+		@Override
+		public void write(int b) {
+			count++;
+			maxWrite = Math.max(maxWrite, 1);
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+			maxWrite = Math.max(maxWrite, len);
+		}
+	}
+}
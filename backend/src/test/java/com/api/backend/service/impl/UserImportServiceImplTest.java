@@ -0,0 +1,90 @@
+package com.api.backend.service.impl;
+
+import com.api.backend.cache.UserDataVersion;
+import com.api.backend.dto.response.UserImportResponse;
+import com.api.backend.dto.response.UserRowError;
+import com.api.backend.model.User;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.readmodel.UserReadModel;
+import com.api.backend.repository.UserRepository;
+import com.api.backend.search.UserFacetIndex;
+import com.api.backend.search.UserNameFuzzyIndex;
+import com.api.backend.search.UserNameIndex;
+import com.api.backend.search.UserNameTrie;
+import com.api.backend.stats.UserStatsCounters;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({UserImportServiceImpl.class, UserServiceImpl.class, UserDataVersion.class, UserNameIndex.class,
+		UserNameFuzzyIndex.class, UserNameTrie.class, UserFacetIndex.class, UserStatsCounters.class,
+		UserBulkDeleter.class, UserReadModel.class})
+class UserImportServiceImplTest {
+	
+	@Autowired
+	private UserRepository userRepository;
+	
+	@Autowired
+	private UserImportServiceImpl userImportService;
+	
+	// Правильные строки сохраняются, ошибочные перечисляются с номерами строк файла
+	@Test
+	void importsValidRowsAndReportsInvalidOnes() {
+		String csv = "№;Фамилия;Имя;Роль;Отряд;Дата рождения;Место события;Машина\n" +
+				"1;Петров;Иван;Гость;Ваганты;;;\n" +
+				"2;Сидорова;Анна;Новичок;;15.03.2008;Банкет;\n" +
+				"\n" +
+				"3;Кузнецов;Олег;Боец;;;Официальная часть и банкет;Да\n" +
+				"4;Попов;Павел;Директор;;;Банкет;\n" +
+				"5;Волков;Артем;Новичок;;;Банкет;Да\n";
+		
+		UserImportResponse response = userImportService.importUsers(csvFile(csv));
+		
+		assertThat(response.getTotalRows()).isEqualTo(5);
+		assertThat(response.getImported()).isEqualTo(3);
+		assertThat(response.getFailed()).isEqualTo(2);
+		assertThat(response.getErrors()).containsExactly(
+				new UserRowError(6, List.of("Роль: неизвестная роль Директор")),
+				new UserRowError(7, List.of("Новичок не может указывать наличие машины",
+						"Новичок должен указать дату рождения")));
+		assertThat(userRepository.findAll()).extracting(User::getSurname, User::getRole, User::getSquad,
+						User::getBirthDate, User::getEventLocation, User::getHasCar)
+				.containsExactlyInAnyOrder(
+						tuple("Петров", UserRole.GUEST, Squad.VAGANTS, null, null, null),
+						tuple("Сидорова", UserRole.NOVICE, null, LocalDate.of(2008, 3, 15),
+								EventLocation.BANQUET, null),
+						tuple("Кузнецов", UserRole.FIGHTER, null, null,
+								EventLocation.BOTH, true));
+	}
+	
+	@Test
+	void rejectsFileWithoutRequiredColumns() {
+		assertThatThrownBy(() -> userImportService.importUsers(csvFile("Фамилия,Имя\nПетров,Иван\n")))
+				.isInstanceOf(ResponseStatusException.class)
+				.hasMessageContaining("Роль");
+		assertThatThrownBy(() -> userImportService.importUsers(new MockMultipartFile("file", "users.txt",
+				"text/plain", new byte[0])))
+				.isInstanceOf(ResponseStatusException.class);
+	}
+	
+	private static MockMultipartFile csvFile(String content) {
+		return new MockMultipartFile("file", "users.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+	}
+}
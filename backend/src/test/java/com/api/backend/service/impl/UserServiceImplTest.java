@@ -0,0 +1,255 @@
+package com.api.backend.service.impl;
+
+import com.api.backend.cache.UserDataVersion;
+import com.api.backend.dto.request.UserRequest;
+import com.api.backend.dto.response.BulkDeleteResponse;
+import com.api.backend.dto.response.UserBatchResponse;
+import com.api.backend.dto.response.UserPageResponse;
+import com.api.backend.dto.response.UserResponse;
+import com.api.backend.dto.response.UserRowError;
+import com.api.backend.dto.response.UserValidationResponse;
+import com.api.backend.exception.UserValidationException;
+import com.api.backend.model.User;
+import com.api.backend.model.UserFieldViolation;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.readmodel.UserReadModel;
+import com.api.backend.repository.UserRepository;
+import com.api.backend.search.UserFacetIndex;
+import com.api.backend.search.UserNameFuzzyIndex;
+import com.api.backend.search.UserNameIndex;
+import com.api.backend.search.UserNameTrie;
+import com.api.backend.stats.UserStatsCounters;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+@DataJpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({UserServiceImpl.class, UserDataVersion.class, UserNameIndex.class, UserNameFuzzyIndex.class,
+		UserNameTrie.class, UserFacetIndex.class, UserStatsCounters.class,
+		UserBulkDeleter.class, UserReadModel.class})
+class UserServiceImplTest {
+	
+	@Autowired
+	private UserRepository userRepository;
+	
+	@Autowired
+	private UserServiceImpl userService;
+	
+	@Autowired
+	private UserNameIndex userNameIndex;
+	
+	// Страницы по курсору должны выдать каждую строку ровно один раз и в порядке сортировки,
+	// в том числе при одинаковых фамилиях на границе страниц
+	@Test
+	void pagesCoverAllUsersInSortOrder() {
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 23; i++) {
+			users.add(user("Фамилия" + (i % 4), i % 2 == 0 ? UserRole.FIGHTER : UserRole.VETERAN));
+		}
+		userRepository.saveAll(users);
+		
+		assertThat(readAll(cursor -> userService.getUsersPage(5, cursor, "id", null)))
+				.extracting(item -> ((UserResponse) item).getId())
+				.containsExactlyElementsOf(users.stream().map(User::getId).sorted().toList());
+		
+		assertThat(readAll(cursor -> userService.getUsersPage(5, cursor, "surname", null)))
+				.extracting(item -> ((UserResponse) item).getId())
+				.containsExactlyElementsOf(users.stream()
+						.sorted(Comparator.comparing(User::getSurname).thenComparing(User::getId))
+						.map(User::getId).toList());
+		
+		assertThat(readAll(cursor -> userService.getUsersByRolePage("fighter", 3, cursor, "surname", null)))
+				.hasSize(12).extracting(item -> ((UserResponse) item).getRole()).containsOnly(UserRole.FIGHTER);
+		// Транзакция теста не коммитится, поэтому индекс имен строится заново
+		userNameIndex.rebuild();
+		assertThat(readAll(cursor -> userService.searchUsersByNamePage("фамилия1", 2, cursor, null, null)))
+				.extracting(item -> ((UserResponse) item).getId())
+				.containsExactlyElementsOf(users.stream().filter(user -> user.getSurname().equals("Фамилия1"))
+						.map(User::getId).sorted().toList());
+		assertThat(readAll(cursor -> userService.searchUsersByNamePage("фамилия1", 2, cursor, "surname", null)))
+				.extracting(item -> ((UserResponse) item).getId())
+				.containsExactlyElementsOf(users.stream().filter(user -> user.getSurname().equals("Фамилия1"))
+						.map(User::getId).sorted().toList());
+	}
+	
+	// Сортировка меняет только порядок: в обоих порядках совпадения берутся из индекса имен,
+	// с приведением ё к е и поиском каждого слова отдельно
+	@Test
+	void searchPagesMatchSameUsersInEverySortOrder() {
+		User petr = user("Иванов", UserRole.FIGHTER);
+		petr.setName("Пётр");
+		User anna = user("петрова", UserRole.FIGHTER);
+		anna.setName("Анна");
+		User other = user("Алексеев", UserRole.FIGHTER);
+		other.setName("Петр");
+		User annaIvanova = user("Иванова", UserRole.FIGHTER);
+		annaIvanova.setName("Анна");
+		userRepository.saveAll(List.of(petr, anna, other, annaIvanova));
+		userNameIndex.rebuild();
+		
+		assertThat(readAll(cursor -> userService.searchUsersByNamePage("Петр", 1, cursor, "id", null)))
+				.extracting(item -> ((UserResponse) item).getId())
+				.containsExactly(petr.getId(), anna.getId(), other.getId());
+		assertThat(readAll(cursor -> userService.searchUsersByNamePage("Петр", 1, cursor, "surname", null)))
+				.extracting(item -> ((UserResponse) item).getSurname())
+				.containsExactly("Алексеев", "Иванов", "петрова");
+		assertThat(readAll(cursor -> userService.searchUsersByNamePage("анна петр", 1, cursor, "surname", "id")))
+				.containsExactly(Map.of("id", anna.getId()));
+	}
+	
+	@Test
+	void rejectsCursorFromAnotherSortOrder() {
+		userRepository.saveAll(List.of(user("А", UserRole.FIGHTER), user("Б", UserRole.FIGHTER)));
+		
+		UserPageResponse<?> page = userService.getUsersPage(1, null, "id", null);
+		
+		assertThat(page.isHasMore()).isTrue();
+		assertThatThrownBy(() -> userService.getUsersPage(1, page.getNextCursor(), "surname", null))
+				.isInstanceOf(ResponseStatusException.class);
+		assertThatThrownBy(() -> userService.getUsersPage(1, "не курсор", "id", null))
+				.isInstanceOf(ResponseStatusException.class);
+	}
+	
+	// Вычисляемые поля считаются по прочитанным колонкам так же, как в полном ответе
+	@Test
+	void returnsOnlyRequestedFields() {
+		User fighter = user("Боец", UserRole.FIGHTER);
+		User veteran = user("Старик", UserRole.VETERAN);
+		veteran.setEventLocation(null);
+		userRepository.saveAll(List.of(fighter, veteran));
+		
+		List<Map<String, Object>> users = userService.getAllUserFields("surname, valid,attendingBanquet");
+		
+		assertThat(users).hasSize(2);
+		assertThat(users.get(0)).containsExactly(entry("surname", "Боец"), entry("attendingBanquet", true),
+				entry("valid", true));
+		assertThat(users.get(1)).containsExactly(entry("surname", "Старик"), entry("attendingBanquet", false),
+				entry("valid", false));
+		assertThat(userService.getUserFieldsById(veteran.getId(), "valid"))
+				.isEqualTo(Map.of("valid", userService.getUserById(veteran.getId()).getValid()));
+		
+		List<Object> page = readAll(cursor -> userService.getUsersByRolePage("veteran", 1, cursor, "surname", "role"));
+		assertThat(page).containsExactly(Map.of("role", UserRole.VETERAN));
+		assertThatThrownBy(() -> userService.getAllUserFields("name,password"))
+				.isInstanceOf(ResponseStatusException.class);
+	}
+	
+	@Test
+	void createsBatchOnlyWhenAllRowsAreValid() {
+		UserRequest guest = request("Гость", UserRole.GUEST);
+		guest.setSquad(Squad.GNOM);
+		guest.setEventLocation(EventLocation.BOTH);
+		UserRequest withoutSurname = request(" ", UserRole.FIGHTER);
+		withoutSurname.setEventLocation(EventLocation.BOTH);
+		UserRequest withoutLocation = request("Старик", UserRole.VETERAN);
+		
+		UserBatchResponse rejected = userService.createUsers(
+				List.of(fighterRequest("Боец"), guest, withoutSurname, withoutLocation));
+		
+		assertThat(rejected.getCreated()).isZero();
+		assertThat(rejected.getErrors()).containsExactly(
+				new UserRowError(1, List.of("Гость не может указывать место события")),
+				new UserRowError(2, List.of("Фамилия обязательна")),
+				new UserRowError(3, List.of("Старик должен указать место события")));
+		assertThat(userRepository.count()).isZero();
+		
+		UserBatchResponse created = userService.createUsers(List.of(fighterRequest("Первый"), fighterRequest("Второй")));
+		
+		assertThat(created.getErrors()).isEmpty();
+		assertThat(created.getUsers()).extracting(UserResponse::getId).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(userRepository.count()).isEqualTo(2);
+	}
+	
+	@Test
+	void deletesExistingUsersAndReportsMissingIds() {
+		User first = user("Первый", UserRole.FIGHTER);
+		User second = user("Второй", UserRole.VETERAN);
+		User kept = user("Третий", UserRole.FIGHTER);
+		userRepository.saveAll(List.of(first, second, kept));
+		long missingId = kept.getId() + 1000;
+		
+		BulkDeleteResponse response = userService.deleteUsers(List.of(first.getId(), missingId, second.getId(),
+				first.getId()));
+		
+		assertThat(response.getDeleted()).isEqualTo(2);
+		assertThat(response.getScheduled()).isZero();
+		assertThat(response.getMissingIds()).containsExactly(missingId);
+		assertThat(userRepository.findAll()).extracting(User::getId).containsExactly(kept.getId());
+	}
+	
+	// Пробная проверка возвращает все нарушения сразу и ничего не сохраняет, createUser отклоняет ту же анкету
+	@Test
+	void validatesRequestWithoutSaving() {
+		UserRequest novice = request(" ", UserRole.NOVICE);
+		novice.setSquad(Squad.GNOM);
+		
+		UserValidationResponse response = userService.validateUserRequest(novice);
+		
+		assertThat(response.isValid()).isFalse();
+		assertThat(response.getViolations()).containsExactly(
+				new UserFieldViolation("surname", UserFieldViolation.Code.INVALID, "Фамилия обязательна"),
+				new UserFieldViolation("squad", UserFieldViolation.Code.NOT_ALLOWED, "Новичок не может иметь отряд"),
+				new UserFieldViolation("birthDate", UserFieldViolation.Code.REQUIRED,
+						"Новичок должен указать дату рождения"),
+				new UserFieldViolation("eventLocation", UserFieldViolation.Code.REQUIRED,
+						"Новичок должен указать место события"));
+		assertThat(userService.validateUserRequest(fighterRequest("Боец")).isValid()).isTrue();
+		
+		assertThatThrownBy(() -> userService.createUser(novice))
+				.isInstanceOf(UserValidationException.class)
+				.extracting(e -> ((UserValidationException) e).getViolations())
+				.asList().hasSize(3);
+		assertThat(userRepository.count()).isZero();
+	}
+	
+	private static List<Object> readAll(Function<String, UserPageResponse<?>> pageLoader) {
+		List<Object> result = new ArrayList<>();
+		String cursor = null;
+		do {
+			UserPageResponse<?> page = pageLoader.apply(cursor);
+			result.addAll(page.getItems());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return result;
+	}
+	
+	private static UserRequest fighterRequest(String surname) {
+		UserRequest request = request(surname, UserRole.FIGHTER);
+		request.setEventLocation(EventLocation.BOTH);
+		return request;
+	}
+	
+	private static UserRequest request(String surname, UserRole role) {
+		UserRequest request = new UserRequest();
+		request.setName("Имя");
+		request.setSurname(surname);
+		request.setRole(role);
+		return request;
+	}
+	
+	private static User user(String surname, UserRole role) {
+		User user = new User();
+		user.setName("Имя");
+		user.setSurname(surname);
+		user.setRole(role);
+		user.setEventLocation(EventLocation.BOTH);
+		return user;
+	}
+}
@@ -0,0 +1,140 @@
+package com.api.backend.stats;
+
+import com.api.backend.dto.response.UserStatsResponse;
+import com.api.backend.event.UserChangedEvent;
+import com.api.backend.model.User;
+import com.api.backend.model.enums.EventLocation;
+import com.api.backend.model.enums.Squad;
+import com.api.backend.model.enums.UserRole;
+import com.api.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import(UserStatsCounters.class)
+class UserStatsCountersTest {
+	
+	@Autowired
+	private UserRepository userRepository;
+	
+	@Autowired
+	private UserStatsCounters userStatsCounters;
+	
+	@Test
+	void countsUsersFromGroupedQuery() {
+		User guest = user(UserRole.GUEST, null);
+		guest.setSquad(Squad.GNOM);
+		guest.setNeedSpeech(true);
+		User minor = user(UserRole.NOVICE, EventLocation.BANQUET);
+		minor.setBirthDate(LocalDate.now().minusYears(17));
+		minor.setHasAllergies(true);
+		User adult = user(UserRole.NOVICE, EventLocation.BOTH);
+		adult.setBirthDate(LocalDate.now().minusYears(18));
+		User veteran = user(UserRole.VETERAN, EventLocation.OFFICIAL_PART);
+		veteran.setWillPerform(true);
+		veteran.setHasCar(true);
+		userRepository.saveAll(List.of(guest, minor, adult, veteran));
+		
+		userStatsCounters.rebuild();
+		UserStatsResponse stats = userStatsCounters.snapshot();
+		
+		assertThat(stats.getTotal()).isEqualTo(4);
+		assertThat(stats.getByRole()).containsEntry(UserRole.NOVICE, 2L).containsEntry(UserRole.FIGHTER, 0L);
+		assertThat(stats.getBySquad()).containsEntry(Squad.GNOM, 1L);
+		assertThat(stats.getByEventLocation()).containsEntry(EventLocation.BANQUET, 1L);
+		assertThat(stats.getAttendingBanquet()).isEqualTo(2);
+		assertThat(stats.getAttendingOfficialPart()).isEqualTo(2);
+		assertThat(stats.getWithAllergies()).isEqualTo(1);
+		assertThat(stats.getWithCar()).isEqualTo(1);
+		assertThat(stats.getSpeakers()).isEqualTo(1);
+		assertThat(stats.getPerformers()).isEqualTo(1);
+		assertThat(stats.getMinorsAtBanquet()).isEqualTo(1);
+	}
+	
+	// После событий счетчики должны совпадать с построенными заново
+	@Test
+	void appliesChangesIncrementally() {
+		User minor = user(UserRole.NOVICE, EventLocation.BANQUET);
+		minor.setBirthDate(LocalDate.now().minusYears(16));
+		User fighter = user(UserRole.FIGHTER, EventLocation.BOTH);
+		fighter.setWantBowling(true);
+		userRepository.saveAll(List.of(minor, fighter));
+		userStatsCounters.rebuild();
+		
+		User created = userRepository.save(user(UserRole.VETERAN, EventLocation.BANQUET));
+		userStatsCounters.onUserChanged(UserChangedEvent.created(created));
+		User before = UserChangedEvent.copyOf(minor);
+		minor.setEventLocation(EventLocation.OFFICIAL_PART);
+		userRepository.save(minor);
+		userStatsCounters.onUserChanged(UserChangedEvent.updated(before, minor));
+		userRepository.delete(fighter);
+		userStatsCounters.onUserChanged(UserChangedEvent.deleted(fighter));
+		
+		UserStatsResponse incremental = userStatsCounters.snapshot();
+		userStatsCounters.rebuild();
+		
+		assertThat(incremental).isEqualTo(userStatsCounters.snapshot());
+		assertThat(incremental.getTotal()).isEqualTo(2);
+		assertThat(incremental.getMinorsAtBanquet()).isZero();
+		assertThat(incremental.getWantBowling()).isZero();
+	}
+	
+	// Пользователь, созданный, пока выполняется запрос перестроения, не теряется при подмене счетчиков
+	@Test
+	void keepsChangesMadeDuringRebuild() {
+		UserRepository repository = mock(UserRepository.class);
+		UserStatsCounters counters = new UserStatsCounters(repository);
+		User created = user(UserRole.FIGHTER, EventLocation.BOTH);
+		when(repository.countStatsRows(any())).thenAnswer(invocation -> {
+			counters.onUserChanged(UserChangedEvent.created(created));
+			return List.of();
+		});
+		
+		counters.rebuild();
+		
+		assertThat(counters.snapshot().getTotal()).isEqualTo(1);
+		assertThat(counters.snapshot().getByRole()).containsEntry(UserRole.FIGHTER, 1L);
+	}
+	
+	// Записи из разных потоков применяются параллельно и не теряются
+	@Test
+	void countsConcurrentChanges() throws InterruptedException {
+		UserStatsCounters counters = new UserStatsCounters(mock(UserRepository.class));
+		User created = user(UserRole.VETERAN, EventLocation.BOTH);
+		List<Thread> writers = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			writers.add(new Thread(() -> {
+				for (int j = 0; j < 1000; j++) {
+					counters.onUserChanged(UserChangedEvent.created(created));
+				}
+			}));
+		}
+		writers.forEach(Thread::start);
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		
+		assertThat(counters.snapshot().getTotal()).isEqualTo(4000);
+		assertThat(counters.snapshot().getByRole()).containsEntry(UserRole.VETERAN, 4000L);
+	}
+	
+	private static User user(UserRole role, EventLocation eventLocation) {
+		User user = new User();
+		user.setName("Имя");
+		user.setSurname("Фамилия");
+		user.setRole(role);
+		user.setEventLocation(eventLocation);
+		return user;
+	}
+}